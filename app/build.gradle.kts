@@ -33,6 +33,8 @@ android {
 
 dependencies {
 
+    // Modelle und Berechnungslogik (reines Java)
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.recyclerview)
@@ -0,0 +1,116 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index über alle Fächer nach ihrer ID.
+ * Ersetzt die linearen {@code indexOf}-Suchen im NotenmanagerFragment: ein Fach und seine Position
+ * in der aktuell angezeigten (gefilterten) Liste werden über Hash-Maps in O(1) gefunden,
+ * sodass gezielt {@code notifyItemChanged} für genau diese Position aufgerufen werden kann.
+ * Registrierte IDs werden an {@link Fach#idBelegt(long)} gemeldet, damit neue Fächer nie eine
+ * bereits gespeicherte ID erhalten.
+ */
+public class FachRegistry {
+
+    private final Map<Long, Fach> nachId = new HashMap<>();           // ID -> Fach (alle Fächer)
+    private final Map<Long, Integer> positionNachId = new HashMap<>(); // ID -> Position in der angezeigten Liste
+
+    /**
+     * Gibt Fächern, deren ID bereits ein früheres Fach der Liste trägt, eine neue, eindeutige ID.
+     * Solche Doppelungen stammen aus älteren Versionen, die IDs direkt aus {@code System.currentTimeMillis()}
+     * vergeben haben. Das jeweils erste Fach behält seine ID, jedes weitere wird durch eine Kopie mit neuer ID
+     * (gleicher Name, gleiches Halbjahr, gleiche Noten) an derselben Position ersetzt.
+     * Muss vor {@link #setFaecher(List)} aufgerufen werden; der Aufrufer speichert den bereinigten Stand.
+     *
+     * @param faecher Alle geladenen Fächer, wird verändert.
+     * @return Die Anzahl der Fächer, die eine neue ID erhalten haben.
+     */
+    public static int doppelteIdsErsetzen(List<Fach> faecher) {
+        // Erst alle IDs melden, damit keine neue ID mit einer später in der Liste stehenden kollidiert.
+        for (Fach fach : faecher) {
+            Fach.idBelegt(fach.getId());
+        }
+        Set<Long> vergeben = new HashSet<>();
+        int ersetzt = 0;
+        for (int i = 0; i < faecher.size(); i++) {
+            Fach fach = faecher.get(i);
+            if (vergeben.add(fach.getId())) {
+                continue;
+            }
+            Fach kopie = new Fach(Fach.neueId(), fach.getName(), fach.getHalbjahr(), fach.isAbiturfach());
+            kopie.setNoten(fach.getNoten());
+            faecher.set(i, kopie);
+            vergeben.add(kopie.getId());
+            ersetzt++;
+        }
+        return ersetzt;
+    }
+
+    /**
+     * Baut den Index für eine vollständige Fächerliste neu auf (z.B. nach dem Laden).
+     *
+     * @param faecher Alle Fächer.
+     */
+    public void setFaecher(List<Fach> faecher) {
+        nachId.clear();
+        for (Fach fach : faecher) {
+            hinzufuegen(fach);
+        }
+    }
+
+    /**
+     * Nimmt ein neues Fach in den Index auf.
+     *
+     * @param fach Das neue Fach.
+     */
+    public void hinzufuegen(Fach fach) {
+        nachId.put(fach.getId(), fach);
+        Fach.idBelegt(fach.getId());
+    }
+
+    /**
+     * Entfernt ein Fach aus dem Index, auch aus der angezeigten Liste.
+     *
+     * @param fach Das entfernte Fach.
+     */
+    public void entfernen(Fach fach) {
+        nachId.remove(fach.getId());
+        positionNachId.remove(fach.getId());
+    }
+
+    /**
+     * Merkt sich die Positionen der aktuell angezeigten Fächer.
+     * Muss nach jeder Änderung der Liste aufgerufen werden, die der Adapter anzeigt.
+     *
+     * @param angezeigt Die Liste, die der FachAdapter anzeigt.
+     */
+    public void setAngezeigt(List<Fach> angezeigt) {
+        positionNachId.clear();
+        for (int i = 0; i < angezeigt.size(); i++) {
+            positionNachId.put(angezeigt.get(i).getId(), i);
+        }
+    }
+
+    /**
+     * @param id Die ID des gesuchten Fachs.
+     * @return Das Fach oder null, wenn keines mit dieser ID existiert.
+     */
+    public Fach getFach(long id) {
+        return nachId.get(id);
+    }
+
+    /**
+     * @param id Die ID des gesuchten Fachs.
+     * @return Die Position in der angezeigten Liste oder -1, wenn das Fach gerade nicht angezeigt wird.
+     */
+    public int getPosition(long id) {
+        Integer position = positionNachId.get(id);
+        return position != null ? position : -1;
+    }
+}
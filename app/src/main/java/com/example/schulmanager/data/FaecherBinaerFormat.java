@@ -0,0 +1,282 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Kompaktes, versioniertes Binärformat für den Snapshot aller Fächer und Noten.
+ * Gegenüber dem JSON-String in den SharedPreferences entfallen Feldnamen, Escaping und Zahlen als Text;
+ * der bekannte Notentyp wird als ein Byte gespeichert. Gelesen und geschrieben wird über
+ * {@link FileChannel} und {@link ByteBuffer}.
+ *
+ * <pre>
+ * Kopf:  int MAGIC | short VERSION | long snapshotSeq | int anzahlFaecher
+ * Fach:  long id | String name | byte halbjahr | byte abiturfach | int anzahlNoten | Note...
+ * Note:  double wert | byte typCode [String typ, nur bei TYP_SONSTIG] | long datum | double gewichtung
+ * String: int laenge (-1 = null) | UTF-8-Bytes
+ * Ende:  int crc32 über alle vorherigen Bytes (ab Version 2)
+ * </pre>
+ *
+ * Die Prüfsumme wird vor dem Dekodieren geprüft, sodass ein beschädigter Snapshot erkannt wird,
+ * ohne seinen Inhalt zu interpretieren. Snapshots der Version 1 (ohne Prüfsumme) werden weiterhin gelesen.
+ */
+public final class FaecherBinaerFormat {
+
+    static final int MAGIC = 0x534D4E54; // "SMNT"
+    static final short VERSION = 2;
+    private static final short VERSION_OHNE_PRUEFSUMME = 1;
+
+    // --- Codes für den Notentyp ---
+    private static final byte TYP_NULL = 0;
+    private static final byte TYP_SCHRIFTLICH = 1;
+    private static final byte TYP_MUENDLICH = 2;
+    private static final byte TYP_UNBEKANNT = 3;
+    private static final byte TYP_SONSTIG = 4; // Beliebiger anderer Text, folgt als String
+
+    private static final int KOPF_GROESSE = 4 + 2 + 8 + 4;
+    private static final int FACH_GROESSE = 8 + 4 + 1 + 1 + 4;  // ohne Namensbytes
+    private static final int NOTE_GROESSE = 8 + 1 + 8 + 8;      // ohne Bytes eines sonstigen Typs
+    private static final int PRUEFSUMME_GROESSE = 4;
+
+    private FaecherBinaerFormat() {
+        // Keine Instanzen
+    }
+
+    /**
+     * Ergebnis beim Lesen eines Snapshots: die Fächer und die Nummer des letzten enthaltenen Journal-Eintrags.
+     */
+    public static final class Snapshot {
+        public final List<Fach> faecher;
+        public final long seq;
+
+        Snapshot(List<Fach> faecher, long seq) {
+            this.faecher = faecher;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * Schreibt alle Fächer als Binär-Snapshot in den Kanal (ab der aktuellen Position).
+     *
+     * @param faecher Die zu schreibenden Fächer.
+     * @param seq     Nummer des letzten im Snapshot enthaltenen Journal-Eintrags.
+     * @param channel Der Zielkanal.
+     * @throws IOException Wenn das Schreiben fehlschlägt.
+     */
+    public static void schreiben(List<Fach> faecher, long seq, FileChannel channel) throws IOException {
+        ByteBuffer buffer = kodieren(faecher, seq);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Kodiert alle Fächer in einen Buffer mit exakt passender Größe.
+     *
+     * @param faecher Die zu kodierenden Fächer.
+     * @param seq     Nummer des letzten im Snapshot enthaltenen Journal-Eintrags.
+     * @return Ein zum Lesen bereiter Buffer (Position 0, Limit = Länge).
+     */
+    static ByteBuffer kodieren(List<Fach> faecher, long seq) {
+        // Erster Durchlauf: Texte kodieren und Gesamtgröße bestimmen, damit nur ein Buffer angelegt wird.
+        byte[][] namen = new byte[faecher.size()][];
+        int groesse = KOPF_GROESSE + PRUEFSUMME_GROESSE;
+        for (int i = 0; i < faecher.size(); i++) {
+            Fach fach = faecher.get(i);
+            namen[i] = fach.getName() != null ? fach.getName().getBytes(StandardCharsets.UTF_8) : null;
+            groesse += FACH_GROESSE + (namen[i] != null ? namen[i].length : 0);
+            for (int j = 0; j < fach.getAnzahlNoten(); j++) {
+                groesse += NOTE_GROESSE;
+                String typ = fach.getNotenTyp(j);
+                if (typCode(typ) == TYP_SONSTIG) {
+                    groesse += 4 + typ.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(groesse);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(seq);
+        buffer.putInt(faecher.size());
+        for (int i = 0; i < faecher.size(); i++) {
+            Fach fach = faecher.get(i);
+            int anzahlNoten = fach.getAnzahlNoten();
+            buffer.putLong(fach.getId());
+            putBytes(buffer, namen[i]);
+            buffer.put((byte) fach.getHalbjahr());
+            buffer.put((byte) (fach.isAbiturfach() ? 1 : 0));
+            buffer.putInt(anzahlNoten);
+            // Direkt aus den Notenspalten des Fachs, ohne Note-Objekte zu erzeugen.
+            for (int j = 0; j < anzahlNoten; j++) {
+                String typ = fach.getNotenTyp(j);
+                byte code = typCode(typ);
+                buffer.putDouble(fach.getNotenWert(j));
+                buffer.put(code);
+                if (code == TYP_SONSTIG) {
+                    putBytes(buffer, typ.getBytes(StandardCharsets.UTF_8));
+                }
+                buffer.putLong(fach.getNotenDatum(j));
+                buffer.putDouble(fach.getNotenGewichtung(j));
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Liest einen vollständigen Binär-Snapshot aus dem Kanal.
+     *
+     * @param channel Der Quellkanal, wird ab Position 0 bis zum Ende gelesen.
+     * @return Der gelesene Snapshot.
+     * @throws IOException Wenn das Lesen fehlschlägt oder die Datei kein gültiger Snapshot ist.
+     */
+    public static Snapshot lesen(FileChannel channel) throws IOException {
+        long laenge = channel.size();
+        if (laenge > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot zu groß: " + laenge + " Bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) laenge);
+        channel.position(0);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return dekodieren(buffer);
+    }
+
+    /**
+     * Dekodiert einen Snapshot aus dem Buffer.
+     *
+     * @param buffer Buffer mit den Snapshot-Bytes ab der aktuellen Position.
+     * @return Der gelesene Snapshot.
+     * @throws IOException Wenn die Daten kein gültiger Snapshot sind.
+     */
+    static Snapshot dekodieren(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Keine Snapshot-Datei");
+            }
+            short version = buffer.getShort();
+            if (version == VERSION) {
+                pruefePruefsumme(buffer);
+            } else if (version != VERSION_OHNE_PRUEFSUMME) {
+                throw new IOException("Unbekannte Snapshot-Version " + version);
+            }
+            long seq = buffer.getLong();
+            int anzahlFaecher = pruefeAnzahl(buffer.getInt(), buffer, FACH_GROESSE);
+            List<Fach> faecher = new ArrayList<>(anzahlFaecher);
+            for (int i = 0; i < anzahlFaecher; i++) {
+                long id = buffer.getLong();
+                String name = getString(buffer);
+                int halbjahr = buffer.get();
+                boolean abiturfach = buffer.get() != 0;
+                int anzahlNoten = pruefeAnzahl(buffer.getInt(), buffer, NOTE_GROESSE);
+                List<Note> noten = new ArrayList<>(anzahlNoten);
+                for (int j = 0; j < anzahlNoten; j++) {
+                    double wert = buffer.getDouble();
+                    byte code = buffer.get();
+                    String typ = code == TYP_SONSTIG ? getString(buffer) : typName(code);
+                    long datum = buffer.getLong();
+                    double gewichtung = buffer.getDouble();
+                    noten.add(new Note(wert, typ, datum, gewichtung));
+                }
+                Fach fach = new Fach(id, name, halbjahr, abiturfach);
+                fach.setNoten(noten);
+                faecher.add(fach);
+            }
+            return new Snapshot(faecher, seq);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Snapshot ist unvollständig oder beschädigt", e);
+        }
+    }
+
+    // --- Hilfsmethoden ---
+
+    private static byte typCode(String typ) {
+        if (typ == null) return TYP_NULL;
+        switch (typ) {
+            case "schriftlich":
+                return TYP_SCHRIFTLICH;
+            case "muendlich":
+                return TYP_MUENDLICH;
+            case "unbekannt":
+                return TYP_UNBEKANNT;
+            default:
+                return TYP_SONSTIG;
+        }
+    }
+
+    private static String typName(byte code) {
+        switch (code) {
+            case TYP_SCHRIFTLICH:
+                return "schriftlich";
+            case TYP_MUENDLICH:
+                return "muendlich";
+            case TYP_UNBEKANNT:
+                return "unbekannt";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Vergleicht die Prüfsumme am Ende mit den Bytes davor und schließt sie vom weiteren Lesen aus.
+     * Erwartet, dass der Buffer direkt hinter dem Versionsfeld steht.
+     */
+    private static void pruefePruefsumme(ByteBuffer buffer) throws IOException {
+        int start = buffer.position() - 4 - 2; // Ab MAGIC
+        int ende = buffer.limit() - PRUEFSUMME_GROESSE;
+        if (ende < buffer.position()) {
+            throw new IOException("Snapshot ist unvollständig");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, ende - start);
+        if (buffer.getInt(ende) != (int) crc.getValue()) {
+            throw new IOException("Prüfsumme des Snapshots stimmt nicht");
+        }
+        buffer.limit(ende);
+    }
+
+    // Verhindert, dass eine beschädigte Anzahl zu riesigen Listen-Allokationen führt.
+    private static int pruefeAnzahl(int anzahl, ByteBuffer buffer, int mindestGroesse) throws IOException {
+        if (anzahl < 0 || (long) anzahl * mindestGroesse > buffer.remaining()) {
+            throw new IOException("Ungültige Anzahl im Snapshot: " + anzahl);
+        }
+        return anzahl;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int laenge = buffer.getInt();
+        if (laenge < 0) {
+            return null;
+        }
+        // Direkt aus dem Array des Buffers dekodieren, ohne Zwischenkopie.
+        String text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), laenge, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + laenge);
+        return text;
+    }
+}
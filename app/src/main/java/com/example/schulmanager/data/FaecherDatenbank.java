@@ -0,0 +1,74 @@
+package com.example.schulmanager.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * SQLiteOpenHelper für das optionale SQLite-Backend.
+ * Fächer und Noten liegen in zwei normalisierten Tabellen; Indizes auf `fach.halbjahr` und
+ * `note.fach_id` erlauben Abfragen für ein Halbjahr oder ein Fach, ohne alle Daten zu lesen.
+ */
+class FaecherDatenbank extends SQLiteOpenHelper {
+
+    private static final String DATENBANK_NAME = "faecher.db";
+    private static final int DATENBANK_VERSION = 2; // 2: Index auf fach.halbjahr
+
+    // --- Tabelle fach ---
+    static final String TABELLE_FACH = "fach";
+    static final String FACH_ID = "id";
+    static final String FACH_NAME = "name";
+    static final String FACH_HALBJAHR = "halbjahr";
+    static final String FACH_ABITURFACH = "abiturfach";
+    static final String FACH_REIHENFOLGE = "reihenfolge"; // Erhält die Reihenfolge, in der die Fächer angelegt wurden
+
+    // --- Tabelle note ---
+    static final String TABELLE_NOTE = "note";
+    static final String NOTE_ID = "_id";
+    static final String NOTE_FACH_ID = "fach_id";
+    static final String NOTE_POSITION = "position"; // Reihenfolge innerhalb des Fachs (nicht zwingend lückenlos)
+    static final String NOTE_WERT = "wert";
+    static final String NOTE_TYP = "typ";
+    static final String NOTE_DATUM = "datum";
+    static final String NOTE_GEWICHTUNG = "gewichtung";
+
+    private static final String INDEX_FACH_HALBJAHR =
+            "CREATE INDEX IF NOT EXISTS idx_fach_halbjahr ON " + TABELLE_FACH + "(" + FACH_HALBJAHR + ")";
+
+    FaecherDatenbank(Context context) {
+        super(context, DATENBANK_NAME, null, DATENBANK_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        // Damit beim Löschen eines Fachs auch dessen Noten entfernt werden (ON DELETE CASCADE).
+        db.setForeignKeyConstraintsEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABELLE_FACH + " ("
+                + FACH_ID + " INTEGER PRIMARY KEY, "
+                + FACH_NAME + " TEXT, "
+                + FACH_HALBJAHR + " INTEGER NOT NULL, "
+                + FACH_ABITURFACH + " INTEGER NOT NULL, "
+                + FACH_REIHENFOLGE + " INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE " + TABELLE_NOTE + " ("
+                + NOTE_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + NOTE_FACH_ID + " INTEGER NOT NULL REFERENCES " + TABELLE_FACH + "(" + FACH_ID + ") ON DELETE CASCADE, "
+                + NOTE_POSITION + " INTEGER NOT NULL, "
+                + NOTE_WERT + " REAL NOT NULL, "
+                + NOTE_TYP + " TEXT, "
+                + NOTE_DATUM + " INTEGER NOT NULL, "
+                + NOTE_GEWICHTUNG + " REAL NOT NULL)");
+        db.execSQL(INDEX_FACH_HALBJAHR);
+        db.execSQL("CREATE INDEX idx_note_fach_id ON " + TABELLE_NOTE + "(" + NOTE_FACH_ID + ", " + NOTE_POSITION + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            db.execSQL(INDEX_FACH_HALBJAHR); // Version 1 wurde ohne diesen Index ausgeliefert.
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.example.schulmanager.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.schulmanager.models.Fach;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Speichert die Fächer als Snapshot plus angehängtem Änderungsjournal (Write-Ahead-Log).
+ * Statt bei jeder Änderung die komplette Fächerliste neu zu serialisieren, wird nur ein kurzer
+ * {@link JournalEintrag} an eine Datei angehängt. Beim Laden wird der Binär-Snapshot
+ * ({@link FaecherBinaerFormat}) gelesen und das Journal darauf nachgespielt.
+ * Ist das Journal zu lang geworden, wird es in einen neuen Snapshot kompaktiert: beim Laden und auch
+ * während die App läuft, sobald genug neue Einträge geschrieben wurden.
+ * Ein noch vorhandener JSON-Snapshot im alten `faecher`-Eintrag der SharedPreferences
+ * wird beim ersten Laden einmalig in das Binärformat übernommen.
+ *
+ * <p>Absturzsicherheit: Jede Journal-Zeile trägt eine CRC32-Prüfsumme; eine beschädigte oder
+ * unvollständige Zeile beendet das Nachspielen und wird abgeschnitten. Snapshots werden zuerst in
+ * eine temporäre Datei geschrieben und dann per Umbenennen atomar ersetzt. Der vorherige Snapshot
+ * bleibt zusammen mit dem vorherigen Journal als Sicherung erhalten, sodass bei einem beschädigten
+ * Snapshot ohne Neuparsen des defekten Inhalts auf die Sicherung zurückgegriffen werden kann.
+ * Sind Snapshot und Sicherung beide unlesbar, werden sie samt Journalen unter eigenem Namen beiseitegelegt
+ * und bis zum nächsten Start wird nicht mehr kompaktiert, damit keine der Dateien überschrieben wird.</p>
+ */
+public class FaecherJournal implements FaecherSpeicher {
+
+    private static final String TAG = "FaecherJournal";
+
+    // --- Schlüssel und Dateinamen ---
+    static final String KEY_FAECHER = "faecher";                 // Alter JSON-Snapshot, nur noch für die Migration
+    static final String KEY_SNAPSHOT_SEQ = "faecherSnapshotSeq"; // Journal-Nummer des alten JSON-Snapshots
+    static final String SNAPSHOT_DATEI = "faecher.bin";          // Binär-Snapshot aller Fächer
+    static final String JOURNAL_DATEI = "faecher_journal.log";   // Eine Zeile pro Journal-Eintrag: "<crc32> <json>"
+    private static final String ENDUNG_TEMP = ".tmp";            // Snapshot, der gerade geschrieben wird
+    private static final String ENDUNG_SICHERUNG = ".bak";       // Vorheriger Snapshot
+    private static final String ENDUNG_ALT = ".alt";             // Journal, das zum vorherigen Snapshot gehört
+    private static final String ENDUNG_DEFEKT = ".defekt-";      // Beiseitegelegte Datei, gefolgt vom Zeitpunkt
+
+    // Ab dieser Anzahl von Einträgen seit dem letzten Snapshot wird ein neuer geschrieben (beim Laden und beim Schreiben).
+    // Damit bleibt auch die Zeit für die Wiederherstellung nach einem Absturz begrenzt.
+    private static final int KOMPAKTIERUNG_AB = 200;
+
+    // Typ für die Deserialisierung der Fächerliste, wird nur einmal erzeugt.
+    private static final Type FAECHER_TYPE = new TypeToken<ArrayList<Fach>>() {
+    }.getType();
+
+    private final SharedPreferences prefs;
+    private final File snapshotDatei;
+    private final File snapshotTemp;
+    private final File snapshotSicherung;
+    private final File journalDatei;
+    private final File journalAlt;
+    private final Gson gson = GsonProvider.get();
+
+    private long naechsteSeq = 1; // Nummer, die der nächste angehängte Eintrag erhält
+    private int eintraegeSeitSnapshot; // Einträge im Journal, die der aktuelle Snapshot noch nicht enthält
+    // true, wenn weder Snapshot noch Sicherung lesbar waren: der geladene Stand ist unvollständig und wird
+    // bis zum nächsten Start nicht als Snapshot geschrieben. Neue Einträge werden weiter angehängt.
+    private boolean unvollstaendig;
+
+    /**
+     * Konstruktor für das FaecherJournal.
+     *
+     * @param context Kontext, über den das Datenverzeichnis der App ermittelt wird.
+     * @param prefs   Die SharedPreferences, in denen ggf. noch der alte JSON-Snapshot liegt.
+     */
+    public FaecherJournal(Context context, SharedPreferences prefs) {
+        this.prefs = prefs;
+        File verzeichnis = context.getFilesDir();
+        this.snapshotDatei = new File(verzeichnis, SNAPSHOT_DATEI);
+        this.snapshotTemp = new File(verzeichnis, SNAPSHOT_DATEI + ENDUNG_TEMP);
+        this.snapshotSicherung = new File(verzeichnis, SNAPSHOT_DATEI + ENDUNG_SICHERUNG);
+        this.journalDatei = new File(verzeichnis, JOURNAL_DATEI);
+        this.journalAlt = new File(verzeichnis, JOURNAL_DATEI + ENDUNG_ALT);
+    }
+
+    /**
+     * Lädt alle Fächer: liest den Snapshot und spielt anschließend alle neueren Journal-Einträge nach.
+     * Wurden dabei viele Einträge nachgespielt oder musste auf die Sicherung zurückgegriffen werden,
+     * wird direkt ein neuer Snapshot geschrieben. Waren Snapshot und Sicherung beide unlesbar, wird der
+     * aus den Journalen rekonstruierte Teilstand nur zurückgegeben, nicht geschrieben.
+     *
+     * @return Die vollständige, aktuelle Liste aller Fächer (niemals null).
+     */
+    @Override
+    public List<Fach> laden() {
+        boolean[] sicherungVerwendet = new boolean[1];
+        List<Fach> faecher = lesen(sicherungVerwendet);
+        if (!unvollstaendig && (sicherungVerwendet[0] || eintraegeSeitSnapshot >= KOMPAKTIERUNG_AB)) {
+            kompaktieren(faecher);
+        }
+        return faecher;
+    }
+
+    /**
+     * Liest den Snapshot und spielt alle neueren Journal-Einträge nach, ohne etwas zu schreiben.
+     *
+     * @param sicherungVerwendet Wird auf true gesetzt, wenn der Stand aus der Sicherung stammt.
+     * @return Der gespeicherte Stand aller Fächer.
+     */
+    private List<Fach> lesen(boolean[] sicherungVerwendet) {
+        FaecherBinaerFormat.Snapshot snapshot = ladeSnapshot(sicherungVerwendet);
+        List<Fach> faecher = snapshot.faecher;
+        naechsteSeq = snapshot.seq + 1;
+
+        // Index für schnellen Zugriff auf die Fächer beim Nachspielen.
+        Map<Long, Fach> nachId = new HashMap<>();
+        for (Fach fach : faecher) {
+            nachId.put(fach.getId(), fach);
+        }
+
+        int nachgespielt = 0;
+        if (sicherungVerwendet[0]) {
+            // Die Sicherung ist eine Generation älter: erst das dazugehörige alte Journal nachspielen.
+            nachgespielt += nachspielen(journalAlt, snapshot.seq, faecher, nachId);
+        }
+        nachgespielt += nachspielen(journalDatei, snapshot.seq, faecher, nachId);
+        eintraegeSeitSnapshot = nachgespielt;
+        return faecher;
+    }
+
+    /**
+     * Schreibt die übergebene Fächerliste als neuen Binär-Snapshot und beginnt ein neues Journal.
+     * Reihenfolge: temporäre Datei schreiben und synchronisieren, alten Snapshot zur Sicherung umbenennen,
+     * temporäre Datei zum Snapshot umbenennen, Journal zum alten Journal umbenennen.
+     * Jeder Schritt ist atomar; nach einem Absturz an beliebiger Stelle findet {@link #laden()}
+     * einen vollständigen Stand, da der Snapshot die Nummer des letzten enthaltenen Eintrags kennt.
+     * Nach einem unvollständigen Laden (Snapshot und Sicherung unlesbar) passiert bis zum nächsten Start nichts.
+     *
+     * @param faecher Der vollständige aktuelle Stand aller Fächer.
+     */
+    public void kompaktieren(List<Fach> faecher) {
+        if (unvollstaendig) {
+            Log.w(TAG, "Stand ist unvollständig, Kompaktieren übersprungen");
+            return;
+        }
+        if (!schreibeSnapshot(faecher, naechsteSeq - 1)) {
+            return;
+        }
+        eintraegeSeitSnapshot = 0;
+        if (journalDatei.exists() && !journalDatei.renameTo(journalAlt)) {
+            Log.w(TAG, "Journal konnte nach dem Kompaktieren nicht rotiert werden");
+        }
+    }
+
+    /**
+     * Hängt mehrere Einträge mit einem einzigen Schreibvorgang an die Journal-Datei an.
+     * Jede Zeile besteht aus der CRC32-Prüfsumme (8 Hex-Zeichen), einem Leerzeichen und dem Eintrag als JSON.
+     * Die Kosten hängen nur von der Anzahl der Einträge ab, nicht von der Anzahl gespeicherter Fächer und Noten.
+     * Die Einträge müssen bereits beim Auslösen der Änderungen erstellt worden sein, damit sie deren Stand festhalten.
+     * Sind seit dem letzten Snapshot {@code KOMPAKTIERUNG_AB} Einträge zusammengekommen, wird anschließend kompaktiert.
+     *
+     * @param eintraege Die anzuhängenden Einträge in der Reihenfolge, in der die Änderungen passiert sind.
+     */
+    @Override
+    public void aenderungenSpeichern(List<JournalEintrag> eintraege) {
+        CRC32 crc = new CRC32();
+        StringBuilder zeilen = new StringBuilder(eintraege.size() * 112);
+        for (JournalEintrag eintrag : eintraege) {
+            eintrag.seq = naechsteSeq++;
+            String json = gson.toJson(eintrag);
+            crc.reset();
+            crc.update(json.getBytes(StandardCharsets.UTF_8));
+            zeilen.append(pruefsummeAlsHex(crc.getValue())).append(' ').append(json).append('\n');
+        }
+        try (FileOutputStream out = new FileOutputStream(journalDatei, true)) {
+            out.write(zeilen.toString().getBytes(StandardCharsets.UTF_8));
+            out.getChannel().force(false); // Erst nach dem Synchronisieren gilt die Änderung als gespeichert.
+        } catch (IOException e) {
+            Log.e(TAG, "Journal-Einträge konnten nicht geschrieben werden", e);
+            return;
+        }
+        eintraegeSeitSnapshot += eintraege.size();
+        if (eintraegeSeitSnapshot >= KOMPAKTIERUNG_AB && !unvollstaendig) {
+            kompaktierenAusDateien();
+        }
+    }
+
+    /**
+     * Kompaktiert während die App läuft. Der Stand wird aus Snapshot und Journal neu gelesen statt aus der
+     * Fächerliste der UI, die auf dem UI-Thread weiter verändert wird und hier nicht sicher gelesen werden kann.
+     * Läuft wie das Schreiben auf dem Hintergrund-Thread; das Lesen kostet so viel wie ein Laden,
+     * fällt aber nur alle {@code KOMPAKTIERUNG_AB} Einträge an.
+     */
+    private void kompaktierenAusDateien() {
+        long seq = naechsteSeq;
+        List<Fach> faecher = lesen(new boolean[1]);
+        naechsteSeq = Math.max(seq, naechsteSeq); // Auch Nummern fehlgeschlagener Schreibvorgänge nicht erneut vergeben
+        kompaktieren(faecher);
+    }
+
+    /**
+     * Spielt alle gültigen Einträge einer Journal-Datei nach, deren Nummer größer als die des Snapshots ist.
+     * Das Nachspielen endet an der ersten Zeile mit falscher Prüfsumme oder unlesbarem Inhalt;
+     * die Datei wird an dieser Stelle abgeschnitten, damit neue Einträge nicht hinter Datenmüll landen.
+     *
+     * @param datei       Die Journal-Datei.
+     * @param snapshotSeq Nummer des letzten Eintrags, der bereits im Snapshot enthalten ist.
+     * @param faecher     Die Liste aller Fächer, die verändert wird.
+     * @param nachId      Index der Fächer nach ID, wird mitgepflegt.
+     * @return Die Anzahl der nachgespielten Einträge.
+     */
+    private int nachspielen(File datei, long snapshotSeq, List<Fach> faecher, Map<Long, Fach> nachId) {
+        if (!datei.exists()) {
+            return 0;
+        }
+        int nachgespielt = 0;
+        long gueltigeBytes = 0;  // Länge des bis hierhin gültigen Anfangs der Datei
+        boolean beschaedigt = false;
+        CRC32 crc = new CRC32();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(datei), StandardCharsets.UTF_8))) {
+            String zeile;
+            while ((zeile = reader.readLine()) != null) {
+                if (zeile.isEmpty()) {
+                    gueltigeBytes++; // Leere Zeile
+                    continue;
+                }
+                JournalEintrag eintrag = leseZeile(zeile, crc);
+                if (eintrag == null) {
+                    Log.w(TAG, "Beschädigter Journal-Eintrag in " + datei.getName() + ", Nachspielen beendet");
+                    beschaedigt = true;
+                    break;
+                }
+                gueltigeBytes += zeile.getBytes(StandardCharsets.UTF_8).length + 1;
+                // Einträge, die bereits im Snapshot enthalten sind, werden übersprungen.
+                if (eintrag.seq > snapshotSeq) {
+                    anwenden(eintrag, faecher, nachId);
+                    nachgespielt++;
+                }
+                naechsteSeq = Math.max(naechsteSeq, eintrag.seq + 1);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Journal konnte nicht gelesen werden", e);
+        }
+        if (beschaedigt) {
+            abschneiden(datei, gueltigeBytes);
+        }
+        return nachgespielt;
+    }
+
+    /**
+     * Prüft und liest eine einzelne Journal-Zeile.
+     * Zeilen ohne Prüfsumme (beginnen direkt mit "{") stammen aus älteren Versionen und werden ohne Prüfung gelesen.
+     *
+     * @param zeile Die Zeile ohne Zeilenumbruch.
+     * @param crc   Wiederverwendete CRC32-Instanz.
+     * @return Der Eintrag oder null, wenn die Zeile beschädigt ist.
+     */
+    private JournalEintrag leseZeile(String zeile, CRC32 crc) {
+        String json;
+        if (zeile.startsWith("{")) {
+            json = zeile;
+        } else {
+            if (zeile.length() < 10 || zeile.charAt(8) != ' ') {
+                return null;
+            }
+            json = zeile.substring(9);
+            crc.reset();
+            crc.update(json.getBytes(StandardCharsets.UTF_8));
+            if (!zeile.regionMatches(0, pruefsummeAlsHex(crc.getValue()), 0, 8)) {
+                return null;
+            }
+        }
+        try {
+            JournalEintrag eintrag = gson.fromJson(json, JournalEintrag.class);
+            return eintrag != null && eintrag.typ != null ? eintrag : null;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Kürzt eine Datei auf die angegebene Länge (entfernt einen beschädigten Rest).
+     */
+    private static void abschneiden(File datei, long laenge) {
+        try (FileChannel channel = new FileOutputStream(datei, true).getChannel()) {
+            channel.truncate(laenge);
+            channel.force(true);
+        } catch (IOException e) {
+            Log.e(TAG, "Beschädigtes Journal konnte nicht gekürzt werden", e);
+        }
+    }
+
+    /**
+     * Liest den Binär-Snapshot. Ist er beschädigt oder fehlt er nach einem Absturz mitten im Kompaktieren,
+     * wird zuerst der fertig geschriebene temporäre Snapshot und danach die Sicherung versucht.
+     * Existiert noch gar kein Binär-Snapshot, wird der alte JSON-Snapshot aus den SharedPreferences übernommen.
+     *
+     * @param sicherungVerwendet Wird auf true gesetzt, wenn der Stand aus der Sicherung stammt.
+     * @return Der Snapshot; leer mit Nummer 0, wenn noch gar nichts gespeichert wurde.
+     */
+    private FaecherBinaerFormat.Snapshot ladeSnapshot(boolean[] sicherungVerwendet) {
+        boolean snapshotVorhanden = snapshotDatei.exists();
+        if (snapshotVorhanden) {
+            FaecherBinaerFormat.Snapshot snapshot = leseSnapshotDatei(snapshotDatei);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        } else if (snapshotTemp.exists()) {
+            // Absturz zwischen den beiden Umbenennungen: der neue Snapshot liegt noch unter dem temporären Namen.
+            FaecherBinaerFormat.Snapshot snapshot = leseSnapshotDatei(snapshotTemp);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        if (snapshotSicherung.exists()) {
+            FaecherBinaerFormat.Snapshot snapshot = leseSnapshotDatei(snapshotSicherung);
+            if (snapshot != null) {
+                Log.w(TAG, "Snapshot beschädigt oder fehlend, Sicherung wird verwendet");
+                sicherungVerwendet[0] = true;
+                return snapshot;
+            }
+        }
+        if (snapshotVorhanden || snapshotTemp.exists() || snapshotSicherung.exists()) {
+            // Weder Snapshot noch Sicherung lesbar: nur die Journale können noch nachgespielt werden.
+            // Der Teilstand darf nichts ersetzen; alle Dateien bleiben für eine spätere Wiederherstellung erhalten.
+            Log.e(TAG, "Weder Snapshot noch Sicherung sind lesbar, Dateien werden beiseitegelegt");
+            String endung = ENDUNG_DEFEKT + System.currentTimeMillis();
+            beiseitelegen(snapshotDatei, endung);
+            beiseitelegen(snapshotTemp, endung);
+            beiseitelegen(snapshotSicherung, endung);
+            kopieren(journalAlt, endung);   // Die Journale werden gleich noch nachgespielt
+            kopieren(journalDatei, endung);
+            unvollstaendig = true;
+            sicherungVerwendet[0] = true;   // Auch das alte Journal nachspielen
+            return new FaecherBinaerFormat.Snapshot(new ArrayList<>(), 0);
+        }
+        if (journalAlt.exists()) {
+            // Kein Snapshot, aber ein altes Journal: Snapshot und Sicherung wurden beim letzten Start als
+            // unlesbar beiseitegelegt. Das alte Journal gehört weiterhin zum rekonstruierten Stand.
+            sicherungVerwendet[0] = true;
+        }
+        return migriereJsonSnapshot();
+    }
+
+    /**
+     * Benennt eine beschädigte Datei um, damit sie weder erneut gelesen noch überschrieben wird.
+     */
+    private static void beiseitelegen(File datei, String endung) {
+        if (datei.exists() && !datei.renameTo(new File(datei.getPath() + endung))) {
+            Log.e(TAG, datei.getName() + " konnte nicht beiseitegelegt werden");
+        }
+    }
+
+    /**
+     * Kopiert eine Datei unter einen eigenen Namen; das Original bleibt in Gebrauch.
+     */
+    private static void kopieren(File datei, String endung) {
+        if (!datei.exists()) {
+            return;
+        }
+        try (FileChannel quelle = new FileInputStream(datei).getChannel();
+             FileChannel ziel = new FileOutputStream(datei.getPath() + endung).getChannel()) {
+            long laenge = quelle.size();
+            for (long position = 0; position < laenge; ) {
+                position += quelle.transferTo(position, laenge - position, ziel);
+            }
+            ziel.force(true);
+        } catch (IOException e) {
+            Log.e(TAG, datei.getName() + " konnte nicht gesichert werden", e);
+        }
+    }
+
+    /**
+     * Liest eine Snapshot-Datei. Die Prüfsumme wird vor dem Dekodieren geprüft.
+     *
+     * @return Der Snapshot oder null, wenn die Datei beschädigt ist.
+     */
+    private static FaecherBinaerFormat.Snapshot leseSnapshotDatei(File datei) {
+        try (FileChannel channel = new FileInputStream(datei).getChannel()) {
+            return FaecherBinaerFormat.lesen(channel);
+        } catch (IOException e) {
+            Log.e(TAG, "Snapshot " + datei.getName() + " konnte nicht gelesen werden", e);
+            return null;
+        }
+    }
+
+    /**
+     * Einmalige Migration: liest den alten JSON-Snapshot aus dem `faecher`-Eintrag, schreibt ihn als
+     * Binär-Snapshot und entfernt den Eintrag danach aus den SharedPreferences.
+     *
+     * @return Der übernommene Snapshot; leer, wenn kein alter Snapshot existiert.
+     */
+    private FaecherBinaerFormat.Snapshot migriereJsonSnapshot() {
+        String json = prefs.getString(KEY_FAECHER, null);
+        long seq = prefs.getLong(KEY_SNAPSHOT_SEQ, 0);
+        List<Fach> faecher = null;
+        if (json != null) {
+            // Der FachTypeAdapter erzeugt jedes Fach über den Konstruktor, Notenlisten sind daher nie null.
+            faecher = gson.fromJson(json, FAECHER_TYPE);
+        }
+        if (faecher == null) {
+            faecher = new ArrayList<>();
+        }
+        // Der JSON-Eintrag wird erst entfernt, wenn der Binär-Snapshot sicher geschrieben ist.
+        if (json != null && schreibeSnapshot(faecher, seq)) {
+            prefs.edit().remove(KEY_FAECHER).remove(KEY_SNAPSHOT_SEQ).apply();
+        }
+        return new FaecherBinaerFormat.Snapshot(faecher, seq);
+    }
+
+    /**
+     * Schreibt den Binär-Snapshot atomar: erst vollständig in eine temporäre Datei, dann umbenennen.
+     * Der bisherige Snapshot wird dabei zur Sicherung.
+     *
+     * @param faecher Die zu schreibenden Fächer.
+     * @param seq     Nummer des letzten im Snapshot enthaltenen Journal-Eintrags.
+     * @return true, wenn der neue Snapshot vollständig geschrieben und an seinem Platz ist.
+     */
+    private boolean schreibeSnapshot(List<Fach> faecher, long seq) {
+        try (FileChannel channel = new FileOutputStream(snapshotTemp).getChannel()) {
+            FaecherBinaerFormat.schreiben(faecher, seq, channel);
+            channel.force(true); // Erst wenn die Daten auf dem Speicher liegen, darf umbenannt werden.
+        } catch (IOException e) {
+            Log.e(TAG, "Snapshot konnte nicht geschrieben werden", e);
+            return false;
+        }
+        if (snapshotDatei.exists() && !snapshotDatei.renameTo(snapshotSicherung)) {
+            Log.w(TAG, "Bisheriger Snapshot konnte nicht gesichert werden");
+        }
+        if (!snapshotTemp.renameTo(snapshotDatei)) {
+            Log.e(TAG, "Neuer Snapshot konnte nicht an seinen Platz verschoben werden");
+            return false;
+        }
+        return true;
+    }
+
+    private static String pruefsummeAlsHex(long pruefsumme) {
+        String hex = Long.toHexString(pruefsumme);
+        return "00000000".substring(hex.length()) + hex; // Immer 8 Zeichen
+    }
+
+    /**
+     * Wendet einen einzelnen Journal-Eintrag auf die Fächerliste an.
+     *
+     * @param eintrag Der nachzuspielende Eintrag.
+     * @param faecher Die Liste aller Fächer, die verändert wird.
+     * @param nachId  Index der Fächer nach ID, wird mitgepflegt.
+     */
+    private static void anwenden(JournalEintrag eintrag, List<Fach> faecher, Map<Long, Fach> nachId) {
+        Fach fach = nachId.get(eintrag.fachId);
+        switch (eintrag.typ) {
+            case FACH_SPEICHERN:
+                if (fach == null) {
+                    fach = new Fach(eintrag.fachId, eintrag.name, eintrag.halbjahr, eintrag.abiturfach);
+                    faecher.add(fach);
+                    nachId.put(fach.getId(), fach);
+                } else {
+                    fach.setName(eintrag.name);
+                    fach.setHalbjahr(eintrag.halbjahr);
+                    fach.setAbiturfach(eintrag.abiturfach);
+                }
+                break;
+            case FACH_LOESCHEN:
+                if (fach != null) {
+                    faecher.remove(fach);
+                    nachId.remove(eintrag.fachId);
+                }
+                break;
+            case NOTE_HINZUFUEGEN:
+                if (fach != null && eintrag.note != null) {
+                    fach.addNote(eintrag.note);
+                }
+                break;
+            case NOTE_ENTFERNEN:
+                if (fach != null && eintrag.index >= 0 && eintrag.index < fach.getAnzahlNoten()) {
+                    fach.removeNoteAt(eintrag.index);
+                }
+                break;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.schulmanager.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Zentrale Datenquelle für alle Fächer und Noten.
+ * Das Laden (Snapshot lesen, Journal nachspielen) und das Schreiben der Journal-Einträge
+ * laufen auf einem eigenen Hintergrund-Thread, damit der UI-Thread nie auf Dateizugriffe oder Gson warten muss.
+ * Änderungen werden über einen {@link JournalSchreibPuffer} kurz gesammelt und gebündelt geschrieben.
+ * Gespeichert wird standardmäßig im {@link FaecherJournal}; über {@link #KEY_SQLITE_SPEICHER}
+ * (Einstellungen im Notenmanager) kann stattdessen das {@link SqliteFaecherSpeicher}-Backend gewählt werden.
+ * Die geladenen Fächer werden über {@link LiveData} ausgeliefert. Mit dem SQLite-Backend lassen sich außerdem
+ * einzelne Halbjahre und Fächer direkt aus der Datenbank abfragen ({@link #ladeHalbjahr}, {@link #ladeFach}).
+ */
+public class FaecherRepository {
+
+    /**
+     * Schlüssel in den SharedPreferences: true wählt das SQLite-Backend statt Snapshot + Journal.
+     * Die Wahl wird beim nächsten Start der App wirksam; dabei wird der Stand aus dem bisher verwendeten
+     * Backend übernommen, in beide Richtungen.
+     */
+    public static final String KEY_SQLITE_SPEICHER = "sqliteSpeicher";
+    // true, solange die SQLite-Datenbank den aktuellen Stand hält (sie war das zuletzt verwendete Backend).
+    private static final String KEY_SQLITE_AKTUELL = "sqliteAktuell";
+
+    // Ein einzelner Thread garantiert, dass Journal-Einträge in derselben Reihenfolge geschrieben werden,
+    // in der die Änderungen ausgelöst wurden, und erst nach dem Laden.
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final MutableLiveData<List<Fach>> faecher = new MutableLiveData<>();
+    private final Handler hauptThread = new Handler(Looper.getMainLooper()); // Liefert Abfrageergebnisse an die UI
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final FaecherJournal journal;
+    private final SqliteFaecherSpeicher sqliteSpeicher; // null, wenn das Journal-Backend verwendet wird
+    private final JournalSchreibPuffer puffer;
+
+    private boolean ladenGestartet; // Verhindert, dass die Daten mehrfach geladen werden.
+
+    /**
+     * Konstruktor für das FaecherRepository.
+     *
+     * @param context Kontext, über den die Speicherorte ermittelt werden.
+     * @param prefs   Die SharedPreferences der Notendaten (alter Snapshot und Wahl des Backends).
+     */
+    public FaecherRepository(Context context, SharedPreferences prefs) {
+        this.context = context.getApplicationContext();
+        this.prefs = prefs;
+        this.journal = new FaecherJournal(context, prefs);
+        this.sqliteSpeicher = prefs.getBoolean(KEY_SQLITE_SPEICHER, false)
+                ? new SqliteFaecherSpeicher(context) : null;
+        this.puffer = new JournalSchreibPuffer(executor, sqliteSpeicher != null ? sqliteSpeicher : journal);
+    }
+
+    /**
+     * Gibt die geladenen Fächer zurück. Der Wert ist null, bis das Laden abgeschlossen ist.
+     * Die ausgelieferte Liste ist dieselbe Instanz, die anschließend von der UI verändert wird.
+     *
+     * @return LiveData mit der Liste aller Fächer.
+     */
+    public LiveData<List<Fach>> getFaecher() {
+        return faecher;
+    }
+
+    /**
+     * Startet das Laden der Fächer im Hintergrund, falls dies noch nicht geschehen ist.
+     * Muss vom UI-Thread aufgerufen werden.
+     */
+    public void laden() {
+        if (ladenGestartet) {
+            return;
+        }
+        ladenGestartet = true;
+        executor.execute(() -> faecher.postValue(ladeAusSpeicher()));
+    }
+
+    /**
+     * Lädt alle Fächer aus dem gewählten Backend. Läuft auf dem Hintergrund-Thread.
+     */
+    private List<Fach> ladeAusSpeicher() {
+        boolean sqliteAktuell = prefs.getBoolean(KEY_SQLITE_AKTUELL, false);
+        if (sqliteSpeicher == null) {
+            if (!sqliteAktuell) {
+                List<Fach> faecher = journal.laden();
+                if (FachRegistry.doppelteIdsErsetzen(faecher) > 0) {
+                    journal.kompaktieren(faecher); // Die neuen IDs festhalten, bevor Einträge auf sie verweisen.
+                }
+                return faecher;
+            }
+            // Zurück zum Journal: den Stand aus der Datenbank als neuen Snapshot übernehmen.
+            List<Fach> faecher = new SqliteFaecherSpeicher(context).laden();
+            journal.laden(); // Setzt die Journal-Nummern fort, damit der neue Snapshot alle alten Einträge ersetzt.
+            journal.kompaktieren(faecher);
+            // Synchron, denn der Wechsel muss feststehen, bevor in das neue Backend geschrieben wird.
+            prefs.edit().putBoolean(KEY_SQLITE_AKTUELL, false).commit();
+            return faecher;
+        }
+        if (!sqliteAktuell) {
+            // Wechsel zu SQLite: den Stand aus Snapshot + Journal übernehmen.
+            // Doppelte IDs vorher auflösen, sonst verwirft der Primärschlüssel eines der Fächer.
+            List<Fach> faecher = journal.laden();
+            FachRegistry.doppelteIdsErsetzen(faecher);
+            sqliteSpeicher.importieren(faecher);
+            prefs.edit().putBoolean(KEY_SQLITE_AKTUELL, true).commit();
+        }
+        return sqliteSpeicher.laden();
+    }
+
+    // --- Abfragen (nur SQLite-Backend) ---
+
+    /**
+     * @return true, wenn das SQLite-Backend verwendet wird und {@link #ladeHalbjahr} und {@link #ladeFach} verfügbar sind.
+     */
+    public boolean hatAbfragen() {
+        return sqliteSpeicher != null;
+    }
+
+    /**
+     * Liest die Fächer eines Halbjahres samt Noten aus der Datenbank, ohne die übrigen zu lesen.
+     * Noch gepufferte Änderungen werden vorher geschrieben, damit das Ergebnis dem Stand beim Aufruf entspricht.
+     * Muss vom UI-Thread aufgerufen werden; das Ergebnis wird auf dem UI-Thread ausgeliefert.
+     * Die gelieferten Fächer sind eigene Objekte, nicht die Instanzen aus {@link #getFaecher()}.
+     *
+     * @param halbjahr Das Halbjahr (1-4).
+     * @param ergebnis Erhält die Fächer dieses Halbjahres in der Reihenfolge ihrer Erstellung.
+     * @throws IllegalStateException Wenn nicht das SQLite-Backend verwendet wird.
+     */
+    public void ladeHalbjahr(int halbjahr, Consumer<List<Fach>> ergebnis) {
+        abfragen(() -> sqliteSpeicher.ladeHalbjahr(halbjahr), ergebnis);
+    }
+
+    /**
+     * Liest ein einzelnes Fach samt Noten aus der Datenbank. Ablauf wie bei {@link #ladeHalbjahr}.
+     *
+     * @param fachId   Die ID des Fachs.
+     * @param ergebnis Erhält das gespeicherte Fach oder null, wenn es in der Datenbank nicht existiert.
+     * @throws IllegalStateException Wenn nicht das SQLite-Backend verwendet wird.
+     */
+    public void ladeFach(long fachId, Consumer<Fach> ergebnis) {
+        abfragen(() -> sqliteSpeicher.ladeFach(fachId), ergebnis);
+    }
+
+    private <T> void abfragen(Supplier<T> abfrage, Consumer<T> ergebnis) {
+        if (sqliteSpeicher == null) {
+            throw new IllegalStateException("Abfragen gibt es nur mit dem SQLite-Backend");
+        }
+        // Der Executor arbeitet in Reihenfolge ab: das vorgezogene Schreiben läuft vor der Abfrage.
+        puffer.flush();
+        executor.execute(() -> {
+            T wert = abfrage.get();
+            hauptThread.post(() -> ergebnis.accept(wert));
+        });
+    }
+
+    // --- Änderungen protokollieren ---
+    // Die Einträge werden sofort (auf dem aufrufenden Thread) erstellt, damit sie den Stand zum Zeitpunkt
+    // der Änderung festhalten. Nur das Schreiben selbst passiert gebündelt im Hintergrund.
+
+    /**
+     * Protokolliert, dass ein Fach neu angelegt oder seine Eigenschaften geändert wurden.
+     *
+     * @param fach Das gespeicherte Fach.
+     */
+    public void fachGespeichert(Fach fach) {
+        schreiben(JournalEintrag.fachGespeichert(fach));
+    }
+
+    /**
+     * Protokolliert, dass ein Fach gelöscht wurde.
+     *
+     * @param fach Das gelöschte Fach.
+     */
+    public void fachGeloescht(Fach fach) {
+        schreiben(JournalEintrag.fachGeloescht(fach));
+    }
+
+    /**
+     * Protokolliert, dass eine Note an die Notenliste eines Fachs angehängt wurde.
+     *
+     * @param fach Das Fach, zu dem die Note gehört.
+     * @param note Die neue Note.
+     */
+    public void noteHinzugefuegt(Fach fach, Note note) {
+        schreiben(JournalEintrag.noteHinzugefuegt(fach, note));
+    }
+
+    /**
+     * Protokolliert, dass eine Note aus der Notenliste eines Fachs entfernt wurde.
+     *
+     * @param fach  Das Fach, zu dem die Note gehörte.
+     * @param index Die Position, an der die Note vor dem Entfernen stand.
+     */
+    public void noteEntfernt(Fach fach, int index) {
+        schreiben(JournalEintrag.noteEntfernt(fach, index));
+    }
+
+    /**
+     * Zieht das Schreiben aller noch gepufferten Änderungen vor, ohne darauf zu warten.
+     */
+    public void flush() {
+        puffer.flush();
+    }
+
+    /**
+     * Zieht ausstehende Änderungen vor und beendet den Hintergrund-Thread, sobald sie geschrieben sind.
+     */
+    public void schliessen() {
+        puffer.flush();
+        executor.shutdown();
+    }
+
+    private void schreiben(JournalEintrag eintrag) {
+        puffer.hinzufuegen(eintrag);
+    }
+}
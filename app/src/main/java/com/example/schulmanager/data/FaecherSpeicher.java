@@ -0,0 +1,26 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.List;
+
+/**
+ * Gemeinsame Schnittstelle der Speicher-Backends für Fächer und Noten.
+ * Alle Methoden werden ausschließlich auf dem Hintergrund-Thread des {@link FaecherRepository} aufgerufen.
+ */
+public interface FaecherSpeicher {
+
+    /**
+     * Lädt den vollständigen gespeicherten Stand aller Fächer.
+     *
+     * @return Die Liste aller Fächer (niemals null).
+     */
+    List<Fach> laden();
+
+    /**
+     * Speichert eine Folge von Änderungen in der Reihenfolge, in der sie passiert sind.
+     *
+     * @param aenderungen Die zu speichernden Journal-Einträge.
+     */
+    void aenderungenSpeichern(List<JournalEintrag> aenderungen);
+}
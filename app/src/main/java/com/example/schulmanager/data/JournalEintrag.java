@@ -0,0 +1,62 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+/**
+ * Ein einzelner Eintrag im Änderungsjournal der Fächer.
+ * Jeder Eintrag beschreibt genau eine Änderung (Fach anlegen/ändern/löschen, Note hinzufügen/entfernen)
+ * und enthält nur die Daten, die zum Nachspielen dieser einen Änderung nötig sind.
+ * Die Felder werden beim Erstellen kopiert, damit ein Eintrag auch nach späteren Änderungen am Fach
+ * unverändert bleibt.
+ */
+public class JournalEintrag {
+
+    /**
+     * Die Art der Änderung, die ein Journal-Eintrag beschreibt.
+     */
+    public enum Typ {
+        FACH_SPEICHERN,   // Fach neu angelegt oder Name/Halbjahr/Abiturfach geändert
+        FACH_LOESCHEN,    // Fach inklusive aller Noten entfernt
+        NOTE_HINZUFUEGEN, // Note am Ende der Notenliste eines Fachs angehängt
+        NOTE_ENTFERNEN    // Note an einer bestimmten Position der Notenliste entfernt
+    }
+
+    long seq;           // Fortlaufende Nummer, wird beim Anhängen an das Journal vergeben
+    Typ typ;            // Art der Änderung
+    long fachId;        // ID des betroffenen Fachs
+    String name;        // Nur bei FACH_SPEICHERN: Name des Fachs
+    int halbjahr;       // Nur bei FACH_SPEICHERN: Halbjahr des Fachs
+    boolean abiturfach; // Nur bei FACH_SPEICHERN: Abiturfach-Status
+    Note note;          // Nur bei NOTE_HINZUFUEGEN: die neue Note
+    int index;          // Nur bei NOTE_ENTFERNEN: Position der entfernten Note
+
+    private JournalEintrag(Typ typ, long fachId) {
+        this.typ = typ;
+        this.fachId = fachId;
+    }
+
+    static JournalEintrag fachGespeichert(Fach fach) {
+        JournalEintrag eintrag = new JournalEintrag(Typ.FACH_SPEICHERN, fach.getId());
+        eintrag.name = fach.getName();
+        eintrag.halbjahr = fach.getHalbjahr();
+        eintrag.abiturfach = fach.isAbiturfach();
+        return eintrag;
+    }
+
+    static JournalEintrag fachGeloescht(Fach fach) {
+        return new JournalEintrag(Typ.FACH_LOESCHEN, fach.getId());
+    }
+
+    static JournalEintrag noteHinzugefuegt(Fach fach, Note note) {
+        JournalEintrag eintrag = new JournalEintrag(Typ.NOTE_HINZUFUEGEN, fach.getId());
+        eintrag.note = note; // Note ist unveränderlich und kann daher direkt übernommen werden
+        return eintrag;
+    }
+
+    static JournalEintrag noteEntfernt(Fach fach, int index) {
+        JournalEintrag eintrag = new JournalEintrag(Typ.NOTE_ENTFERNEN, fach.getId());
+        eintrag.index = index;
+        return eintrag;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.schulmanager.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sammelt Journal-Einträge kurz im Speicher und schreibt sie gebündelt (Write-Behind).
+ * Werden Noten schnell hintereinander eingegeben, entsteht so pro Zeitfenster nur ein Schreibvorgang
+ * statt einem pro Klick. Mehrfaches Speichern desselben Fachs innerhalb eines Fensters wird zu einem
+ * einzigen Eintrag zusammengefasst.
+ * Über {@link #flush()} kann das Schreiben ausstehender Einträge vorgezogen werden (z.B. in onPause).
+ */
+class JournalSchreibPuffer {
+
+    // Zeitfenster, in dem Änderungen gesammelt werden, bevor sie geschrieben werden.
+    static final long VERZOEGERUNG_MS = 500;
+
+    private final ScheduledExecutorService executor; // Derselbe Thread, auf dem auch geladen wird
+    private final FaecherSpeicher speicher;
+
+    // Zugriff nur innerhalb von synchronized, da UI-Thread (hinzufügen) und Hintergrund-Thread (schreiben) beteiligt sind.
+    private List<JournalEintrag> ausstehend = new ArrayList<>();
+    private ScheduledFuture<?> geplant;
+
+    /**
+     * Konstruktor für den JournalSchreibPuffer.
+     *
+     * @param executor Der Hintergrund-Thread, auf dem geschrieben wird. Muss single-threaded sein,
+     *                 damit die Reihenfolge der Schreibvorgänge erhalten bleibt.
+     * @param speicher Der Speicher, in den die Einträge geschrieben werden.
+     */
+    JournalSchreibPuffer(ScheduledExecutorService executor, FaecherSpeicher speicher) {
+        this.executor = executor;
+        this.speicher = speicher;
+    }
+
+    /**
+     * Nimmt einen Eintrag in den Puffer auf und plant das Schreiben, falls noch keines geplant ist.
+     *
+     * @param eintrag Der neue Eintrag.
+     */
+    synchronized void hinzufuegen(JournalEintrag eintrag) {
+        if (!zusammenfassen(eintrag)) {
+            ausstehend.add(eintrag);
+        }
+        if (geplant == null) {
+            geplant = executor.schedule(this::schreiben, VERZOEGERUNG_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Zieht das Schreiben aller ausstehenden Einträge vor, ohne darauf zu warten.
+     * Sollte aufgerufen werden, bevor der Prozess beendet werden könnte (onPause, onDestroyView).
+     * Blockiert den aufrufenden (UI-)Thread nicht: Der Schreibvorgang wird nur ohne Verzögerung auf dem
+     * Hintergrund-Thread eingeplant und läuft dort, sobald ein eventuell noch laufendes Laden fertig ist.
+     */
+    synchronized void flush() {
+        if (ausstehend.isEmpty()) {
+            return;
+        }
+        if (geplant != null) {
+            geplant.cancel(false); // Das verzögerte Schreiben durch ein sofortiges ersetzen
+        }
+        geplant = executor.schedule(this::schreiben, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schreibt alle bis jetzt gesammelten Einträge in einem Schreibvorgang. Läuft auf dem Hintergrund-Thread.
+     */
+    private void schreiben() {
+        List<JournalEintrag> batch;
+        synchronized (this) {
+            batch = ausstehend;
+            ausstehend = new ArrayList<>();
+            if (geplant != null) {
+                geplant.cancel(false); // Einen noch wartenden Lauf verwerfen, er fände nichts mehr vor
+                geplant = null;
+            }
+        }
+        if (!batch.isEmpty()) {
+            speicher.aenderungenSpeichern(batch);
+        }
+    }
+
+    /**
+     * Fasst wiederholtes Speichern desselben Fachs zusammen: Steht für das Fach bereits ein
+     * FACH_SPEICHERN-Eintrag im Puffer, werden nur dessen Werte aktualisiert. Das ist korrekt, weil
+     * die übrigen Eintragsarten das Fach nur über seine ID ansprechen und nicht von Name, Halbjahr
+     * oder Abiturfach-Status abhängen.
+     *
+     * @param eintrag Der neue Eintrag.
+     * @return true, wenn der Eintrag mit einem vorhandenen zusammengefasst wurde.
+     */
+    private boolean zusammenfassen(JournalEintrag eintrag) {
+        if (eintrag.typ != JournalEintrag.Typ.FACH_SPEICHERN) {
+            return false;
+        }
+        for (int i = ausstehend.size() - 1; i >= 0; i--) {
+            JournalEintrag vorhanden = ausstehend.get(i);
+            if (vorhanden.fachId != eintrag.fachId) {
+                continue;
+            }
+            if (vorhanden.typ == JournalEintrag.Typ.FACH_LOESCHEN) {
+                return false; // Fach wurde gelöscht und neu angelegt, Reihenfolge muss erhalten bleiben
+            }
+            if (vorhanden.typ == JournalEintrag.Typ.FACH_SPEICHERN) {
+                vorhanden.name = eintrag.name;
+                vorhanden.halbjahr = eintrag.halbjahr;
+                vorhanden.abiturfach = eintrag.abiturfach;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.schulmanager.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.schulmanager.data.FaecherDatenbank.*;
+
+/**
+ * Optionales Speicher-Backend auf Basis von SQLite ({@link FaecherDatenbank}).
+ * Jede Änderung betrifft nur die zugehörigen Zeilen; ein Bündel von Änderungen wird in einer
+ * Transaktion geschrieben. Neben dem vollständigen Laden gibt es Abfragen für ein einzelnes
+ * Halbjahr oder Fach, die über die Indizes nur die benötigten Zeilen lesen.
+ */
+public class SqliteFaecherSpeicher implements FaecherSpeicher {
+
+    private static final String TAG = "SqliteFaecherSpeicher";
+
+    private static final String FACH_SPALTEN = FACH_ID + ", " + FACH_NAME + ", " + FACH_HALBJAHR + ", " + FACH_ABITURFACH;
+    private static final String NOTE_SPALTEN = NOTE_FACH_ID + ", " + NOTE_WERT + ", " + NOTE_TYP + ", " + NOTE_DATUM + ", " + NOTE_GEWICHTUNG;
+
+    private final FaecherDatenbank datenbank;
+
+    public SqliteFaecherSpeicher(Context context) {
+        this.datenbank = new FaecherDatenbank(context);
+    }
+
+    @Override
+    public List<Fach> laden() {
+        SQLiteDatabase db = datenbank.getReadableDatabase();
+        return ladeMitNoten(db,
+                "SELECT " + FACH_SPALTEN + " FROM " + TABELLE_FACH + " ORDER BY " + FACH_REIHENFOLGE,
+                "SELECT " + NOTE_SPALTEN + " FROM " + TABELLE_NOTE + " ORDER BY " + NOTE_FACH_ID + ", " + NOTE_POSITION,
+                null);
+    }
+
+    /**
+     * Lädt nur die Fächer (samt Noten) eines Halbjahres. Nutzt die Indizes auf `halbjahr` und `fach_id`.
+     *
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Die Fächer dieses Halbjahres in der Reihenfolge ihrer Erstellung.
+     */
+    public List<Fach> ladeHalbjahr(int halbjahr) {
+        SQLiteDatabase db = datenbank.getReadableDatabase();
+        String[] args = {String.valueOf(halbjahr)};
+        return ladeMitNoten(db,
+                "SELECT " + FACH_SPALTEN + " FROM " + TABELLE_FACH
+                        + " WHERE " + FACH_HALBJAHR + " = ? ORDER BY " + FACH_REIHENFOLGE,
+                "SELECT n." + NOTE_FACH_ID + ", n." + NOTE_WERT + ", n." + NOTE_TYP + ", n." + NOTE_DATUM + ", n." + NOTE_GEWICHTUNG
+                        + " FROM " + TABELLE_NOTE + " n JOIN " + TABELLE_FACH + " f ON n." + NOTE_FACH_ID + " = f." + FACH_ID
+                        + " WHERE f." + FACH_HALBJAHR + " = ? ORDER BY n." + NOTE_FACH_ID + ", n." + NOTE_POSITION,
+                args);
+    }
+
+    /**
+     * Lädt ein einzelnes Fach samt Noten. Nutzt den Primärschlüssel und den Index auf `fach_id`.
+     *
+     * @param fachId Die ID des Fachs.
+     * @return Das Fach oder null, wenn es nicht existiert.
+     */
+    public Fach ladeFach(long fachId) {
+        SQLiteDatabase db = datenbank.getReadableDatabase();
+        String[] args = {String.valueOf(fachId)};
+        List<Fach> faecher = ladeMitNoten(db,
+                "SELECT " + FACH_SPALTEN + " FROM " + TABELLE_FACH + " WHERE " + FACH_ID + " = ?",
+                "SELECT " + NOTE_SPALTEN + " FROM " + TABELLE_NOTE
+                        + " WHERE " + NOTE_FACH_ID + " = ? ORDER BY " + NOTE_POSITION,
+                args);
+        return faecher.isEmpty() ? null : faecher.get(0);
+    }
+
+    /**
+     * Ersetzt den gesamten Inhalt der Datenbank durch einen vollständigen Stand (z.B. aus dem Datei-Speicher).
+     * Kommt eine Fach-ID mehrfach vor, wird nur das erste dieser Fächer übernommen.
+     *
+     * @param faecher Die zu übernehmenden Fächer.
+     */
+    public void importieren(List<Fach> faecher) {
+        SQLiteDatabase db = datenbank.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABELLE_FACH, null, null); // Noten werden per ON DELETE CASCADE entfernt
+            for (Fach fach : faecher) {
+                if (!fachEinfuegen(db, fach.getId(), fach.getName(), fach.getHalbjahr(), fach.isAbiturfach())) {
+                    Log.w(TAG, "Fach-ID " + fach.getId() + " mehrfach vorhanden, Fach \"" + fach.getName() + "\" übersprungen");
+                    continue;
+                }
+                int position = 0;
+                for (Note note : fach.getNoten()) {
+                    noteEinfuegen(db, fach.getId(), position++, note);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void aenderungenSpeichern(List<JournalEintrag> aenderungen) {
+        SQLiteDatabase db = datenbank.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (JournalEintrag eintrag : aenderungen) {
+                try {
+                    anwenden(db, eintrag);
+                } catch (SQLException e) {
+                    // Nur diesen Eintrag verwerfen, die übrigen Änderungen des Bündels trotzdem speichern.
+                    Log.e(TAG, "Journal-Eintrag " + eintrag.typ + " für Fach " + eintrag.fachId + " nicht anwendbar", e);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Wendet einen einzelnen Journal-Eintrag auf die Tabellen an.
+     */
+    private static void anwenden(SQLiteDatabase db, JournalEintrag eintrag) {
+        String[] fachArg = {String.valueOf(eintrag.fachId)};
+        switch (eintrag.typ) {
+            case FACH_SPEICHERN:
+                ContentValues werte = new ContentValues();
+                werte.put(FACH_NAME, eintrag.name);
+                werte.put(FACH_HALBJAHR, eintrag.halbjahr);
+                werte.put(FACH_ABITURFACH, eintrag.abiturfach ? 1 : 0);
+                // Erst aktualisieren; nur wenn es das Fach noch nicht gibt, neu einfügen.
+                if (db.update(TABELLE_FACH, werte, FACH_ID + " = ?", fachArg) == 0) {
+                    fachEinfuegen(db, eintrag.fachId, eintrag.name, eintrag.halbjahr, eintrag.abiturfach);
+                }
+                break;
+            case FACH_LOESCHEN:
+                db.delete(TABELLE_FACH, FACH_ID + " = ?", fachArg); // Noten werden per ON DELETE CASCADE entfernt
+                break;
+            case NOTE_HINZUFUEGEN:
+                if (DatabaseUtils.queryNumEntries(db, TABELLE_FACH, FACH_ID + " = ?", fachArg) == 0) {
+                    // Der Fremdschlüssel würde das Einfügen ablehnen; eine Note ohne Fach kann nie angezeigt werden.
+                    Log.w(TAG, "Note für unbekanntes Fach " + eintrag.fachId + " verworfen");
+                    break;
+                }
+                long position = DatabaseUtils.longForQuery(db,
+                        "SELECT COALESCE(MAX(" + NOTE_POSITION + ") + 1, 0) FROM " + TABELLE_NOTE
+                                + " WHERE " + NOTE_FACH_ID + " = ?", fachArg);
+                noteEinfuegen(db, eintrag.fachId, position, eintrag.note);
+                break;
+            case NOTE_ENTFERNEN:
+                // Die index-te Note des Fachs in Positions-Reihenfolge entfernen.
+                db.execSQL("DELETE FROM " + TABELLE_NOTE + " WHERE " + NOTE_ID + " = (SELECT " + NOTE_ID
+                                + " FROM " + TABELLE_NOTE + " WHERE " + NOTE_FACH_ID + " = ? ORDER BY " + NOTE_POSITION
+                                + " LIMIT 1 OFFSET ?)",
+                        new Object[]{eintrag.fachId, eintrag.index});
+                break;
+        }
+    }
+
+    /**
+     * @return false, wenn es bereits ein Fach mit dieser ID gibt (dann wird nichts eingefügt).
+     */
+    private static boolean fachEinfuegen(SQLiteDatabase db, long id, String name, int halbjahr, boolean abiturfach) {
+        long reihenfolge = DatabaseUtils.longForQuery(db,
+                "SELECT COALESCE(MAX(" + FACH_REIHENFOLGE + ") + 1, 0) FROM " + TABELLE_FACH, null);
+        ContentValues werte = new ContentValues();
+        werte.put(FACH_ID, id);
+        werte.put(FACH_NAME, name);
+        werte.put(FACH_HALBJAHR, halbjahr);
+        werte.put(FACH_ABITURFACH, abiturfach ? 1 : 0);
+        werte.put(FACH_REIHENFOLGE, reihenfolge);
+        return db.insertWithOnConflict(TABELLE_FACH, null, werte, SQLiteDatabase.CONFLICT_IGNORE) != -1;
+    }
+
+    private static void noteEinfuegen(SQLiteDatabase db, long fachId, long position, Note note) {
+        ContentValues werte = new ContentValues();
+        werte.put(NOTE_FACH_ID, fachId);
+        werte.put(NOTE_POSITION, position);
+        werte.put(NOTE_WERT, note.getWert());
+        werte.put(NOTE_TYP, note.getTyp());
+        werte.put(NOTE_DATUM, note.getDatum());
+        werte.put(NOTE_GEWICHTUNG, note.getGewichtung());
+        db.insertOrThrow(TABELLE_NOTE, null, werte);
+    }
+
+    /**
+     * Führt eine Fach- und eine passende Noten-Abfrage aus und setzt daraus die Fach-Objekte zusammen.
+     * Beide Abfragen müssen die Spalten in der Reihenfolge von {@link #FACH_SPALTEN} bzw. {@link #NOTE_SPALTEN} liefern.
+     */
+    private static List<Fach> ladeMitNoten(SQLiteDatabase db, String fachSql, String noteSql, String[] args) {
+        List<Fach> faecher = new ArrayList<>();
+        Map<Long, List<Note>> notenNachFach = new HashMap<>();
+        try (Cursor cursor = db.rawQuery(fachSql, args)) {
+            while (cursor.moveToNext()) {
+                Fach fach = new Fach(cursor.getLong(0), cursor.getString(1), cursor.getInt(2), cursor.getInt(3) != 0);
+                faecher.add(fach);
+                notenNachFach.put(fach.getId(), new ArrayList<>());
+            }
+        }
+        try (Cursor cursor = db.rawQuery(noteSql, args)) {
+            while (cursor.moveToNext()) {
+                List<Note> noten = notenNachFach.get(cursor.getLong(0));
+                if (noten != null) {
+                    noten.add(new Note(cursor.getDouble(1), cursor.isNull(2) ? null : cursor.getString(2),
+                            cursor.getLong(3), cursor.getDouble(4)));
+                }
+            }
+        }
+        for (Fach fach : faecher) {
+            fach.setNoten(notenNachFach.get(fach.getId()));
+        }
+        return faecher;
+    }
+}
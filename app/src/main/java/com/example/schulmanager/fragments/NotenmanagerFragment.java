@@ -4,6 +4,10 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,6 +16,8 @@ import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.CheckBox;
 import android.widget.EditText;
+import android.widget.ImageButton;
+import android.widget.LinearLayout;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.Spinner;
@@ -21,23 +27,37 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.schulmanager.R;
 import com.example.schulmanager.adapters.FachAdapter;
 import com.example.schulmanager.adapters.NoteAdapter;
+import com.example.schulmanager.data.FachRegistry;
+import com.example.schulmanager.data.FaecherRepository;
+import com.example.schulmanager.data.GsonProvider;
 import com.example.schulmanager.models.Fach;
 import com.example.schulmanager.models.Note;
+import com.example.schulmanager.utils.AbiPrognose;
+import com.example.schulmanager.utils.AbiRechner;
 import com.example.schulmanager.utils.BerechnungUtil;
+import com.example.schulmanager.utils.EinbringungsRegel;
+import com.example.schulmanager.utils.HalbjahrStatistik;
+import com.example.schulmanager.utils.NotenWirkung;
+import com.example.schulmanager.utils.PruefungsZielRechner;
+import com.example.schulmanager.utils.Regelwerk;
+import com.example.schulmanager.utils.TrendRechner;
+import com.example.schulmanager.viewmodels.NotenmanagerViewModel;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Das NotenmanagerFragment ist das Haupt-Fragment für die Verwaltung von Fächern und Noten.
@@ -49,17 +69,32 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
 
     // --- Konstanten für SharedPreferences ---
     private static final String PREF_NAME = "NotenManager";
-    private static final String KEY_FAECHER = "faecher";
     private static final String KEY_PRUEFUNGEN = "pruefungen";
     private static final String PREF_LAST_HALBJAHR_ADD = "lastHalbjahrAdd";
+    private static final String KEY_REGELWERK = "regelwerk"; // Name aus Regelwerk.MITGELIEFERT, Standard "bayern"
+
+    // Pflicht-Regeln für die Einbringung der Halbjahresleistungen: alle Leistungen der Abiturfächer.
+    private static final List<EinbringungsRegel> EINBRINGUNGS_REGELN =
+            Collections.singletonList(EinbringungsRegel.abiturfaecher());
+
+    // Prognose: Anzahl der Simulationen und wie viele Noten ein Fach im Halbjahr mindestens bekommt.
+    private static final int PROGNOSE_SIMULATIONEN = 100_000;
+    private static final int PROGNOSE_NOTEN_JE_HALBJAHR = 4;
 
     // --- Adapter-Instanzen ---
     private FachAdapter fachAdapter; // Adapter für die Anzeige der Fächer-Liste.
     private NoteAdapter noteAdapter; // Adapter für die Anzeige der Noten-Liste innerhalb des Noten-Dialogs.
 
+    // --- Persistenz ---
+    private NotenmanagerViewModel viewModel; // Lädt und speichert die Fächer im Hintergrund über das FaecherRepository.
+
     // --- Datenlisten ---
     private List<Fach> alleFaecher = new ArrayList<>(); // Enthält alle Fächer der Anwendung, unabhängig vom Halbjahr.
     private final List<Fach> gefilterteFaecher = new ArrayList<>(); // Enthält die Fächer, die dem aktuell ausgewählten Halbjahr entsprechen.
+    private final FachRegistry registry = new FachRegistry(); // Findet Fächer und ihre Adapter-Position über die ID.
+    private AbiRechner abiRechner; // Hält den Abi-Stand und wird bei jeder Änderung nur um das Delta korrigiert; null bis zum Laden.
+    private TrendRechner trendRechner; // Notentrend je Fach, wird wie der AbiRechner bei jeder Änderung nachgeführt.
+    private Regelwerk regelwerk = Regelwerk.BAYERN; // Die in den Einstellungen gewählten Abiturregeln.
 
     // --- UI-Elemente und Zustandsvariablen ---
     private AlertDialog currentDialog; // Referenz auf den aktuell geöffneten AlertDialog, um ihn bei Bedarf zu schließen.
@@ -114,12 +149,32 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
         // Berechnet und zeigt den Durchschnitt des aktuell ausgewählten Halbjahres an.
         btnSchnitt.setOnClickListener(v -> zeigeHalbjahrSchnitt());
 
-        // Lädt die gespeicherten Daten (Fächer und ggf. Prüfungsnoten) beim Start des Fragments.
-        loadData();
+        ImageButton btnEinstellungen = view.findViewById(R.id.btn_einstellungen);
+        // Zeigt die Einstellungen (z.B. Wahl des Speichers) an.
+        btnEinstellungen.setOnClickListener(v -> showEinstellungenDialog());
+
+        regelwerk = ladeRegelwerk();
+
+        // Holt das ViewModel, das die Fächer im Hintergrund lädt und speichert.
+        viewModel = new ViewModelProvider(this).get(NotenmanagerViewModel.class);
 
         return view; // Gibt die erstellte View des Fragments zurück.
     }
 
+    /**
+     * Wird aufgerufen, nachdem die View-Hierarchie erstellt wurde.
+     * Hier wird das Laden der Daten angestoßen, da erst jetzt der Lifecycle der View zum Beobachten bereitsteht.
+     *
+     * @param view               Die von onCreateView zurückgegebene View.
+     * @param savedInstanceState Gespeicherter Zustand des Fragments (hier nicht verwendet).
+     */
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // Lädt die gespeicherten Fächer beim Start des Fragments im Hintergrund.
+        loadData(view);
+    }
+
     /**
      * Hilfsmethode zur Initialisierung des Halbjahrsfilter-Spinners.
      *
@@ -225,8 +280,11 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
                 );
 
                 alleFaecher.add(fach); // Fügt das neue Fach zur globalen Liste hinzu.
-                saveData(); // Speichert alle Fächer in SharedPreferences und aktualisiert den Adapter (durch filterFaecher()).
-                // Keine separate notifyItemInserted hier, da saveData() -> filterFaecher() -> notifyDataSetChanged() übernimmt.
+                registry.hinzufuegen(fach);
+                abiRechner.fachHinzugefuegt(fach);
+                trendRechner.fachHinzugefuegt(fach);
+                viewModel.fachGespeichert(fach); // Protokolliert nur das neue Fach im Journal.
+                filterFaecher(); // Aktualisiert den Adapter (notifyDataSetChanged()).
 
                 // Speichert die zuletzt ausgewählte Halbjahrsposition für den nächsten "Fach hinzufügen"-Dialog.
                 prefs.edit().putInt(PREF_LAST_HALBJAHR_ADD, selectedHalbjahrPosition).apply();
@@ -247,9 +305,8 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
      * @param fach Das Fach-Objekt, das bearbeitet werden soll.
      */
     private void showEditDialog(Fach fach) {
-        // Findet die Position des Fachs in der Liste 'alleFaecher'. Wichtig für adapter.notifyItemRemoved/Changed.
-        final int position = alleFaecher.indexOf(fach);
-        if (position == -1)
+        // Prüft über die ID, ob das Fach noch existiert (z.B. nicht inzwischen gelöscht wurde).
+        if (registry.getFach(fach.getId()) == null)
             return; // Falls das Fach aus irgendeinem Grund nicht gefunden wird, abbrechen.
 
         // Erstellt einen AlertDialog.Builder für den Dialog.
@@ -291,9 +348,12 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
                 .setPositiveButton("Speichern", null) // Wieder null für manuelle Validierung.
                 .setNegativeButton("Löschen", (dialog, id) -> {
                     // Bei Klick auf "Löschen": Entfernt das Fach aus der Liste.
-                    alleFaecher.remove(position);
-                    saveData(); // Speichert die aktualisierte Liste.
-                    // Durch saveData() wird filterFaecher() aufgerufen, das notifyDataSetChanged() macht.
+                    alleFaecher.remove(fach);
+                    registry.entfernen(fach);
+                    abiRechner.fachEntfernt(fach);
+                    trendRechner.fachEntfernt(fach);
+                    viewModel.fachGeloescht(fach); // Protokolliert das Löschen im Journal.
+                    filterFaecher(); // Macht notifyDataSetChanged().
                     // Kein notifyItemRemoved() hier, da es vom vollständigen Refresh abgedeckt wird.
                     Toast.makeText(requireContext(), "Fach gelöscht", Toast.LENGTH_SHORT).show();
                     dialog.dismiss(); // Schließt den Dialog.
@@ -317,15 +377,19 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
                 }
 
                 // Aktualisiert die Eigenschaften des Fach-Objekts mit den neuen Werten.
+                int neuesHalbjahr = spHalbjahr.getSelectedItemPosition() + 1;
+                boolean halbjahrGeaendert = neuesHalbjahr != fach.getHalbjahr();
                 fach.setName(newName);
-                fach.setHalbjahr(spHalbjahr.getSelectedItemPosition() + 1);
+                fach.setHalbjahr(neuesHalbjahr);
                 fach.setAbiturfach(cbAbitur.isChecked());
 
-                saveData(); // Speichert die Änderungen an allen Fächern.
-                // notifyItemChanged ist weiterhin sinnvoll, um sicherzustellen,
-                // dass der spezielle Eintrag im RecyclerView sofort aktualisiert wird,
-                // auch wenn filterFaecher() später notifyDataSetChanged() aufruft.
-                fachAdapter.notifyItemChanged(position);
+                viewModel.fachGespeichert(fach); // Protokolliert die geänderten Eigenschaften des Fachs.
+                if (halbjahrGeaendert) {
+                    abiRechner.fachAktualisieren(fach); // Abiturfach-Status kann sich geändert haben.
+                    filterFaecher(); // Das Fach wechselt in ein anderes Halbjahr, daher neu filtern.
+                } else {
+                    fachAktualisieren(fach); // Nur dieser eine Eintrag im RecyclerView ändert sich.
+                }
                 Toast.makeText(requireContext(), "Fach gespeichert", Toast.LENGTH_SHORT).show();
                 currentDialog.dismiss(); // Schließt den Dialog nur, wenn die Eingabe gültig war.
             });
@@ -366,6 +430,7 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
         // Initialisiert den NoteAdapter mit der Notenliste des aktuellen Fachs und dem Fragment als Listener.
         noteAdapter = new NoteAdapter(fach.getNoten(), this);
         rvCurrentNotes.setAdapter(noteAdapter);
+        notenMitSpeicherVergleichen(fach);
 
         builder.setView(dialogView)
                 .setTitle("Noten hinzufügen/bearbeiten")
@@ -425,13 +490,13 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
                     // Erstellt ein neues Note-Objekt mit der Gewichtung.
                     Note neueNote = new Note(wert, typ, gewichtung);
                     fach.addNote(neueNote); // Fügt die neue Note zur Liste des Fachs hinzu.
-                    saveData(); // Speichert die aktualisierten Daten.
+                    viewModel.noteHinzugefuegt(fach, neueNote); // Protokolliert nur die neue Note.
 
                     // Benachrichtigt den NoteAdapter über die hinzugefügte Note.
                     noteAdapter.notifyItemInserted(fach.getNoten().size() - 1);
                     rvCurrentNotes.scrollToPosition(fach.getNoten().size() - 1);
                     // Benachrichtigt den FachAdapter, dass sich die Daten dieses Fachs geändert haben (Durchschnitt).
-                    fachAdapter.notifyItemChanged(alleFaecher.indexOf(fach));
+                    fachAktualisieren(fach);
 
                     etNoteWert.setText("");
                     etNoteGewichtung.setText("1.0"); // Gewichtungsfeld zurücksetzen auf Standard
@@ -447,6 +512,23 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
         currentDialog.show(); // Zeigt den Dialog an.
     }
 
+    /**
+     * Vergleicht mit dem SQLite-Backend die Noten eines Fachs mit dem gespeicherten Stand, über eine Abfrage
+     * nur für dieses Fach. Ein Unterschied bedeutet, dass eine Änderung nicht gespeichert werden konnte
+     * (die Datenbank verwirft einzelne fehlerhafte Einträge); dann wird gewarnt.
+     *
+     * @param fach Das Fach, dessen Noten gerade angezeigt werden.
+     */
+    private void notenMitSpeicherVergleichen(Fach fach) {
+        if (!viewModel.hatAbfragen()) return;
+        List<Note> erwartet = new ArrayList<>(fach.getNoten()); // Stand beim Abfragen, spätere Eingaben zählen nicht
+        viewModel.ladeFach(fach.getId(), gespeichert -> {
+            if (isAdded() && (gespeichert == null || !gespeichert.getNoten().equals(erwartet))) {
+                Toast.makeText(requireContext(), R.string.noten_nicht_gespeichert, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
     /**
      * Implementierung der onNoteClick-Methode aus dem NoteAdapter.OnNoteClickListener Interface.
      * Wird aufgerufen, wenn auf eine Note in der Liste geklickt wird.
@@ -478,15 +560,24 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
                 .setPositiveButton("Ja", (dialog, which) -> {
                     // Stellt sicher, dass ein Fach zur Bearbeitung der Noten ausgewählt ist.
                     if (currentFachForNotes != null) {
+                        // Merkt sich die Position der Note, damit das Journal das Entfernen eindeutig beschreiben kann.
+                        // Die Position aus dem Adapter stimmt im Normalfall; nur wenn nicht, wird gesucht.
+                        List<Note> noten = currentFachForNotes.getNoten();
+                        int index = position;
+                        if (index < 0 || index >= noten.size() || !note.equals(noten.get(index))) {
+                            index = noten.indexOf(note);
+                        }
+                        if (index == -1) return;
                         // Entfernt die Note aus der Liste des aktuellen Fachs.
-                        currentFachForNotes.removeNote(note);
-                        saveData(); // Speichert die aktualisierten Daten.
+                        currentFachForNotes.removeNoteAt(index);
+                        viewModel.noteEntfernt(currentFachForNotes, index); // Protokolliert das Entfernen.
 
                         // Benachrichtigt den NoteAdapter über die entfernte Note und die Verschiebung der nachfolgenden Elemente.
-                        noteAdapter.notifyItemRemoved(position);
-                        noteAdapter.notifyItemRangeChanged(position, currentFachForNotes.getNoten().size());
+                        // Maßgeblich ist der Index der tatsächlich entfernten Note, nicht die evtl. veraltete Adapter-Position.
+                        noteAdapter.notifyItemRemoved(index);
+                        noteAdapter.notifyItemRangeChanged(index, currentFachForNotes.getNoten().size() - index);
                         // Benachrichtigt den FachAdapter, dass sich die Daten dieses Fachs geändert haben (Durchschnitt).
-                        fachAdapter.notifyItemChanged(alleFaecher.indexOf(currentFachForNotes));
+                        fachAktualisieren(currentFachForNotes);
                         Toast.makeText(requireContext(), "Note gelöscht", Toast.LENGTH_SHORT).show();
                     }
                 })
@@ -495,64 +586,125 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
     }
 
     /**
-     * Lädt die gespeicherten Fächer und Prüfungsnoten aus den SharedPreferences.
-     * Diese Methode wird beim Erstellen des Fragments aufgerufen, um den letzten Zustand wiederherzustellen.
+     * Zeigt die Einstellungen an. Sie werden in denselben SharedPreferences gespeichert wie die Notendaten;
+     * die Wahl des Speichers liest das {@link FaecherRepository} beim nächsten Start der App,
+     * ein anderes Regelwerk gilt sofort.
      */
-    private void loadData() {
-        // Holt die SharedPreferences-Instanz für die App.
+    private void showEinstellungenDialog() {
         SharedPreferences prefs = requireContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        View dialogView = LayoutInflater.from(requireContext()).inflate(R.layout.dialog_einstellungen, null);
+        CheckBox cbSqlite = dialogView.findViewById(R.id.cb_sqlite_speicher);
+        boolean sqliteVorher = prefs.getBoolean(FaecherRepository.KEY_SQLITE_SPEICHER, false);
+        cbSqlite.setChecked(sqliteVorher);
+
+        // Bundesland: alle mitgelieferten Regelwerke, angezeigt unter ihrem Namen aus der Konfiguration.
+        Spinner spRegelwerk = dialogView.findViewById(R.id.sp_regelwerk);
+        List<String> anzeigeNamen = new ArrayList<>();
+        for (String name : Regelwerk.MITGELIEFERT) {
+            anzeigeNamen.add(Regelwerk.laden(name).getName());
+        }
+        ArrayAdapter<String> regelwerkAdapter = new ArrayAdapter<>(requireContext(),
+                android.R.layout.simple_spinner_item, anzeigeNamen);
+        regelwerkAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spRegelwerk.setAdapter(regelwerkAdapter);
+        String regelwerkVorher = prefs.getString(KEY_REGELWERK, Regelwerk.MITGELIEFERT.get(0));
+        spRegelwerk.setSelection(Math.max(0, Regelwerk.MITGELIEFERT.indexOf(regelwerkVorher)));
+
+        currentDialog = new AlertDialog.Builder(requireContext())
+                .setTitle(R.string.einstellungen)
+                .setView(dialogView)
+                .setPositiveButton("Speichern", (dialog, which) -> {
+                    String regelwerkNeu = Regelwerk.MITGELIEFERT.get(spRegelwerk.getSelectedItemPosition());
+                    if (!regelwerkNeu.equals(regelwerkVorher)) {
+                        prefs.edit().putString(KEY_REGELWERK, regelwerkNeu).apply();
+                        regelwerk = Regelwerk.laden(regelwerkNeu);
+                        rechnerNeuAufbauen();
+                    }
+                    if (cbSqlite.isChecked() != sqliteVorher) {
+                        prefs.edit().putBoolean(FaecherRepository.KEY_SQLITE_SPEICHER, cbSqlite.isChecked()).apply();
+                        Toast.makeText(requireContext(), R.string.einstellungen_neustart, Toast.LENGTH_LONG).show();
+                    }
+                })
+                .setNegativeButton("Abbrechen", null)
+                .create();
+        currentDialog.show();
+    }
 
-        // --- Fächer laden ---
-        String jsonFaecher = prefs.getString(KEY_FAECHER, null); // Holt den JSON-String der Fächer.
-        if (jsonFaecher != null) {
-            // Definiert den Typ für die Deserialisierung (eine ArrayList von Fach-Objekten).
-            Type type = new TypeToken<ArrayList<Fach>>() {
-            }.getType();
-            // Deserialisiert den JSON-String in eine Liste von Fach-Objekten.
-            alleFaecher = new Gson().fromJson(jsonFaecher, type);
-            // Iteriert durch alle geladenen Fächer, um sicherzustellen, dass ihre Notenlisten nicht null sind.
-            // Dies ist wichtig, wenn Gson ein leeres Array als null interpretiert oder wenn Fächer ohne Noten gespeichert wurden.
-            for (Fach fach : alleFaecher) {
-                if (fach.getNoten() == null) {
-                    fach.setNoten(new ArrayList<>()); // Initialisiert eine leere Liste, falls null.
-                }
-            }
+    /**
+     * Lädt das in den Einstellungen gewählte Regelwerk. Unbekannte Namen (z.B. aus einer neueren Version)
+     * fallen auf {@link Regelwerk#BAYERN} zurück.
+     *
+     * @return Das Regelwerk für alle Berechnungen des Fragments.
+     */
+    private Regelwerk ladeRegelwerk() {
+        SharedPreferences prefs = requireContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        String name = prefs.getString(KEY_REGELWERK, null);
+        if (name == null || !Regelwerk.MITGELIEFERT.contains(name)) {
+            return Regelwerk.BAYERN;
+        }
+        return Regelwerk.laden(name);
+    }
+
+    /**
+     * Baut AbiRechner und TrendRechner für den aktuellen Stand und das aktuelle Regelwerk neu auf.
+     * Vor dem Laden der Fächer passiert nichts; dann baut der Beobachter in {@link #loadData(View)} sie auf.
+     */
+    private void rechnerNeuAufbauen() {
+        if (abiRechner == null) return; // Noch nicht geladen.
+        abiRechner = new AbiRechner(alleFaecher, loadPruefungsPunkte(), EINBRINGUNGS_REGELN, regelwerk);
+        trendRechner = new TrendRechner(alleFaecher, regelwerk);
+    }
+
+    /**
+     * Lädt die gespeicherten Fächer über das ViewModel im Hintergrund.
+     * Bis die Daten da sind, wird statt der Liste ein Platzhalter angezeigt und der FAB ist deaktiviert,
+     * damit keine Fächer angelegt werden, bevor der gespeicherte Stand geladen wurde.
+     *
+     * @param view Die Root-View des Fragments.
+     */
+    private void loadData(View view) {
+        TextView tvPlatzhalter = view.findViewById(R.id.tv_lade_platzhalter);
+        RecyclerView recyclerView = view.findViewById(R.id.recycler_view);
+        FloatingActionButton fabAdd = view.findViewById(R.id.fab_add);
+
+        // Die Liste bleibt dieselbe Instanz, die das Repository ausgeliefert hat.
+        // Wird die View neu erstellt, liefert LiveData diese (inzwischen veränderte) Liste erneut aus.
+        viewModel.getFaecher().observe(getViewLifecycleOwner(), faecher -> {
+            if (faecher == null) return; // Noch nicht geladen.
+            alleFaecher = faecher;
+            registry.setFaecher(faecher);
+            abiRechner = new AbiRechner(faecher, loadPruefungsPunkte(), EINBRINGUNGS_REGELN, regelwerk);
+            trendRechner = new TrendRechner(faecher, regelwerk);
+            tvPlatzhalter.setVisibility(View.GONE);
+            recyclerView.setVisibility(View.VISIBLE);
+            fabAdd.setEnabled(true);
             // Filtert die geladenen Fächer basierend auf dem aktuell ausgewählten Halbjahr.
             filterFaecher();
-        } else {
-            // Wenn keine Fächer gespeichert sind, stelle sicher, dass die Liste leer ist.
-            alleFaecher = new ArrayList<>();
-            filterFaecher(); // Auch hier filterFaecher aufrufen, um leere Liste zu setzen und Adapter zu aktualisieren.
+        });
+        if (viewModel.getFaecher().getValue() == null) {
+            fabAdd.setEnabled(false); // Erst nach dem Laden Fächer hinzufügen lassen.
         }
+        viewModel.laden(); // Startet das Laden nur beim ersten Aufruf.
 
         // --- Prüfungsnoten laden ---
         // (Wird im showPruefungenDialog direkt geladen, hier nur zur Vollständigkeit erwähnt)
-        // String jsonPruefungen = prefs.getString(KEY_PRUEFUNGEN, null);
-        // int[] pruefungen = (jsonPruefungen != null) ? new Gson().fromJson(jsonPruefungen, int[].class) : new int[5];
         // Hier nicht direkt in eine Instanzvariable laden, da sie nur im Dialog benötigt werden.
     }
 
     /**
-     * Speichert die aktuelle Liste aller Fächer in den SharedPreferences.
-     * Diese Methode sollte nach jeder Änderung an der `alleFaecher`-Liste aufgerufen werden,
-     * um die Daten persistent zu machen.
-     * Ruft anschließend `filterFaecher()` auf, um die UI zu aktualisieren.
+     * Wird aufgerufen, wenn das Fragment nicht mehr im Vordergrund ist.
+     * Gepufferte Änderungen werden sofort im Hintergrund geschrieben, da der Prozess danach jederzeit beendet werden kann.
      */
-    private void saveData() {
-        // Holt den SharedPreferences-Editor.
-        SharedPreferences prefs = requireContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        // Wandelt die Liste aller Fächer in einen JSON-String um und speichert ihn.
-        prefs.edit()
-                .putString(KEY_FAECHER, new Gson().toJson(alleFaecher))
-                .apply(); // apply() speichert asynchron im Hintergrund.
-
-        filterFaecher(); // Aktualisiert die angezeigten Fächer im RecyclerView nach dem Speichern.
-        // Ruft notifyDataSetChanged() im Adapter auf.
+    @Override
+    public void onPause() {
+        viewModel.flush();
+        super.onPause();
     }
 
     /**
      * Wird aufgerufen, wenn die View-Hierarchie des Fragments zerstört wird.
-     * Hier wird der aktuell offene Dialog geschlossen, um Memory Leaks zu vermeiden.
+     * Hier wird der aktuell offene Dialog geschlossen, um Memory Leaks zu vermeiden,
+     * und noch gepufferte Änderungen werden geschrieben.
      */
     @Override
     public void onDestroyView() {
@@ -560,22 +712,52 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
         if (currentDialog != null && currentDialog.isShowing()) {
             currentDialog.dismiss();
         }
+        viewModel.flush(); // Nichts aus dem Schreibpuffer verlieren.
         super.onDestroyView(); // Ruft die Methode der Superklasse auf.
     }
 
     /**
      * Filtert die Liste aller Fächer basierend auf dem aktuell ausgewählten Halbjahr.
      * Aktualisiert die `gefilterteFaecher`-Liste und benachrichtigt den FachAdapter über die Änderung.
+     * Mit dem SQLite-Backend fragt die Datenbank über den Index auf `halbjahr` nur die Fächer dieses Halbjahres ab;
+     * angezeigt werden trotzdem die Instanzen aus dem Speicher, an denen alle Änderungen und Rechner hängen.
      */
     private void filterFaecher() {
-        gefilterteFaecher.clear(); // Löscht alle Elemente aus der aktuell gefilterten Liste.
+        if (viewModel.hatAbfragen()) {
+            int halbjahr = aktuellesHalbjahr;
+            viewModel.ladeHalbjahr(halbjahr, geladen -> {
+                if (getView() == null || halbjahr != aktuellesHalbjahr) return; // Inzwischen überholt.
+                List<Fach> angezeigt = new ArrayList<>(geladen.size());
+                for (Fach gespeichert : geladen) {
+                    Fach fach = registry.getFach(gespeichert.getId());
+                    if (fach != null) {
+                        angezeigt.add(fach);
+                    }
+                }
+                gefilterteFaecherSetzen(angezeigt);
+            });
+            return;
+        }
+        List<Fach> angezeigt = new ArrayList<>();
         // Iteriert durch alle Fächer.
         for (Fach fach : alleFaecher) {
             // Fügt ein Fach zur gefilterten Liste hinzu, wenn sein Halbjahr dem aktuell ausgewählten entspricht.
             if (fach.getHalbjahr() == aktuellesHalbjahr) {
-                gefilterteFaecher.add(fach);
+                angezeigt.add(fach);
             }
         }
+        gefilterteFaecherSetzen(angezeigt);
+    }
+
+    /**
+     * Übernimmt die anzuzeigenden Fächer in die Liste des FachAdapters.
+     *
+     * @param angezeigt Die Fächer des ausgewählten Halbjahres.
+     */
+    private void gefilterteFaecherSetzen(List<Fach> angezeigt) {
+        gefilterteFaecher.clear(); // Löscht alle Elemente aus der aktuell gefilterten Liste.
+        gefilterteFaecher.addAll(angezeigt);
+        registry.setAngezeigt(gefilterteFaecher); // Positionen für gezielte Updates merken.
         // Benachrichtigt den FachAdapter, dass sich die Daten geändert haben.
         // Die zuvor hinzugefügte `updateFaecher`-Methode im Adapter würde hier auch passen.
         // Wenn `updateFaecher` im Adapter genutzt wird: fachAdapter.updateFaecher(gefilterteFaecher);
@@ -583,15 +765,29 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
         fachAdapter.notifyDataSetChanged();
     }
 
+    /**
+     * Aktualisiert nur den Eintrag eines Fachs im RecyclerView, falls es im aktuellen Halbjahr angezeigt wird,
+     * und übernimmt die Änderung in den {@link AbiRechner} und den {@link TrendRechner}.
+     *
+     * @param fach Das geänderte Fach.
+     */
+    private void fachAktualisieren(Fach fach) {
+        abiRechner.fachAktualisieren(fach);
+        trendRechner.fachAktualisieren(fach);
+        int position = registry.getPosition(fach.getId());
+        if (position != -1) {
+            fachAdapter.notifyItemChanged(position);
+        }
+    }
+
     /**
      * Berechnet den Abitur-Gesamtschnitt und zeigt die Ergebnisse in einem AlertDialog an.
      * Nutzt die `BerechnungUtil`-Klasse für die komplexe Logik.
      */
     private void berechneUndZeigeAbi() {
-        // Lädt die Abiturprüfungsnoten aus SharedPreferences.
-        int[] pruefungsNoten = loadPruefungsNoten();
-        // Ruft die Methode in BerechnungUtil auf, um das Abitur zu berechnen.
-        BerechnungUtil.AbiErgebnis ergebnis = BerechnungUtil.berechneAbi(alleFaecher, pruefungsNoten);
+        // Der AbiRechner kennt bereits den aktuellen Stand; nur vor dem Laden wird vollständig berechnet.
+        BerechnungUtil.AbiErgebnis ergebnis = abiRechner != null ? abiRechner.getErgebnis()
+                : regelwerk.berechneAbi(alleFaecher, loadPruefungsPunkte(), EINBRINGUNGS_REGELN);
 
         // Erstellt die Nachricht für den Dialog, basierend auf den berechneten Ergebnissen.
         // Die Nachricht enthält Punkte für Halbjahresleistungen, Prüfungen, Gesamtpunkte, den Abischnitt
@@ -602,15 +798,77 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
                         getString(R.string.abi_gesamtpunkte_format, ergebnis.gesamtPunkte) + "\n\n" +
                         getString(R.string.abi_schnitt_format, ergebnis.abiSchnitt) + "\n\n" +
                         ergebnis.bestandenNachricht; // Die Nachricht zum Bestehensstatus kommt direkt aus dem Ergebnis-Objekt.
+        if (!ergebnis.einbringungZulaessig) {
+            message += "\n\n" + getString(R.string.abi_einbringung_unzulaessig, regelwerk.getAnzahlLeistungen());
+        }
+        if (abiRechner != null && !alleFaecher.isEmpty()) {
+            // Das Fach, in dem eine Verbesserung am meisten Gesamtpunkte bringt (aus den Histogrammen, ohne Neuberechnung).
+            NotenWirkung hebel = NotenWirkung.analysiere(abiRechner, alleFaecher).get(0);
+            int ziel = hebel.getBesteVerbesserung();
+            if (ziel > hebel.getPunkte()) {
+                message += "\n\n" + getString(R.string.abi_hebel_format, hebel.getFach().getName(),
+                        hebel.getFach().getHalbjahr(), hebel.getPunkte(), ziel, hebel.getGewinn(ziel));
+            }
+        }
 
         // Zeigt die Ergebnisse in einem AlertDialog an.
         new AlertDialog.Builder(requireContext())
                 .setTitle("Abiturberechnung")
                 .setMessage(message)
                 .setPositiveButton("OK", null) // Schließt den Dialog beim Klick auf OK.
+                .setNeutralButton("Prognose", (dialog, which) -> starteAbiPrognose())
+                .show();
+    }
+
+    /**
+     * Startet die Monte-Carlo-Prognose des Abiturs und zeigt das Ergebnis anschließend in einem Dialog an.
+     * Der Stand der Fächer wird hier auf dem UI-Thread eingelesen, simuliert wird im Hintergrund.
+     * Fächer mit weniger als {@link #PROGNOSE_NOTEN_JE_HALBJAHR} Noten gelten als noch nicht abgeschlossen;
+     * Prüfungen ohne eingetragene Note ({@link PruefungsZielRechner#OFFEN}) werden ausgewürfelt,
+     * eine eingetragene 0 zählt wie jede andere Note.
+     */
+    private void starteAbiPrognose() {
+        if (abiRechner == null) return; // Noch nicht geladen.
+        int[] pruefungen = loadPruefungsNoten();
+        AbiPrognose prognose = new AbiPrognose(alleFaecher, pruefungen, EINBRINGUNGS_REGELN,
+                fach -> Math.max(0, PROGNOSE_NOTEN_JE_HALBJAHR - fach.getAnzahlNoten()), regelwerk);
+
+        Toast.makeText(requireContext(), "Prognose wird berechnet…", Toast.LENGTH_SHORT).show();
+        Handler ui = new Handler(Looper.getMainLooper());
+        ForkJoinPool.commonPool().execute(() -> {
+            AbiPrognose.Ergebnis ergebnis = prognose.simuliere(PROGNOSE_SIMULATIONEN, System.nanoTime());
+            ui.post(() -> {
+                if (isAdded()) {
+                    zeigeAbiPrognose(ergebnis);
+                }
+            });
+        });
+    }
+
+    /**
+     * Zeigt das Ergebnis einer Prognose an.
+     */
+    private void zeigeAbiPrognose(AbiPrognose.Ergebnis ergebnis) {
+        String message =
+                getString(R.string.prognose_bestanden_format, ergebnis.getBestehensWahrscheinlichkeit() * 100) + "\n" +
+                        getString(R.string.prognose_haeufigster_format, zehntelText(ergebnis.getHaeufigsterZehntel())) + "\n" +
+                        getString(R.string.prognose_quantil_format, 50, zehntelText(ergebnis.getQuantilZehntel(0.5))) + "\n" +
+                        getString(R.string.prognose_quantil_format, 90, zehntelText(ergebnis.getQuantilZehntel(0.9))) + "\n\n" +
+                        getString(R.string.prognose_hinweis_format, ergebnis.getAnzahlSimulationen());
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Abiturprognose")
+                .setMessage(message)
+                .setPositiveButton("OK", null)
                 .show();
     }
 
+    /**
+     * Formatiert eine Note in Zehnteln (z.B. 23) als Text ("2,3"); 60 bedeutet nicht bestanden.
+     */
+    private static String zehntelText(int zehntel) {
+        return zehntel >= 60 ? "nicht bestanden" : zehntel / 10 + "," + zehntel % 10;
+    }
+
     /**
      * Zeigt einen Dialog an, in dem die Abiturprüfungsnoten eingegeben oder bearbeitet werden können.
      * Die Noten werden in SharedPreferences gespeichert.
@@ -619,25 +877,45 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
         AlertDialog.Builder builder = new AlertDialog.Builder(requireContext());
         View dialogView = LayoutInflater.from(requireContext()).inflate(R.layout.dialog_pruefungen, null);
 
-        // Referenzen auf die EditText-Felder für die 5 Prüfungsnoten.
-        final EditText[] pruefungFields = {
-                dialogView.findViewById(R.id.pruefung1),
-                dialogView.findViewById(R.id.pruefung2),
-                dialogView.findViewById(R.id.pruefung3),
-                dialogView.findViewById(R.id.mdl_pruefung1),
-                dialogView.findViewById(R.id.mdl_pruefung2)
-        };
+        // Je Prüfung des Regelwerks ein Eingabefeld, in derselben Reihenfolge wie im AbiRechner.
+        final EditText[] pruefungFields = pruefungsFelderErstellen(dialogView.findViewById(R.id.pruefungen_felder));
 
         // Lädt die zuvor gespeicherten Prüfungsnoten und füllt die EditText-Felder.
         int[] gespeicherteNoten = loadPruefungsNoten();
         for (int i = 0; i < pruefungFields.length; i++) {
-            // Sicherstellen, dass die Indizes gültig sind.
-            if (i < gespeicherteNoten.length) {
+            // Sicherstellen, dass die Indizes gültig sind. Noch offene Prüfungen bleiben leer.
+            if (i < gespeicherteNoten.length && gespeicherteNoten[i] != PruefungsZielRechner.OFFEN) {
                 // Setzt den Text der EditText-Felder auf die geladenen Noten.
                 pruefungFields[i].setText(String.valueOf(gespeicherteNoten[i]));
             }
         }
 
+        // Bei jeder Eingabe (Ziel oder Prüfungsnote) sofort den Schnitt mit diesen Noten und
+        // den Bedarf für den Ziel-Schnitt neu anzeigen.
+        final EditText etZiel = dialogView.findViewById(R.id.ziel_schnitt);
+        final TextView tvZielErgebnis = dialogView.findViewById(R.id.tv_ziel_ergebnis);
+        final TextView tvAbiLive = dialogView.findViewById(R.id.tv_abi_live);
+        TextWatcher zielWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                tvAbiLive.setText(abiLiveText(pruefungFields));
+                tvZielErgebnis.setText(zielText(pruefungFields, etZiel.getText().toString().trim()));
+            }
+        };
+        etZiel.addTextChangedListener(zielWatcher);
+        for (EditText feld : pruefungFields) {
+            feld.addTextChangedListener(zielWatcher);
+        }
+        tvAbiLive.setText(abiLiveText(pruefungFields));
+
         builder.setView(dialogView)
                 .setTitle("Abiturprüfungsnoten eingeben")
                 .setPositiveButton("Speichern", null) // Null für manuelle Validierung.
@@ -647,20 +925,30 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
                 });
 
         currentDialog = builder.create(); // Erstellt den AlertDialog.
+        // Die Eingaben wurden live in den AbiRechner übernommen: beim Schließen wieder auf die gespeicherten Noten setzen.
+        currentDialog.setOnDismissListener(dialog -> {
+            if (abiRechner != null) {
+                abiRechner.setPruefungsNoten(loadPruefungsPunkte());
+            }
+        });
 
         // Überschreibt den OnClickListener des Positive Buttons ("Speichern") für Validierung.
         currentDialog.setOnShowListener(dialogInterface -> {
             Button positiveButton = currentDialog.getButton(AlertDialog.BUTTON_POSITIVE);
             positiveButton.setOnClickListener(v -> {
-                int[] neueNoten = new int[5]; // Array für die neuen Noten.
+                int[] neueNoten = new int[pruefungFields.length]; // Array für die neuen Noten.
                 boolean inputValid = true; // Flag zur Überprüfung der Validität der Eingaben.
 
                 // Iteriert durch alle Prüfungsfelder, um die Eingaben zu lesen und zu validieren.
                 for (int i = 0; i < pruefungFields.length; i++) {
                     String input = pruefungFields[i].getText().toString().trim();
+                    if (input.isEmpty()) {
+                        // Ein leeres Feld ist eine noch nicht geschriebene Prüfung, keine 0.
+                        neueNoten[i] = PruefungsZielRechner.OFFEN;
+                        continue;
+                    }
                     try {
-                        // Wenn das Feld leer ist, wird 0 angenommen, ansonsten wird der Wert geparst.
-                        neueNoten[i] = input.isEmpty() ? 0 : Integer.parseInt(input);
+                        neueNoten[i] = Integer.parseInt(input);
                         // Validiert, ob der Wert im Bereich von 0 bis 15 liegt.
                         if (neueNoten[i] < 0 || neueNoten[i] > 15) {
                             inputValid = false; // Setzt das Flag auf false, wenn der Wert ungültig ist.
@@ -687,57 +975,252 @@ public class NotenmanagerFragment extends Fragment implements NoteAdapter.OnNote
         currentDialog.show(); // Zeigt den Dialog an.
     }
 
+    /**
+     * Fügt für jede Prüfung des Regelwerks eine Zeile ({@code item_pruefung_feld}) in den Container ein.
+     * Bei 5 Prüfungen (drei schriftliche, zwei mündliche wie in Bayern) tragen die Zeilen die gewohnten Namen,
+     * sonst werden sie durchnummeriert.
+     *
+     * @param container Der Container im Dialog.
+     * @return Die Eingabefelder, Index = Index der Prüfung.
+     */
+    private EditText[] pruefungsFelderErstellen(LinearLayout container) {
+        int[] namen = {R.string.pruefung1, R.string.pruefung2, R.string.pruefung3,
+                R.string.mdlPruefung1, R.string.mdlPruefung2};
+        int anzahl = regelwerk.getAnzahlPruefungen();
+        EditText[] felder = new EditText[anzahl];
+        LayoutInflater inflater = LayoutInflater.from(requireContext());
+        for (int i = 0; i < anzahl; i++) {
+            View zeile = inflater.inflate(R.layout.item_pruefung_feld, container, false);
+            TextView name = zeile.findViewById(R.id.tv_pruefung_name);
+            name.setText(anzahl == namen.length ? getString(namen[i]) : getString(R.string.pruefung_nummer_format, i + 1));
+            felder[i] = zeile.findViewById(R.id.et_pruefung_note);
+            container.addView(zeile);
+        }
+        return felder;
+    }
+
+    /**
+     * Übernimmt die eingegebenen Prüfungsnoten in den {@link AbiRechner} und liefert den Schnitt, der sich damit ergibt.
+     * Kostet nur die Änderung der Prüfungssumme, keinen Durchlauf über die Fächer.
+     *
+     * @param pruefungFields Die Eingabefelder aller Prüfungen (leer oder ungültig zählt für den aktuellen Stand als 0).
+     * @return Der anzuzeigende Text.
+     */
+    private String abiLiveText(EditText[] pruefungFields) {
+        if (abiRechner == null) {
+            return getString(R.string.noten_werden_geladen);
+        }
+        for (int i = 0; i < pruefungFields.length; i++) {
+            String input = pruefungFields[i].getText().toString().trim();
+            int punkte;
+            try {
+                punkte = input.isEmpty() ? 0 : Math.max(0, Math.min(15, Integer.parseInt(input)));
+            } catch (NumberFormatException e) {
+                punkte = 0;
+            }
+            abiRechner.setPruefungsNote(i, punkte);
+        }
+        BerechnungUtil.AbiErgebnis ergebnis = abiRechner.getErgebnis();
+        return getString(R.string.abi_live_format, ergebnis.abiSchnitt, ergebnis.gesamtPunkte);
+    }
+
+    /**
+     * Ermittelt mit dem {@link PruefungsZielRechner}, was in den noch offenen (leeren) Prüfungsfeldern
+     * für den eingegebenen Ziel-Schnitt mindestens nötig ist.
+     *
+     * @param pruefungFields Die Eingabefelder aller Prüfungen.
+     * @param zielEingabe    Der eingegebene Ziel-Schnitt (z.B. "2,0"), leer, wenn keiner eingegeben ist.
+     * @return Der anzuzeigende Text.
+     */
+    private String zielText(EditText[] pruefungFields, String zielEingabe) {
+        if (zielEingabe.isEmpty()) {
+            return getString(R.string.ziel_hinweis_offen);
+        }
+        int zielZehntel;
+        try {
+            zielZehntel = (int) Math.round(Double.parseDouble(zielEingabe.replace(',', '.')) * 10);
+        } catch (NumberFormatException e) {
+            return getString(R.string.ziel_ungueltig);
+        }
+        if (zielZehntel < 10 || zielZehntel > 60) {
+            return getString(R.string.ziel_ungueltig);
+        }
+
+        // Leere Felder sind offen; ungültige Werte werden erst beim Speichern gemeldet.
+        int[] noten = new int[pruefungFields.length];
+        for (int i = 0; i < pruefungFields.length; i++) {
+            String input = pruefungFields[i].getText().toString().trim();
+            try {
+                noten[i] = input.isEmpty() ? PruefungsZielRechner.OFFEN
+                        : Math.max(0, Math.min(15, Integer.parseInt(input)));
+            } catch (NumberFormatException e) {
+                noten[i] = PruefungsZielRechner.OFFEN;
+            }
+        }
+
+        PruefungsZielRechner.Ergebnis ergebnis =
+                PruefungsZielRechner.berechne(alleFaecher, noten, zielZehntel, EINBRINGUNGS_REGELN, regelwerk);
+        if (ergebnis.zuVieleUnterpunktungen && !ergebnis.erreichbar) {
+            return getString(R.string.ziel_unterpunktungen, regelwerk.getMaxUnterpunktungen());
+        }
+        if (!ergebnis.erreichbar) {
+            return getString(R.string.ziel_nicht_erreichbar);
+        }
+        if (ergebnis.benoetigtePunkteSumme == 0) {
+            return getString(R.string.ziel_bereits_erreicht);
+        }
+        // Beispielverteilung nur für die offenen Prüfungen anzeigen, z.B. "11 / 11 / 10".
+        StringBuilder beispiel = new StringBuilder();
+        for (int i = 0; i < noten.length; i++) {
+            if (noten[i] == PruefungsZielRechner.OFFEN) {
+                if (beispiel.length() > 0) beispiel.append(" / ");
+                beispiel.append(ergebnis.gleichmaessig[i]);
+            }
+        }
+        return getString(R.string.ziel_benoetigt_format,
+                ergebnis.benoetigtePunkteSumme, beispiel.toString(), ergebnis.mindestensJePruefung);
+    }
+
     /**
      * Lädt die gespeicherten Abiturprüfungsnoten aus den SharedPreferences.
      *
-     * @return Ein Array von 5 Integer-Werten, die die Prüfungsnoten darstellen.
-     * Gibt ein leeres Array zurück, wenn keine Noten gespeichert sind.
+     * @return Je Prüfung des Regelwerks die Note; {@link PruefungsZielRechner#OFFEN} für Prüfungen ohne eingetragene
+     * Note. Wurden die Noten unter einem Regelwerk mit anderer Prüfungsanzahl gespeichert, werden überzählige
+     * ignoriert und fehlende als offen ergänzt.
      */
     private int[] loadPruefungsNoten() {
+        int[] noten = new int[regelwerk.getAnzahlPruefungen()];
+        Arrays.fill(noten, PruefungsZielRechner.OFFEN);
         SharedPreferences prefs = requireContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         String json = prefs.getString(KEY_PRUEFUNGEN, null); // Holt den JSON-String der Prüfungsnoten.
         if (json != null) {
             // Deserialisiert den JSON-String in ein Integer-Array.
-            return new Gson().fromJson(json, int[].class);
+            int[] gespeichert = GsonProvider.get().fromJson(json, int[].class);
+            System.arraycopy(gespeichert, 0, noten, 0, Math.min(gespeichert.length, noten.length));
         }
-        return new int[5]; // Gibt ein Array mit 5 Nullen zurück, wenn keine Noten gespeichert sind.
+        return noten;
+    }
+
+    /**
+     * Die gespeicherten Prüfungsnoten für die Berechnung des aktuellen Stands: offene Prüfungen zählen 0 Punkte.
+     *
+     * @return Je Prüfung des Regelwerks ein Punktwert (0-15).
+     */
+    private int[] loadPruefungsPunkte() {
+        int[] punkte = loadPruefungsNoten();
+        for (int i = 0; i < punkte.length; i++) {
+            if (punkte[i] == PruefungsZielRechner.OFFEN) {
+                punkte[i] = 0;
+            }
+        }
+        return punkte;
     }
 
     /**
      * Speichert die übergebenen Abiturprüfungsnoten in den SharedPreferences.
      *
-     * @param noten Ein Array von 5 Integer-Werten, die die zu speichernden Prüfungsnoten sind.
+     * @param noten Je Prüfung des Regelwerks die zu speichernde Note
+     *              ({@link PruefungsZielRechner#OFFEN} für leere Felder).
      */
     private void savePruefungsNoten(int[] noten) {
         SharedPreferences prefs = requireContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         // Wandelt das Integer-Array in einen JSON-String um und speichert ihn.
-        prefs.edit().putString(KEY_PRUEFUNGEN, new Gson().toJson(noten)).apply();
+        prefs.edit().putString(KEY_PRUEFUNGEN, GsonProvider.get().toJson(noten)).apply();
     }
 
     /**
      * Berechnet den Durchschnitt der Fächer für das aktuell ausgewählte Halbjahr
-     * und zeigt das Ergebnis in einem AlertDialog an.
+     * und zeigt das Ergebnis zusammen mit einer Übersicht aller Halbjahre in einem AlertDialog an.
+     * Mit dem SQLite-Backend werden für das ausgewählte Halbjahr nur dessen Fächer aus der Datenbank gelesen;
+     * sonst stammen alle Werte aus einem einzigen Durchlauf über die Fächer im Speicher ({@link HalbjahrStatistik}).
      */
     private void zeigeHalbjahrSchnitt() {
         // Holt das aktuell ausgewählte Halbjahr vom Spinner (1-basiert).
         int halbjahrZuBerechnen = halbjahrSpinner.getSelectedItemPosition() + 1;
+        if (viewModel.hatAbfragen()) {
+            viewModel.ladeHalbjahr(halbjahrZuBerechnen, geladen -> {
+                if (isAdded()) {
+                    zeigeHalbjahrSchnitt(halbjahrZuBerechnen, HalbjahrStatistik.berechne(geladen, regelwerk));
+                }
+            });
+        } else {
+            zeigeHalbjahrSchnitt(halbjahrZuBerechnen, null);
+        }
+    }
 
-        // Ruft die Methode in BerechnungUtil auf, um den Halbjahresschnitt zu berechnen.
-        BerechnungUtil.HalbjahrErgebnis ergebnis =
-                BerechnungUtil.berechneHalbjahrSchnitt(alleFaecher, halbjahrZuBerechnen);
+    /**
+     * Zeigt den Dialog für ein Halbjahr an.
+     *
+     * @param halbjahrZuBerechnen Das ausgewählte Halbjahr (1-4).
+     * @param einzeln             Statistik nur über die Fächer dieses Halbjahres (aus der Datenbank),
+     *                            oder null, um sie aus allen Fächern im Speicher zu berechnen.
+     */
+    private void zeigeHalbjahrSchnitt(int halbjahrZuBerechnen, HalbjahrStatistik einzeln) {
+        // Ein Durchlauf liefert die Statistik aller vier Halbjahre für die Übersicht.
+        HalbjahrStatistik statistik = HalbjahrStatistik.berechne(alleFaecher, regelwerk);
+        if (einzeln == null) {
+            einzeln = statistik;
+        }
+        BerechnungUtil.HalbjahrErgebnis ergebnis = einzeln.getErgebnis(halbjahrZuBerechnen);
 
         // Erstellt die Nachricht für den Dialog.
         // Formatiert den Durchschnitt auf zwei Nachkommastellen.
-        String message =
-                getString(R.string.halbjahr_schnitt_anzahl_faecher, ergebnis.anzahlFaecher) + "\n" +
-                        getString(R.string.halbjahr_schnitt_durchschnitt_punkte, String.format(Locale.GERMAN, "%.2f", ergebnis.durchschnitt)) + "\n" +
-                        getString(R.string.halbjahr_schnitt_entspricht_note, String.format(Locale.GERMAN, "%.2f", BerechnungUtil.punkteZuNoteEinzelwert(ergebnis.durchschnitt))); // Umrechnung Punkte in Note.
+        StringBuilder message = new StringBuilder()
+                .append(getString(R.string.halbjahr_schnitt_anzahl_faecher, ergebnis.anzahlFaecher)).append("\n")
+                .append(getString(R.string.halbjahr_schnitt_durchschnitt_punkte, String.format(Locale.GERMAN, "%.2f", ergebnis.durchschnitt))).append("\n")
+                .append(getString(R.string.halbjahr_schnitt_entspricht_note, String.format(Locale.GERMAN, "%.2f", BerechnungUtil.punkteZuNoteEinzelwert(ergebnis.durchschnitt)))); // Umrechnung Punkte in Note.
+        if (ergebnis.anzahlFaecher > 0) {
+            message.append("\n").append(getString(R.string.halbjahr_min_max_format,
+                    einzeln.getMinimum(halbjahrZuBerechnen), einzeln.getMaximum(halbjahrZuBerechnen),
+                    einzeln.getUnterpunktungen(halbjahrZuBerechnen)));
+        }
+        if (einzeln.getAnzahlAbiturfaecher(halbjahrZuBerechnen) > 0) {
+            message.append("\n").append(getString(R.string.halbjahr_abiturfaecher_format,
+                    einzeln.getDurchschnittAbiturfaecher(halbjahrZuBerechnen)));
+        }
+
+        // Fächer dieses Halbjahres, deren Notentrend bis zum Halbjahresende in eine Unterpunktung führt.
+        // Nur im laufenden Halbjahr: abgeschlossene Halbjahre bekommen keine Noten mehr, ihre Trends sind alt.
+        if (trendRechner != null && halbjahrZuBerechnen == trendRechner.getLaufendesHalbjahr(alleFaecher)) {
+            long ende = naechstesHalbjahresende(System.currentTimeMillis());
+            for (Fach fach : trendRechner.getGefaehrdeteFaecher(gefilterteFaecher, ende)) {
+                message.append("\n").append(getString(R.string.halbjahr_trend_warnung_format, fach.getName(),
+                        trendRechner.getTrend(fach).getPrognosePunkte(ende)));
+            }
+        }
+
+        // Übersicht über alle Halbjahre.
+        message.append("\n\n").append(getString(R.string.halbjahr_uebersicht));
+        for (int halbjahr = 1; halbjahr <= HalbjahrStatistik.ANZAHL_HALBJAHRE; halbjahr++) {
+            message.append("\n").append(getString(R.string.halbjahr_uebersicht_zeile_format, halbjahr,
+                    statistik.getDurchschnitt(halbjahr), statistik.getAnzahl(halbjahr), statistik.getUnterpunktungen(halbjahr)));
+        }
 
         // Zeigt die Ergebnisse in einem AlertDialog an.
         new AlertDialog.Builder(requireContext())
                 .setTitle(getString(R.string.halbjahr_schnitt_title_format, ergebnis.halbjahr))
-                .setMessage(message)
+                .setMessage(message.toString())
                 .setPositiveButton("OK", null) // Schließt den Dialog beim Klick auf OK.
                 .show();
     }
+
+    /**
+     * Das nächste Halbjahresende nach dem angegebenen Zeitpunkt: Mitte Februar oder Ende Juli.
+     * Genügt als Horizont für die Trend-Hochrechnung, der genaue Termin hängt vom Schuljahr ab.
+     */
+    private static long naechstesHalbjahresende(long jetzt) {
+        Calendar kalender = Calendar.getInstance();
+        kalender.setTimeInMillis(jetzt);
+        int jahr = kalender.get(Calendar.YEAR);
+        Calendar ende = Calendar.getInstance();
+        ende.clear();
+        ende.set(jahr, Calendar.FEBRUARY, 15);
+        if (ende.getTimeInMillis() <= jetzt) {
+            ende.set(jahr, Calendar.JULY, 31);
+        }
+        if (ende.getTimeInMillis() <= jetzt) {
+            ende.set(jahr + 1, Calendar.FEBRUARY, 15);
+        }
+        return ende.getTimeInMillis();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.example.schulmanager.viewmodels;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+
+import com.example.schulmanager.data.FaecherRepository;
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ViewModel für das NotenmanagerFragment.
+ * Hält das {@link FaecherRepository} über Konfigurationsänderungen (z.B. Drehen des Bildschirms) hinweg,
+ * sodass die Fächer nur einmal geladen werden und laufende Schreibvorgänge nicht verloren gehen.
+ */
+public class NotenmanagerViewModel extends AndroidViewModel {
+
+    // Name der SharedPreferences, in denen die Notendaten liegen (identisch zum Fragment).
+    private static final String PREF_NAME = "NotenManager";
+
+    private final FaecherRepository repository;
+
+    public NotenmanagerViewModel(@NonNull Application application) {
+        super(application);
+        repository = new FaecherRepository(application,
+                application.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE));
+    }
+
+    /**
+     * Gibt die Fächer als LiveData zurück. Der Wert ist null, bis das Laden abgeschlossen ist.
+     *
+     * @return LiveData mit der Liste aller Fächer.
+     */
+    public LiveData<List<Fach>> getFaecher() {
+        return repository.getFaecher();
+    }
+
+    /**
+     * Startet das Laden der Fächer im Hintergrund (nur beim ersten Aufruf).
+     */
+    public void laden() {
+        repository.laden();
+    }
+
+    /**
+     * @return true, wenn einzelne Halbjahre und Fächer direkt aus dem Speicher abgefragt werden können (SQLite-Backend).
+     */
+    public boolean hatAbfragen() {
+        return repository.hatAbfragen();
+    }
+
+    /**
+     * Liest die Fächer eines Halbjahres aus der Datenbank, siehe {@link FaecherRepository#ladeHalbjahr}.
+     */
+    public void ladeHalbjahr(int halbjahr, Consumer<List<Fach>> ergebnis) {
+        repository.ladeHalbjahr(halbjahr, ergebnis);
+    }
+
+    /**
+     * Liest ein einzelnes Fach aus der Datenbank, siehe {@link FaecherRepository#ladeFach}.
+     */
+    public void ladeFach(long fachId, Consumer<Fach> ergebnis) {
+        repository.ladeFach(fachId, ergebnis);
+    }
+
+    public void fachGespeichert(Fach fach) {
+        repository.fachGespeichert(fach);
+    }
+
+    public void fachGeloescht(Fach fach) {
+        repository.fachGeloescht(fach);
+    }
+
+    public void noteHinzugefuegt(Fach fach, Note note) {
+        repository.noteHinzugefuegt(fach, note);
+    }
+
+    public void noteEntfernt(Fach fach, int index) {
+        repository.noteEntfernt(fach, index);
+    }
+
+    /**
+     * Zieht das Schreiben aller noch gepufferten Änderungen vor (z.B. wenn das Fragment pausiert wird),
+     * ohne den UI-Thread darauf warten zu lassen.
+     */
+    public void flush() {
+        repository.flush();
+    }
+
+    @Override
+    protected void onCleared() {
+        repository.schliessen(); // Hintergrund-Thread beenden, ausstehende Schreibvorgänge laufen noch zu Ende.
+        super.onCleared();
+    }
+}
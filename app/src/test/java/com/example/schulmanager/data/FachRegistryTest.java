@@ -0,0 +1,50 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+import com.example.schulmanager.utils.AbiRechner;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Prüft, dass doppelte Fach-IDs aus alten Daten beim Laden aufgelöst werden, ohne Fächer oder Noten zu verlieren.
+ */
+public class FachRegistryTest {
+
+    @Test
+    public void doppelteIdsErhaltenNeueIds() {
+        Fach mathe = new Fach(1_600_000_000_000L, "Mathematik", 1, true);
+        mathe.addNote(new Note(12, "schriftlich", 1_600_000_000_000L, 2.0));
+        Fach physik = new Fach(1_600_000_000_000L, "Physik", 1, false); // Im selben Millisekunden-Takt angelegt
+        physik.addNote(new Note(8, "muendlich", 1_600_000_100_000L, 1.0));
+        Fach deutsch = new Fach(1_600_000_000_001L, "Deutsch", 2, true);
+        List<Fach> faecher = new ArrayList<>(Arrays.asList(mathe, physik, deutsch));
+
+        assertEquals(1, FachRegistry.doppelteIdsErsetzen(faecher));
+
+        assertSame(mathe, faecher.get(0));
+        assertSame(deutsch, faecher.get(2));
+        Fach neu = faecher.get(1);
+        assertEquals("Physik", neu.getName());
+        assertEquals(physik.getNoten(), neu.getNoten());
+        Set<Long> ids = new HashSet<>();
+        for (Fach fach : faecher) {
+            ids.add(fach.getId());
+        }
+        assertEquals(3, ids.size());
+
+        // Der AbiRechner verlangt eindeutige IDs und muss die bereinigte Liste annehmen.
+        new AbiRechner(faecher, new int[5], Collections.emptyList());
+        assertEquals(0, FachRegistry.doppelteIdsErsetzen(faecher));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Prüft, dass der Binär-Snapshot alle Felder verlustfrei speichert, und vergleicht seine Größe
+ * mit dem bisherigen JSON-Snapshot.
+ */
+public class FaecherBinaerFormatTest {
+
+    @Test
+    public void rundreiseErhaeltAlleFelder() throws IOException {
+        List<Fach> faecher = new ArrayList<>();
+        Fach mathe = new Fach(1L, "Mathematik", 3, true);
+        mathe.addNote(new Note(13.5, "schriftlich", 1_700_000_000_000L, 2.0));
+        mathe.addNote(new Note(9, "muendlich", 1_700_100_000_000L, 1.0));
+        mathe.addNote(new Note(11, "Referat", 1_700_200_000_000L, 0.5));
+        mathe.addNote(new Note(7, null, 1_700_300_000_000L, 1.0));
+        faecher.add(mathe);
+        faecher.add(new Fach(2L, "Französisch – LK", 1, false));
+        faecher.add(new Fach(3L, null, 4, false));
+
+        ByteBuffer buffer = FaecherBinaerFormat.kodieren(faecher, 17L);
+        FaecherBinaerFormat.Snapshot snapshot = FaecherBinaerFormat.dekodieren(buffer);
+
+        assertEquals(17L, snapshot.seq);
+        // Das JSON der Gson-Adapter enthält alle Felder, daher genügt der Vergleich der JSON-Darstellung.
+        assertEquals(GsonProvider.get().toJson(faecher), GsonProvider.get().toJson(snapshot.faecher));
+    }
+
+    @Test(expected = IOException.class)
+    public void abgeschnittenerSnapshotWirdErkannt() throws IOException {
+        List<Fach> faecher = new ArrayList<>();
+        Fach fach = new Fach(1L, "Deutsch", 1, true);
+        fach.addNote(new Note(10, "schriftlich", 1_700_000_000_000L, 1.0));
+        faecher.add(fach);
+
+        ByteBuffer buffer = FaecherBinaerFormat.kodieren(faecher, 1L);
+        buffer.limit(buffer.limit() - 5);
+        FaecherBinaerFormat.dekodieren(buffer);
+    }
+
+    @Test(expected = IOException.class)
+    public void veraendertesByteWirdAnPruefsummeErkannt() throws IOException {
+        List<Fach> faecher = new ArrayList<>();
+        Fach fach = new Fach(1L, "Deutsch", 1, true);
+        fach.addNote(new Note(10, "schriftlich", 1_700_000_000_000L, 1.0));
+        faecher.add(fach);
+
+        ByteBuffer buffer = FaecherBinaerFormat.kodieren(faecher, 1L);
+        // Notenwert verändern: das Format bliebe lesbar, nur die Prüfsumme verrät den Fehler.
+        int position = buffer.limit() - 4 - 8 - 8 - 1 - 8;
+        buffer.put(position, (byte) (buffer.get(position) ^ 0x01));
+        FaecherBinaerFormat.dekodieren(buffer);
+    }
+
+    @Test
+    public void binaerSnapshotIstKleinerAlsJson() {
+        List<Fach> faecher = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            Fach fach = new Fach(1_700_000_000_000L + i, "Fach " + i, i % 4 + 1, i % 12 < 5);
+            for (int j = 0; j < 60; j++) {
+                fach.addNote(new Note(j % 16, j % 3 == 0 ? "schriftlich" : "muendlich",
+                        1_700_000_000_000L + j * 86_400_000L, j % 3 == 0 ? 2.0 : 1.0));
+            }
+            faecher.add(fach);
+        }
+
+        int binaer = FaecherBinaerFormat.kodieren(faecher, 0L).remaining();
+        // Im XML der SharedPreferences werden die Anführungszeichen zusätzlich als &quot; escaped.
+        String json = GsonProvider.get().toJson(faecher);
+        int jsonInXml = json.length() + 5 * (json.length() - json.replace("\"", "").length());
+
+        assertTrue("binär " + binaer + " B, JSON " + json.length() + " B", binaer < json.length());
+        assertTrue("binär " + binaer + " B, JSON in XML " + jsonInXml + " B", binaer * 3 < jsonInXml);
+    }
+}
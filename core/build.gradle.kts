@@ -0,0 +1,38 @@
+// Reines Java-Modul mit den Modellen (Fach, Note) und der Berechnungslogik.
+// Enthält keinen Android-Code und läuft daher auch auf einer normalen JVM (Server, Benchmarks, Unit-Tests).
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    // Nur für @NonNull/@Nullable, wird zur Laufzeit nicht benötigt.
+    compileOnly(libs.annotation)
+    // Gson mit den Streaming-Adaptern für Fach und Note (Teil der öffentlichen Schnittstelle von GsonProvider)
+    api(libs.gson)
+    testImplementation(libs.junit)
+}
+
+// JMH-Benchmarks liegen in src/jmh/java und werden mit ./gradlew :core:jmh ausgeführt.
+// Einzelne Benchmarks: ./gradlew :core:jmh -PjmhInclude=FachBenchmark
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    (findProperty("jmhInclude") as String?)?.let { includes.add(it) }
+}
+
+// Abiturberechnung für einen ganzen Jahrgang aus einem CSV-Export:
+// ./gradlew :core:abiBatch --args="export.csv ergebnis.csv"
+tasks.register<JavaExec>("abiBatch") {
+    group = "application"
+    description = "Berechnet das Abitur aller Schüler eines CSV-Exports."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.schulmanager.batch.AbiBatch")
+}
@@ -0,0 +1,99 @@
+package com.example.schulmanager.benchmark;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.utils.BerechnungUtil;
+import com.example.schulmanager.utils.EinbringungsRegel;
+import com.example.schulmanager.utils.HalbjahrStatistik;
+import com.example.schulmanager.utils.Regelwerk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Berechnungen aus {@link BerechnungUtil} auf {@value Testdaten#ANZAHL_FAECHER} Fächern
+ * mit insgesamt 10 bis 100.000 Noten. Die Durchschnitte der Fächer sind nach dem ersten Aufruf
+ * zwischengespeichert; gemessen wird also die Berechnung selbst, nicht das Mitteln der Noten
+ * (dafür siehe {@link FachBenchmark}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BerechnungBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int anzahlNoten;
+
+    private List<Fach> faecher;
+    private final int[] pruefungsNoten = {12, 10, 9, 13, 11};
+    private final List<EinbringungsRegel> regeln = Arrays.asList(
+            EinbringungsRegel.abiturfaecher(), EinbringungsRegel.fach("Fach 1005", 2));
+
+    // Zur Laufzeit geladen statt als static final Konstante: misst, ob ein konfiguriertes Regelwerk
+    // genauso schnell ist wie BerechnungUtil mit Regelwerk.BAYERN.
+    private Regelwerk regelwerk;
+
+    @Setup
+    public void vorbereiten() {
+        faecher = Testdaten.faecher(anzahlNoten);
+        regelwerk = Regelwerk.laden("bayern");
+    }
+
+    @Benchmark
+    public BerechnungUtil.AbiErgebnis berechneAbi() {
+        return BerechnungUtil.berechneAbi(faecher, pruefungsNoten);
+    }
+
+    @Benchmark
+    public BerechnungUtil.AbiErgebnis berechneAbiMitPflichtRegeln() {
+        return BerechnungUtil.berechneAbi(faecher, pruefungsNoten, regeln);
+    }
+
+    @Benchmark
+    public BerechnungUtil.AbiErgebnis berechneAbiMitGeladenemRegelwerk() {
+        return regelwerk.berechneAbi(faecher, pruefungsNoten);
+    }
+
+    @Benchmark
+    public BerechnungUtil.HalbjahrErgebnis berechneHalbjahrSchnitt() {
+        return BerechnungUtil.berechneHalbjahrSchnitt(faecher, 2);
+    }
+
+    /**
+     * Übersicht aller vier Halbjahre mit je einem Aufruf von {@link BerechnungUtil#berechneHalbjahrSchnitt}.
+     */
+    @Benchmark
+    public void alleHalbjahreEinzeln(Blackhole blackhole) {
+        for (int halbjahr = 1; halbjahr <= HalbjahrStatistik.ANZAHL_HALBJAHRE; halbjahr++) {
+            blackhole.consume(BerechnungUtil.berechneHalbjahrSchnitt(faecher, halbjahr));
+        }
+    }
+
+    /**
+     * Dieselbe Übersicht aus einem Durchlauf.
+     */
+    @Benchmark
+    public HalbjahrStatistik alleHalbjahreStatistik() {
+        return HalbjahrStatistik.berechne(faecher);
+    }
+
+    /**
+     * Alle möglichen Gesamtpunktzahlen einmal umrechnen (unabhängig von der Anzahl der Noten).
+     */
+    @Benchmark
+    public void punkteZuNoteGesamt(Blackhole blackhole) {
+        for (int punkte = 0; punkte <= 900; punkte++) {
+            blackhole.consume(BerechnungUtil.punkteZuNoteGesamt(punkte));
+        }
+    }
+}
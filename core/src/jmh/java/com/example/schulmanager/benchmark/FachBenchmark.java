@@ -0,0 +1,59 @@
+package com.example.schulmanager.benchmark;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link Fach#getDurchschnitt()} für ein Fach mit 10 bis 100.000 Noten:
+ * einmal mit gültigen laufenden Summen und einmal nach einer Änderung, die den Neuaufbau erzwingt.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FachBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int anzahlNoten;
+
+    private Fach fach;
+    private Note letzteNote;
+
+    @Setup
+    public void vorbereiten() {
+        fach = Testdaten.fach(1L, 1, anzahlNoten, new Random(42));
+        letzteNote = fach.getNoten().get(anzahlNoten - 1);
+    }
+
+    @Benchmark
+    public double durchschnitt() {
+        return fach.getDurchschnitt();
+    }
+
+    @Benchmark
+    public int durchschnittsPunkte() {
+        return fach.getDurchschnittsPunkte();
+    }
+
+    /**
+     * Entfernen und erneutes Anhängen der letzten Note, danach Durchschnitt lesen.
+     * Die ganzzahligen Summen werden dabei nur angepasst, nicht über alle Noten neu aufgebaut.
+     */
+    @Benchmark
+    public double durchschnittNachEntfernen() {
+        fach.removeNoteAt(anzahlNoten - 1);
+        fach.addNote(letzteNote);
+        return fach.getDurchschnitt();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.schulmanager.benchmark;
+
+import com.example.schulmanager.data.GsonProvider;
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Serialisieren und Deserialisieren der Fächerliste mit der gemeinsamen Gson-Instanz
+ * aus {@link GsonProvider} (wie beim Laden des alten JSON-Snapshots und beim Export).
+ * Zum Vergleich misst {@code *Reflection} das frühere Vorgehen: pro Aufruf ein neues Gson, das den
+ * ursprünglichen Feldaufbau von {@link Fach} per Reflection liest und schreibt.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GsonBenchmark {
+
+    private static final Type FAECHER_TYPE = new TypeToken<ArrayList<Fach>>() {
+    }.getType();
+    private static final Type ALTE_FAECHER_TYPE = new TypeToken<ArrayList<AltesFach>>() {
+    }.getType();
+
+    @Param({"10", "1000", "100000"})
+    public int anzahlNoten;
+
+    private final Gson gson = GsonProvider.get();
+    private List<Fach> faecher;
+    private List<AltesFach> alteFaecher;
+    private String json;
+
+    @Setup
+    public void vorbereiten() {
+        faecher = Testdaten.faecher(anzahlNoten);
+        alteFaecher = alsAlteFaecher(faecher);
+        json = gson.toJson(faecher);
+    }
+
+    @Benchmark
+    public String speichern() {
+        return gson.toJson(faecher);
+    }
+
+    @Benchmark
+    public List<Fach> laden() {
+        return gson.fromJson(json, FAECHER_TYPE);
+    }
+
+    @Benchmark
+    public String speichernReflection() {
+        return new Gson().toJson(alteFaecher);
+    }
+
+    @Benchmark
+    public List<AltesFach> ladenReflection() {
+        return new Gson().fromJson(json, ALTE_FAECHER_TYPE);
+    }
+
+    /**
+     * Feldaufbau von {@link Fach}, wie er per Reflection serialisiert und in den SharedPreferences gespeichert wurde.
+     */
+    @SuppressWarnings("unused")
+    public static final class AltesFach {
+        long id;
+        String name;
+        int halbjahr;
+        boolean isAbiturfach;
+        List<Note> noten;
+    }
+
+    private static List<AltesFach> alsAlteFaecher(List<Fach> faecher) {
+        List<AltesFach> alteFaecher = new ArrayList<>(faecher.size());
+        for (Fach fach : faecher) {
+            AltesFach altesFach = new AltesFach();
+            altesFach.id = fach.getId();
+            altesFach.name = fach.getName();
+            altesFach.halbjahr = fach.getHalbjahr();
+            altesFach.isAbiturfach = fach.isAbiturfach();
+            altesFach.noten = new ArrayList<>(fach.getNoten());
+            alteFaecher.add(altesFach);
+        }
+        return alteFaecher;
+    }
+}
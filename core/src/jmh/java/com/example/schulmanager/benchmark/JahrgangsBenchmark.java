@@ -0,0 +1,70 @@
+package com.example.schulmanager.benchmark;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.utils.JahrgangsBerechnung;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link JahrgangsBerechnung} für einen Jahrgang mit einem Kern und mit allen Kernen des gemeinsamen Pools.
+ * Die Durchschnitte der Fächer sind nach dem ersten Aufruf zwischengespeichert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JahrgangsBenchmark {
+
+    @Param({"20000"})
+    public int anzahlSchueler;
+
+    @Param({"1", "0"}) // 0 = ForkJoinPool.commonPool()
+    public int kerne;
+
+    private List<List<Fach>> jahrgang;
+    private int[][] pruefungsNoten;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void vorbereiten() {
+        Random random = new Random(42);
+        jahrgang = new ArrayList<>(anzahlSchueler);
+        pruefungsNoten = new int[anzahlSchueler][5];
+        for (int s = 0; s < anzahlSchueler; s++) {
+            List<Fach> faecher = new ArrayList<>(Testdaten.ANZAHL_FAECHER);
+            for (int i = 0; i < Testdaten.ANZAHL_FAECHER; i++) {
+                faecher.add(Testdaten.fach(1000L + i, i % 4 + 1, 4, random));
+            }
+            jahrgang.add(faecher);
+            for (int i = 0; i < 5; i++) {
+                pruefungsNoten[s][i] = random.nextInt(16);
+            }
+        }
+        pool = kerne == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(kerne);
+    }
+
+    @TearDown
+    public void aufraeumen() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public JahrgangsBerechnung.Ergebnis berechne() {
+        return JahrgangsBerechnung.berechne(jahrgang, pruefungsNoten, pool);
+    }
+}
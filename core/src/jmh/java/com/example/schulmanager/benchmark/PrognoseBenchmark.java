@@ -0,0 +1,61 @@
+package com.example.schulmanager.benchmark;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.utils.AbiPrognose;
+import com.example.schulmanager.utils.EinbringungsRegel;
+import com.example.schulmanager.utils.PruefungsZielRechner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Monte-Carlo-Prognose aus {@link AbiPrognose} mit 100.000 Simulationen, wie sie die App startet:
+ * drei offene Prüfungen und vier Noten je Fach, von denen die fehlenden ausgewürfelt werden.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrognoseBenchmark {
+
+    private static final int SIMULATIONEN = 100_000;
+
+    @Param({"1", "0"}) // 0 = ForkJoinPool.commonPool()
+    public int kerne;
+
+    private AbiPrognose prognose;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void vorbereiten() {
+        List<Fach> faecher = Testdaten.faecher(2 * Testdaten.ANZAHL_FAECHER); // Je Fach 2 von 4 Noten vorhanden
+        int offen = PruefungsZielRechner.OFFEN;
+        List<EinbringungsRegel> regeln = Collections.singletonList(EinbringungsRegel.abiturfaecher());
+        prognose = new AbiPrognose(faecher, new int[]{offen, offen, 12, offen, 10}, regeln,
+                fach -> Math.max(0, 4 - fach.getAnzahlNoten()));
+        pool = kerne == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(kerne);
+    }
+
+    @TearDown
+    public void aufraeumen() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public AbiPrognose.Ergebnis simuliere() {
+        return prognose.simuliere(SIMULATIONEN, 42, pool);
+    }
+}
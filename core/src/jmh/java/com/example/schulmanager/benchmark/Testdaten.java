@@ -0,0 +1,47 @@
+package com.example.schulmanager.benchmark;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Erzeugt reproduzierbare, synthetische Fächer und Noten für die Benchmarks.
+ */
+final class Testdaten {
+
+    static final int ANZAHL_FAECHER = 48; // 12 Fächer × 4 Halbjahre, wie in einem vollständigen Abiturjahrgang
+
+    private Testdaten() {
+        // Keine Instanzen
+    }
+
+    /**
+     * Ein Fach mit der angegebenen Anzahl Noten.
+     */
+    static Fach fach(long id, int halbjahr, int anzahlNoten, Random random) {
+        Fach fach = new Fach(id, "Fach " + id, halbjahr, id % 12 < 5);
+        for (int i = 0; i < anzahlNoten; i++) {
+            // Halbe Punkte und unterschiedliche Gewichtungen, damit der Durchschnitt nicht trivial ist.
+            double wert = random.nextInt(31) / 2.0;
+            fach.addNote(new Note(wert, i % 3 == 0 ? "schriftlich" : "muendlich",
+                    1_700_000_000_000L + i * 86_400_000L, i % 3 == 0 ? 2.0 : 1.0));
+        }
+        return fach;
+    }
+
+    /**
+     * {@value #ANZAHL_FAECHER} Fächer, auf die insgesamt (mindestens) die angegebene Anzahl Noten verteilt ist.
+     */
+    static List<Fach> faecher(int anzahlNotenGesamt) {
+        Random random = new Random(42);
+        int notenProFach = Math.max(1, (anzahlNotenGesamt + ANZAHL_FAECHER - 1) / ANZAHL_FAECHER);
+        List<Fach> faecher = new ArrayList<>(ANZAHL_FAECHER);
+        for (int i = 0; i < ANZAHL_FAECHER; i++) {
+            faecher.add(fach(1000L + i, i % 4 + 1, notenProFach, random));
+        }
+        return faecher;
+    }
+}
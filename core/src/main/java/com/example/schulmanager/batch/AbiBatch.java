@@ -0,0 +1,56 @@
+package com.example.schulmanager.batch;
+
+import com.example.schulmanager.utils.Regelwerk;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Kommandozeilenprogramm für die Abiturberechnung eines ganzen Jahrgangs (ohne Android).
+ * Aufruf: {@code AbiBatch <export.csv> <ergebnis.csv> [regelwerk]}, z.B. über {@code ./gradlew :core:abiBatch --args="..."}.
+ * Das Regelwerk ist einer der Namen aus {@link Regelwerk#MITGELIEFERT} (Standard und derzeit einziges: "bayern").
+ * Das Format beider Dateien ist in {@link AbiCsvPipeline} beschrieben.
+ */
+public final class AbiBatch {
+
+    private AbiBatch() {
+        // Keine Instanzen
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Aufruf: AbiBatch <export.csv> <ergebnis.csv> [regelwerk]");
+            System.exit(2);
+        }
+        Regelwerk regelwerk = Regelwerk.BAYERN;
+        if (args.length == 3) {
+            try {
+                regelwerk = Regelwerk.laden(args[2]);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Fehler: " + e.getMessage() + " (mitgeliefert: " + Regelwerk.MITGELIEFERT + ")");
+                System.exit(2);
+            }
+        }
+        Path eingabePfad = Paths.get(args[0]);
+        Path ausgabePfad = Paths.get(args[1]);
+
+        long start = System.nanoTime();
+        try (BufferedReader eingabe = Files.newBufferedReader(eingabePfad, StandardCharsets.UTF_8);
+             Writer ausgabe = new BufferedWriter(Files.newBufferedWriter(ausgabePfad, StandardCharsets.UTF_8), 1 << 16)) {
+            AbiCsvPipeline.Statistik statistik = AbiCsvPipeline.ausfuehren(eingabe, ausgabe, regelwerk);
+            System.out.printf(Locale.GERMAN, "%d Zeilen, %d Schüler (%d bestanden) in %.1f s -> %s%n",
+                    statistik.zeilen, statistik.schueler, statistik.bestanden,
+                    (System.nanoTime() - start) / 1e9, ausgabePfad);
+        } catch (IOException e) {
+            System.err.println("Fehler: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
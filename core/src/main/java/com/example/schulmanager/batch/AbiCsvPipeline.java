@@ -0,0 +1,281 @@
+package com.example.schulmanager.batch;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+import com.example.schulmanager.utils.BerechnungUtil;
+import com.example.schulmanager.utils.Regelwerk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Berechnet das Abitur für einen ganzen Jahrgang aus einem CSV-Export, ohne den Jahrgang im Speicher zu halten.
+ * Lesen, Berechnen und Schreiben laufen als drei Stufen auf eigenen Threads, verbunden über
+ * Warteschlangen fester Größe. So überlappen Datei-Ein-/Ausgabe und Rechenzeit, und der Speicherbedarf
+ * hängt nur von der Größe der Warteschlangen ab, nicht von der Anzahl der Schüler.
+ *
+ * <pre>
+ * Eingabe (Trennzeichen ';', erste Zeile = Kopfzeile):
+ *   schueler;fach;halbjahr;abiturfach;punkte[;gewichtung]
+ *   - eine Zeile pro Note; halbjahr 1-4, abiturfach 1/0 (oder true/false, ja/nein), gewichtung Standard 1.0
+ *   - halbjahr "P" kennzeichnet eine Abiturprüfung (höchstens so viele pro Schüler, wie das Regelwerk vorsieht,
+ *     in Bayern 5; in der Reihenfolge der Zeilen)
+ *   - alle Zeilen eines Schülers müssen direkt aufeinander folgen (wie bei einem nach Schüler sortierten Export)
+ * Ausgabe:
+ *   schueler;halbjahresPunkte;pruefungsPunkte;gesamtPunkte;abiSchnitt;bestanden
+ * </pre>
+ * Felder werden nicht in Anführungszeichen gesetzt; ein ';' im Fachnamen wird daher nicht unterstützt.
+ */
+public final class AbiCsvPipeline {
+
+    private static final char TRENNZEICHEN = ';';
+    private static final String KOPFZEILE_AUSGABE = "schueler;halbjahresPunkte;pruefungsPunkte;gesamtPunkte;abiSchnitt;bestanden";
+    private static final String HALBJAHR_PRUEFUNG = "P";
+
+    // Größe der Warteschlangen zwischen den Stufen (in Schülern bzw. Ergebniszeilen).
+    private static final int PUFFER_GROESSE = 512;
+
+    // Markiert das Ende des Datenstroms in den Warteschlangen (Vergleich über die Identität).
+    private static final Schueler ENDE = new Schueler(null, 0);
+    private static final String ENDE_ZEILE = new String();
+
+    private AbiCsvPipeline() {
+        // Keine Instanzen
+    }
+
+    /**
+     * Kennzahlen eines Durchlaufs.
+     */
+    public static final class Statistik {
+        public final long zeilen;   // Gelesene Datenzeilen (ohne Kopfzeile)
+        public final int schueler;  // Geschriebene Ergebnisse
+        public final int bestanden; // Davon bestanden
+
+        Statistik(long zeilen, int schueler, int bestanden) {
+            this.zeilen = zeilen;
+            this.schueler = schueler;
+            this.bestanden = bestanden;
+        }
+    }
+
+    /**
+     * Alle Daten eines Schülers, solange er gelesen und berechnet wird.
+     */
+    private static final class Schueler {
+        final String id;
+        final Map<String, Fach> faecher = new LinkedHashMap<>(); // Schlüssel: Halbjahr + Fachname
+        final int[] pruefungen; // Länge = Prüfungen laut Regelwerk
+        int anzahlPruefungen;
+
+        Schueler(String id, int maxPruefungen) {
+            this.id = id;
+            this.pruefungen = new int[maxPruefungen];
+        }
+    }
+
+    /**
+     * Wie {@link #ausfuehren(BufferedReader, Writer, Regelwerk)} nach {@link Regelwerk#BAYERN}.
+     */
+    public static Statistik ausfuehren(BufferedReader eingabe, Writer ausgabe) throws IOException {
+        return ausfuehren(eingabe, ausgabe, Regelwerk.BAYERN);
+    }
+
+    /**
+     * Liest den Export vollständig, berechnet jeden Schüler und schreibt die Ergebnisse in derselben Reihenfolge.
+     * Eingabe und Ausgabe werden nicht geschlossen.
+     *
+     * @param eingabe   Der CSV-Export.
+     * @param ausgabe   Ziel für die Ergebnis-CSV.
+     * @param regelwerk Die Abiturregeln, nach denen gerechnet wird (auch die erlaubte Anzahl Prüfungen).
+     * @return Kennzahlen des Durchlaufs.
+     * @throws IOException Bei Lese-/Schreibfehlern oder einer ungültigen Eingabezeile (mit Zeilennummer).
+     */
+    public static Statistik ausfuehren(BufferedReader eingabe, Writer ausgabe, Regelwerk regelwerk) throws IOException {
+        BlockingQueue<Schueler> gelesen = new ArrayBlockingQueue<>(PUFFER_GROESSE);
+        BlockingQueue<String> berechnet = new ArrayBlockingQueue<>(PUFFER_GROESSE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CompletionService<Object> stufen = new ExecutorCompletionService<>(executor);
+        Future<Object> lesen = stufen.submit(() -> lesen(eingabe, gelesen, regelwerk.getAnzahlPruefungen()));
+        Future<Object> rechnen = stufen.submit(() -> berechnen(gelesen, berechnet, regelwerk));
+        Future<Object> schreiben = stufen.submit(() -> schreiben(berechnet, ausgabe));
+        try {
+            // Sobald eine Stufe fehlschlägt, werden die anderen abgebrochen, damit keine an einer
+            // vollen oder leeren Warteschlange für immer wartet.
+            for (int i = 0; i < 3; i++) {
+                stufen.take().get();
+            }
+            return new Statistik((Long) lesen.get(), (Integer) schreiben.get(), (Integer) rechnen.get());
+        } catch (ExecutionException e) {
+            Throwable ursache = e.getCause();
+            if (ursache instanceof IOException) {
+                throw (IOException) ursache;
+            }
+            throw new IOException("Batch-Berechnung fehlgeschlagen", ursache);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch-Berechnung unterbrochen", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // --- Stufe 1: Lesen ---
+
+    private static Long lesen(BufferedReader eingabe, BlockingQueue<Schueler> gelesen, int maxPruefungen)
+            throws IOException, InterruptedException {
+        long zeilen = 0;
+        long zeilenNummer = 1;
+        String[] felder = new String[6];
+        Schueler aktuell = null;
+
+        eingabe.readLine(); // Kopfzeile
+        String zeile;
+        while ((zeile = eingabe.readLine()) != null) {
+            zeilenNummer++;
+            if (zeile.isEmpty()) {
+                continue;
+            }
+            int anzahlFelder = teilen(zeile, felder);
+            if (anzahlFelder < 5) {
+                throw new IOException("Zeile " + zeilenNummer + ": mindestens 5 Felder erwartet");
+            }
+            zeilen++;
+
+            String id = felder[0];
+            if (aktuell == null || !aktuell.id.equals(id)) {
+                if (aktuell != null) {
+                    gelesen.put(aktuell); // Vorheriger Schüler ist vollständig
+                }
+                aktuell = new Schueler(id, maxPruefungen);
+            }
+            try {
+                zeileUebernehmen(aktuell, felder, anzahlFelder);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Zeile " + zeilenNummer + ": " + e.getMessage(), e);
+            }
+        }
+        if (aktuell != null) {
+            gelesen.put(aktuell);
+        }
+        gelesen.put(ENDE);
+        return zeilen;
+    }
+
+    private static void zeileUebernehmen(Schueler schueler, String[] felder, int anzahlFelder) {
+        double wert = Double.parseDouble(felder[4]); // NumberFormatException ist eine IllegalArgumentException
+        if (HALBJAHR_PRUEFUNG.equals(felder[2])) {
+            if (schueler.anzahlPruefungen == schueler.pruefungen.length) {
+                throw new IllegalArgumentException("mehr als " + schueler.pruefungen.length + " Prüfungen für Schüler " + schueler.id);
+            }
+            int punkte = (int) wert;
+            if (punkte != wert || punkte < 0 || punkte > 15) {
+                throw new IllegalArgumentException("Prüfungspunkte müssen ganzzahlig zwischen 0 und 15 liegen");
+            }
+            schueler.pruefungen[schueler.anzahlPruefungen++] = punkte;
+            return;
+        }
+
+        int halbjahr = Integer.parseInt(felder[2]);
+        if (halbjahr < 1 || halbjahr > 4) {
+            throw new IllegalArgumentException("Halbjahr muss zwischen 1 und 4 liegen");
+        }
+        double gewichtung = anzahlFelder > 5 && !felder[5].isEmpty() ? Double.parseDouble(felder[5]) : 1.0;
+        String schluessel = halbjahr + felder[1];
+        Fach fach = schueler.faecher.get(schluessel);
+        if (fach == null) {
+            fach = new Fach(schueler.faecher.size(), felder[1], halbjahr, istWahr(felder[3]));
+            schueler.faecher.put(schluessel, fach);
+        }
+        fach.addNote(new Note(wert, null, 0L, gewichtung));
+    }
+
+    // --- Stufe 2: Berechnen ---
+
+    private static Integer berechnen(BlockingQueue<Schueler> gelesen, BlockingQueue<String> berechnet,
+                                     Regelwerk regelwerk) throws InterruptedException {
+        int bestanden = 0;
+        List<Fach> faecher = new ArrayList<>();
+        StringBuilder zeile = new StringBuilder(64);
+        Schueler schueler;
+        while ((schueler = gelesen.take()) != ENDE) {
+            faecher.clear();
+            faecher.addAll(schueler.faecher.values());
+            int[] pruefungen = schueler.anzahlPruefungen == schueler.pruefungen.length
+                    ? schueler.pruefungen
+                    : Arrays.copyOf(schueler.pruefungen, schueler.anzahlPruefungen);
+            BerechnungUtil.AbiErgebnis ergebnis = regelwerk.berechneAbi(faecher, pruefungen);
+            if (ergebnis.bestanden) {
+                bestanden++;
+            }
+
+            zeile.setLength(0);
+            zeile.append(schueler.id).append(TRENNZEICHEN)
+                    .append(ergebnis.halbjahresPunkte).append(TRENNZEICHEN)
+                    .append(ergebnis.pruefungsPunkte).append(TRENNZEICHEN)
+                    .append(ergebnis.gesamtPunkte).append(TRENNZEICHEN)
+                    .append(ergebnis.abiSchnitt).append(TRENNZEICHEN)
+                    .append(ergebnis.bestanden ? 1 : 0);
+            berechnet.put(zeile.toString());
+        }
+        berechnet.put(ENDE_ZEILE);
+        return bestanden;
+    }
+
+    // --- Stufe 3: Schreiben ---
+
+    private static Integer schreiben(BlockingQueue<String> berechnet, Writer ausgabe)
+            throws IOException, InterruptedException {
+        int schueler = 0;
+        ausgabe.write(KOPFZEILE_AUSGABE);
+        ausgabe.write('\n');
+        String zeile;
+        while ((zeile = berechnet.take()) != ENDE_ZEILE) {
+            ausgabe.write(zeile);
+            ausgabe.write('\n');
+            schueler++;
+        }
+        ausgabe.flush();
+        return schueler;
+    }
+
+    // --- Hilfsmethoden ---
+
+    /**
+     * Teilt eine Zeile am Trennzeichen in das übergebene Array (weitere Felder werden ignoriert).
+     *
+     * @return Die Anzahl der gefundenen Felder.
+     */
+    private static int teilen(String zeile, String[] felder) {
+        int anzahl = 0;
+        int start = 0;
+        while (anzahl < felder.length) {
+            int ende = zeile.indexOf(TRENNZEICHEN, start);
+            if (ende < 0) {
+                felder[anzahl++] = zeile.substring(start).trim();
+                break;
+            }
+            felder[anzahl++] = zeile.substring(start, ende).trim();
+            start = ende + 1;
+        }
+        return anzahl;
+    }
+
+    private static boolean istWahr(String feld) {
+        return feld.equals("1") || feld.equalsIgnoreCase("true") || feld.equalsIgnoreCase("ja");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handgeschriebener Gson-TypeAdapter für {@link Fach}.
+ * Serialisiert ein Fach samt Notenliste in einem Durchlauf über JsonReader/JsonWriter,
+ * ohne Reflection und ohne Zwischenobjekte für die Notenliste.
+ * Das JSON-Format ist identisch zu dem, das Gson bisher per Reflection erzeugt hat.
+ */
+public class FachTypeAdapter extends TypeAdapter<Fach> {
+
+    private final NoteTypeAdapter noteAdapter;
+
+    /**
+     * Konstruktor für den FachTypeAdapter.
+     *
+     * @param noteAdapter Der Adapter, mit dem die einzelnen Noten gelesen und geschrieben werden.
+     */
+    public FachTypeAdapter(NoteTypeAdapter noteAdapter) {
+        this.noteAdapter = noteAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Fach fach) throws IOException {
+        if (fach == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(fach.getId());
+        if (fach.getName() != null) {
+            out.name("name").value(fach.getName());
+        }
+        out.name("halbjahr").value(fach.getHalbjahr());
+        out.name("isAbiturfach").value(fach.isAbiturfach());
+        out.name("noten");
+        out.beginArray();
+        for (Note note : fach.getNoten()) {
+            noteAdapter.write(out, note);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public Fach read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        long id = 0L;
+        String name = null;
+        int halbjahr = 0;
+        boolean abiturfach = false;
+        List<Note> noten = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    id = in.nextLong();
+                    break;
+                case "name":
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        name = in.nextString();
+                    }
+                    break;
+                case "halbjahr":
+                    halbjahr = in.nextInt();
+                    break;
+                case "isAbiturfach":
+                    abiturfach = in.nextBoolean();
+                    break;
+                case "noten":
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull(); // Wird wie eine leere Notenliste behandelt
+                        break;
+                    }
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        Note note = noteAdapter.read(in);
+                        if (note != null) {
+                            noten.add(note);
+                        }
+                    }
+                    in.endArray();
+                    break;
+                default:
+                    in.skipValue(); // Unbekannte Felder ignorieren
+                    break;
+            }
+        }
+        in.endObject();
+
+        Fach fach = new Fach(id, name, halbjahr, abiturfach);
+        fach.setNoten(noten);
+        return fach;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Stellt die eine, gemeinsam genutzte Gson-Instanz der App bereit.
+ * Für {@link Fach} und {@link Note} sind die handgeschriebenen Streaming-Adapter registriert,
+ * sodass beim Laden und Speichern keine Reflection mehr nötig ist.
+ * Gson-Instanzen sind threadsicher und können daher von UI- und Hintergrund-Thread geteilt werden.
+ */
+public final class GsonProvider {
+
+    private static final Gson GSON;
+
+    static {
+        NoteTypeAdapter noteAdapter = new NoteTypeAdapter();
+        GSON = new GsonBuilder()
+                .registerTypeAdapter(Note.class, noteAdapter.nullSafe())
+                .registerTypeAdapter(Fach.class, new FachTypeAdapter(noteAdapter).nullSafe())
+                .create();
+    }
+
+    private GsonProvider() {
+        // Keine Instanzen
+    }
+
+    /**
+     * @return Die gemeinsam genutzte Gson-Instanz.
+     */
+    public static Gson get() {
+        return GSON;
+    }
+}
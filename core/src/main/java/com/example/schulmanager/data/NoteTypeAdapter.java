@@ -0,0 +1,73 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Note;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Handgeschriebener Gson-TypeAdapter für {@link Note}.
+ * Liest und schreibt die Felder direkt über JsonReader/JsonWriter, ohne Reflection.
+ * Die Feldnamen entsprechen denen, die Gson bisher per Reflection erzeugt hat,
+ * sodass bereits gespeicherte Daten weiterhin gelesen werden können.
+ */
+public class NoteTypeAdapter extends TypeAdapter<Note> {
+
+    @Override
+    public void write(JsonWriter out, Note note) throws IOException {
+        if (note == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("wert").value(note.getWert());
+        if (note.getTyp() != null) {
+            out.name("typ").value(note.getTyp());
+        }
+        out.name("datum").value(note.getDatum());
+        out.name("gewichtung").value(note.getGewichtung());
+        out.endObject();
+    }
+
+    @Override
+    public Note read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        double wert = 0.0;
+        String typ = null;
+        long datum = 0L;
+        double gewichtung = 0.0; // Wie bei Reflection: fehlende Gewichtung bleibt 0
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "wert":
+                    wert = in.nextDouble();
+                    break;
+                case "typ":
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        typ = in.nextString();
+                    }
+                    break;
+                case "datum":
+                    datum = in.nextLong();
+                    break;
+                case "gewichtung":
+                    gewichtung = in.nextDouble();
+                    break;
+                default:
+                    in.skipValue(); // Unbekannte Felder (z.B. aus neueren Versionen) ignorieren
+                    break;
+            }
+        }
+        in.endObject();
+        return new Note(wert, typ, datum, gewichtung);
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.schulmanager.models;
+
+import androidx.annotation.NonNull;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repräsentiert ein Schulfach mit seinen Eigenschaften wie Name, Halbjahr,
+ * Abiturfachstatus und einer Liste der zugehörigen Noten.
+ * Implementiert Serializable, um Objekte persistent speichern zu können.
+ *
+ * <p>Die Noten werden spaltenweise in primitiven Arrays gehalten (Wert, Gewichtung, Datum, Typ-Code),
+ * nicht als einzelne {@link Note}-Objekte. Berechnungen laufen direkt über diese Arrays;
+ * {@link Note}-Objekte entstehen erst, wenn die Ansicht aus {@link #getNoten()} gelesen wird.</p>
+ *
+ * <p>Punktwerte und Gewichtungen werden als Festkommazahlen in Hundertsteln gespeichert (7,5 Punkte = 750),
+ * alle Summen sind ganzzahlig. Dadurch sind Durchschnitt und Rundung exakt: Ob ein Fach auf x,5 steht und
+ * aufgerundet wird, hängt nicht mehr von der Reihenfolge der Additionen oder von Gleitkommafehlern ab.
+ * Genauere Eingaben werden beim Speichern auf Hundertstel gerundet.</p>
+ */
+public class Fach implements Serializable {
+
+    // --- Codes für den Notentyp in der Spalte typCodes ---
+    private static final byte TYP_NULL = 0;
+    private static final byte TYP_SCHRIFTLICH = 1;
+    private static final byte TYP_MUENDLICH = 2;
+    private static final byte TYP_UNBEKANNT = 3;
+    private static final byte TYP_SONSTIG = 4; // Beliebiger anderer Text, steht in sonstigeTypen
+
+    private static final int START_KAPAZITAET = 8;
+
+    /** Festkomma-Faktor der Notenspalten: Werte und Gewichtungen werden in Hundertsteln gespeichert. */
+    public static final int HUNDERTSTEL = 100;
+    private static final int MAX_WERT_HUNDERTSTEL = 15 * HUNDERTSTEL;
+
+    // Zuletzt vergebene oder geladene ID. Neue IDs liegen immer darüber, auch wenn mehrere Fächer
+    // in derselben Millisekunde angelegt werden oder die Systemuhr zurückgestellt wurde.
+    private static final AtomicLong LETZTE_ID = new AtomicLong();
+
+    // --- Instanzvariablen ---
+    private final long id;          // Eindeutige ID für das Fach, siehe neueId()
+    private String name;            // Name des Faches (z.B. "Mathematik", "Deutsch")
+    private int halbjahr;           // Das Halbjahr, in dem das Fach belegt wird (z.B. 1, 2, 3, 4)
+    private boolean isAbiturfach;   // Flag, ob das Fach ein Abiturfach ist
+
+    // Noten als parallele Spalten; gültig sind jeweils die ersten anzahlNoten Einträge.
+    private int anzahlNoten;
+    private int[] werte = new int[0];               // Punktwerte in Hundertsteln (0-1500)
+    private int[] gewichtungen = new int[0];        // Gewichtungen in Hundertsteln (>= 0)
+    private long[] daten = new long[0];             // Zeitstempel der Notenerfassung
+    private byte[] typCodes = new byte[0];          // Notentyp als Code (TYP_...)
+    private String[] sonstigeTypen;                 // Nur für TYP_SONSTIG, wird erst bei Bedarf angelegt
+
+    private transient List<Note> notenAnsicht; // Wird bei Bedarf erzeugt, nicht mitserialisiert
+
+    // Laufende Summen für den gewichteten Durchschnitt, damit dieser ohne Schleife gelesen werden kann.
+    // Ganzzahlig und damit exakt, auch nach beliebig vielen Additionen und Subtraktionen.
+    // transient: nach einer Deserialisierung (summenGueltig == false) werden sie beim ersten Lesen neu aufgebaut.
+    private transient long summeGewichteterPunkte; // Summe (Punkte * Gewichtung) in Zehntausendsteln, nur positive Gewichtungen
+    private transient long summeGewichtungen;      // Summe dieser Gewichtungen in Hundertsteln
+    private transient boolean summenGueltig;
+
+    /**
+     * Konstruktor zum Erstellen eines neuen Fach-Objekts.
+     *
+     * @param name         Der Name des Faches.
+     * @param halbjahr     Das Halbjahr, in dem das Fach belegt wird.
+     * @param isAbiturfach Gibt an, ob es sich um ein Abiturfach handelt.
+     */
+    public Fach(String name, int halbjahr, boolean isAbiturfach) {
+        // Generiert eine eindeutige, streng steigende ID (nahe am aktuellen Zeitstempel)
+        this.id = neueId();
+        this.name = name;
+        this.halbjahr = halbjahr;
+        this.isAbiturfach = isAbiturfach;
+        this.summenGueltig = true; // Keine Noten: beide Summen sind 0
+    }
+
+    /**
+     * Konstruktor zum Wiederherstellen eines bereits gespeicherten Fach-Objekts mit bekannter ID.
+     * Wird beim Nachspielen des Änderungsjournals benötigt, damit spätere Einträge das Fach wiederfinden.
+     *
+     * @param id           Die ursprünglich vergebene ID des Faches.
+     * @param name         Der Name des Faches.
+     * @param halbjahr     Das Halbjahr, in dem das Fach belegt wird.
+     * @param isAbiturfach Gibt an, ob es sich um ein Abiturfach handelt.
+     */
+    public Fach(long id, String name, int halbjahr, boolean isAbiturfach) {
+        this.id = id;
+        this.name = name;
+        this.halbjahr = halbjahr;
+        this.isAbiturfach = isAbiturfach;
+        this.summenGueltig = true;
+    }
+
+    // --- Vergabe der IDs ---
+
+    /**
+     * Vergibt eine neue Fach-ID. Sie entspricht dem aktuellen Zeitstempel in Millisekunden,
+     * ist aber mindestens um eins größer als jede bisher vergebene oder per {@link #idBelegt(long)}
+     * gemeldete ID. Damit bleiben IDs auch beim Anlegen vieler Fächer in kurzer Zeit eindeutig.
+     *
+     * @return Die neue, noch nicht verwendete ID.
+     */
+    public static long neueId() {
+        long jetzt = System.currentTimeMillis();
+        return LETZTE_ID.accumulateAndGet(jetzt, (letzte, zeit) -> Math.max(letzte + 1, zeit));
+    }
+
+    /**
+     * Meldet eine bereits verwendete ID (z.B. eines geladenen Fachs), damit {@link #neueId()} sie nie erneut vergibt.
+     *
+     * @param id Die belegte ID.
+     */
+    public static void idBelegt(long id) {
+        LETZTE_ID.accumulateAndGet(id, Math::max);
+    }
+
+    // --- Methoden zum Hinzufügen, Entfernen und Abrufen von Noten ---
+
+    /**
+     * Fügt eine Note zur Liste der Noten dieses Faches hinzu.
+     * Die Werte der Note werden in die Spalten übernommen, die Summen für den Durchschnitt direkt mitgeführt.
+     *
+     * @param note Die hinzuzufügende Note.
+     */
+    public void addNote(Note note) {
+        anhaengen(note.getWert(), note.getTyp(), note.getDatum(), note.getGewichtung());
+        if (summenGueltig) {
+            summeAnpassen(anzahlNoten - 1, 1);
+        }
+    }
+
+    /**
+     * Entfernt eine spezifische Note aus der Liste der Noten dieses Faches.
+     * Gesucht wird die erste Note mit denselben Werten (siehe {@link Note#equals(Object)}).
+     *
+     * @param note Die zu entfernende Note.
+     */
+    public void removeNote(Note note) {
+        int index = getNoten().indexOf(note);
+        if (index >= 0) {
+            removeNoteAt(index);
+        }
+    }
+
+    /**
+     * Entfernt die Note an der angegebenen Position.
+     * Die Note wird direkt von den Summen abgezogen. Da diese ganzzahlig sind, entsteht dabei keine
+     * Rundungsdrift, die an der 0,5-Grenze von {@link #getDurchschnittsPunkte()} einen anderen Punktwert ergäbe.
+     *
+     * @param index Position der Note (0 bis Anzahl - 1).
+     * @throws IndexOutOfBoundsException Wenn der Index außerhalb der Notenliste liegt.
+     */
+    public void removeNoteAt(int index) {
+        if (index < 0 || index >= anzahlNoten) {
+            throw new IndexOutOfBoundsException("Index " + index + ", Anzahl " + anzahlNoten);
+        }
+        if (summenGueltig) {
+            summeAnpassen(index, -1);
+        }
+        int nachfolgende = anzahlNoten - index - 1;
+        System.arraycopy(werte, index + 1, werte, index, nachfolgende);
+        System.arraycopy(gewichtungen, index + 1, gewichtungen, index, nachfolgende);
+        System.arraycopy(daten, index + 1, daten, index, nachfolgende);
+        System.arraycopy(typCodes, index + 1, typCodes, index, nachfolgende);
+        if (sonstigeTypen != null) {
+            System.arraycopy(sonstigeTypen, index + 1, sonstigeTypen, index, nachfolgende);
+            sonstigeTypen[anzahlNoten - 1] = null;
+        }
+        anzahlNoten--;
+    }
+
+    /**
+     * Gibt alle Noten dieses Faches als Liste zurück.
+     * Die Liste ist eine schreibgeschützte Ansicht auf die gespeicherten Spalten: sie zeigt spätere Änderungen
+     * sofort an, erzeugt aber bei jedem {@code get} ein neues {@link Note}-Objekt.
+     * Änderungen an den Noten erfolgen über {@link #addNote(Note)}, {@link #removeNoteAt(int)} oder
+     * {@link #setNoten(List)}.
+     *
+     * @return Eine Liste von Note-Objekten, niemals null.
+     */
+    public List<Note> getNoten() {
+        if (notenAnsicht == null) {
+            notenAnsicht = new NotenAnsicht();
+        }
+        return notenAnsicht;
+    }
+
+    /**
+     * Setzt die Liste der Noten für dieses Fach.
+     * Nützlich, wenn Noten von außen geladen oder aktualisiert werden.
+     * Die Summen werden erst beim ersten Abruf des Durchschnitts aufgebaut, damit das Laden vieler Fächer
+     * nicht für jedes Fach eine zusätzliche Schleife kostet.
+     *
+     * @param noten Die neue Liste der Noten (null entspricht einer leeren Liste).
+     */
+    public void setNoten(List<Note> noten) {
+        int anzahl = noten != null ? noten.size() : 0;
+        // Exakt passende Arrays, da geladene Fächer meist nur noch selten neue Noten bekommen.
+        werte = new int[anzahl];
+        gewichtungen = new int[anzahl];
+        daten = new long[anzahl];
+        typCodes = new byte[anzahl];
+        sonstigeTypen = null;
+        anzahlNoten = 0;
+        for (int i = 0; i < anzahl; i++) {
+            Note note = noten.get(i);
+            anhaengen(note.getWert(), note.getTyp(), note.getDatum(), note.getGewichtung());
+        }
+        summenGueltig = false;
+    }
+
+    // --- Direkter Zugriff auf die Notenspalten (ohne Note-Objekte) ---
+
+    public int getAnzahlNoten() {
+        return anzahlNoten;
+    }
+
+    public double getNotenWert(int index) {
+        pruefeIndex(index);
+        return (double) werte[index] / HUNDERTSTEL;
+    }
+
+    public double getNotenGewichtung(int index) {
+        pruefeIndex(index);
+        return (double) gewichtungen[index] / HUNDERTSTEL;
+    }
+
+    /**
+     * @param index Position der Note.
+     * @return Der Punktwert in Hundertsteln (0-1500), so wie er gespeichert ist.
+     */
+    public int getNotenWertHundertstel(int index) {
+        pruefeIndex(index);
+        return werte[index];
+    }
+
+    /**
+     * @param index Position der Note.
+     * @return Die Gewichtung in Hundertsteln (>= 0), so wie sie gespeichert ist.
+     */
+    public int getNotenGewichtungHundertstel(int index) {
+        pruefeIndex(index);
+        return gewichtungen[index];
+    }
+
+    public long getNotenDatum(int index) {
+        pruefeIndex(index);
+        return daten[index];
+    }
+
+    public String getNotenTyp(int index) {
+        pruefeIndex(index);
+        return typName(index);
+    }
+
+    /**
+     * Berechnet den gewichteten Durchschnitt aller Noten des Faches.
+     * Jede Note wird mit ihrer individuellen Gewichtung (note.getGewichtung())
+     * in die Berechnung einbezogen. Noten mit einer Gewichtung von 0 werden ignoriert.
+     * Liest nur die laufenden Summen und ist damit unabhängig von der Anzahl der Noten.
+     *
+     * @return Der ungerundete gewichtete Durchschnitt in Punkten (0.0-15.0).
+     */
+    public double getDurchschnitt() {
+        if (!summenGueltig) {
+            summenNeuAufbauen();
+        }
+        // Falls keine Noten mit positiver Gewichtung vorhanden sind, ist der Durchschnitt 0.0
+        if (summeGewichtungen == 0) {
+            return 0.0;
+        }
+        return (double) summeGewichteterPunkte / (summeGewichtungen * HUNDERTSTEL);
+    }
+
+    /**
+     * Berechnet beide Summen einmal vollständig aus den Spalten.
+     */
+    private void summenNeuAufbauen() {
+        summeGewichteterPunkte = 0;
+        summeGewichtungen = 0;
+        for (int i = 0; i < anzahlNoten; i++) {
+            summeAnpassen(i, 1);
+        }
+        summenGueltig = true;
+    }
+
+    /**
+     * Addiert (vorzeichen = 1) oder subtrahiert (vorzeichen = -1) eine Note in den laufenden Summen.
+     * Nur Noten mit einer positiven Gewichtung werden berücksichtigt; die Werte liegen bereits bei 0-1500.
+     */
+    private void summeAnpassen(int index, int vorzeichen) {
+        int gewichtung = gewichtungen[index];
+        if (gewichtung > 0) {
+            summeGewichteterPunkte += vorzeichen * ((long) werte[index] * gewichtung);
+            summeGewichtungen += vorzeichen * gewichtung;
+        }
+    }
+
+    /**
+     * Wandelt einen Punktwert in Hundertstel um und begrenzt ihn dabei auf 0-15 Punkte.
+     *
+     * @param wert Der Punktwert.
+     * @return Der Wert in Hundertsteln (0-1500).
+     */
+    public static int wertZuHundertstel(double wert) {
+        if (!(wert > 0)) return 0; // auch NaN
+        if (wert >= 15.0) return MAX_WERT_HUNDERTSTEL;
+        return (int) Math.round(wert * HUNDERTSTEL);
+    }
+
+    /**
+     * Wandelt eine Gewichtung in Hundertstel um. Negative Gewichtungen werden zu 0,
+     * sehr große auf {@link Integer#MAX_VALUE} begrenzt.
+     *
+     * @param gewichtung Die Gewichtung.
+     * @return Die Gewichtung in Hundertsteln (>= 0).
+     */
+    public static int gewichtungZuHundertstel(double gewichtung) {
+        if (!(gewichtung > 0)) return 0;
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(gewichtung * HUNDERTSTEL));
+    }
+
+    /**
+     * Rundet einen gewichteten Durchschnitt, gegeben als ganzzahlige Summen, exakt nach der Regel von
+     * {@link #roundToNearestNotePoint(double)}: unter 1,0 Punkten 0, sonst ab ,5 aufrunden.
+     * Kommt ohne Gleitkomma aus, daher ist das Ergebnis an der 0,5-Grenze immer eindeutig.
+     *
+     * @param summeGewichteterPunkte Summe (Wert * Gewichtung), beides in Hundertsteln.
+     * @param summeGewichtungen      Summe der Gewichtungen in Hundertsteln.
+     * @return Die gerundeten Punkte (0-15), 0 wenn die Gewichtungssumme 0 ist.
+     */
+    public static int punkteAusSummen(long summeGewichteterPunkte, long summeGewichtungen) {
+        if (summeGewichtungen <= 0) return 0;
+        long einPunkt = summeGewichtungen * HUNDERTSTEL; // Durchschnitt 1,0 entspricht dieser Summe
+        if (summeGewichteterPunkte < einPunkt) return 0;
+        // floor(S / (W*100) + 0,5) ohne Division durch 0,5: (2S + 100W) / (200W)
+        return (int) ((2 * summeGewichteterPunkte + einPunkt) / (2 * einPunkt));
+    }
+
+    // --- Hilfsmethoden für die Notenspalten ---
+
+    private void anhaengen(double wert, String typ, long datum, double gewichtung) {
+        anhaengen(wertZuHundertstel(wert), typ, datum, gewichtungZuHundertstel(gewichtung));
+    }
+
+    private void anhaengen(int wert, String typ, long datum, int gewichtung) {
+        if (anzahlNoten == werte.length) {
+            int kapazitaet = Math.max(START_KAPAZITAET, anzahlNoten + (anzahlNoten >> 1));
+            werte = Arrays.copyOf(werte, kapazitaet);
+            gewichtungen = Arrays.copyOf(gewichtungen, kapazitaet);
+            daten = Arrays.copyOf(daten, kapazitaet);
+            typCodes = Arrays.copyOf(typCodes, kapazitaet);
+            if (sonstigeTypen != null) {
+                sonstigeTypen = Arrays.copyOf(sonstigeTypen, kapazitaet);
+            }
+        }
+        byte code = typCode(typ);
+        if (code == TYP_SONSTIG) {
+            if (sonstigeTypen == null) {
+                sonstigeTypen = new String[werte.length];
+            }
+            sonstigeTypen[anzahlNoten] = typ;
+        }
+        werte[anzahlNoten] = wert;
+        gewichtungen[anzahlNoten] = gewichtung;
+        daten[anzahlNoten] = datum;
+        typCodes[anzahlNoten] = code;
+        anzahlNoten++;
+    }
+
+    private void pruefeIndex(int index) {
+        if (index < 0 || index >= anzahlNoten) {
+            throw new IndexOutOfBoundsException("Index " + index + ", Anzahl " + anzahlNoten);
+        }
+    }
+
+    private static byte typCode(String typ) {
+        if (typ == null) return TYP_NULL;
+        switch (typ) {
+            case "schriftlich":
+                return TYP_SCHRIFTLICH;
+            case "muendlich":
+                return TYP_MUENDLICH;
+            case "unbekannt":
+                return TYP_UNBEKANNT;
+            default:
+                return TYP_SONSTIG;
+        }
+    }
+
+    private String typName(int index) {
+        switch (typCodes[index]) {
+            case TYP_SCHRIFTLICH:
+                return "schriftlich";
+            case TYP_MUENDLICH:
+                return "muendlich";
+            case TYP_UNBEKANNT:
+                return "unbekannt";
+            case TYP_SONSTIG:
+                return sonstigeTypen[index];
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Schreibgeschützte Listenansicht auf die Notenspalten, z.B. für den NoteAdapter.
+     */
+    private final class NotenAnsicht extends AbstractList<Note> implements RandomAccess {
+        @Override
+        public Note get(int index) {
+            pruefeIndex(index);
+            return new Note((double) werte[index] / HUNDERTSTEL, typName(index), daten[index],
+                    (double) gewichtungen[index] / HUNDERTSTEL);
+        }
+
+        @Override
+        public int size() {
+            return anzahlNoten;
+        }
+    }
+
+
+    // --- Getter- und Setter-Methoden für die Instanzvariablen ---
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getHalbjahr() {
+        return halbjahr;
+    }
+
+    public void setHalbjahr(int halbjahr) {
+        this.halbjahr = halbjahr;
+    }
+
+    public boolean isAbiturfach() {
+        return isAbiturfach;
+    }
+
+    public void setAbiturfach(boolean abitur) {
+        this.isAbiturfach = abitur;
+    }
+
+    /**
+     * Rundet einen double-Wert nach spezifischen Regeln für Notenpunkte (0-15 Punkte).
+     * - Werte unter 1.0 werden auf 0 gerundet.
+     * - Der Nachkommaanteil von 0.0 bis 0.49 wird abgerundet (z.B. 7.49 -> 7).
+     * - Der Nachkommaanteil von 0.50 bis 0.99 wird aufgerundet (z.B. 7.51 -> 8).
+     *
+     * Statisch, damit Simulationen (z.B. {@code AbiPrognose}) genau wie {@link #getDurchschnittsPunkte()} runden.
+     *
+     * @param value Der zu rundende double-Wert (z.B. 7.49, 7.51).
+     * @return Der gerundete Integer-Wert (0-15 Punkte).
+     */
+    public static int roundToNearestNotePoint(double value) {
+        if (value < 1.0) { // Punkte unter 1.0 werden zu 0 gerundet (entspricht "ungenügend")
+            return 0;
+        }
+
+        int intPart = (int) value;          // Ganzzahliger Teil der Punktzahl
+        double fractionalPart = value - intPart; // Nachkommateil der Punktzahl
+
+        if (fractionalPart >= 0.5) {
+            return intPart + 1; // Aufrunden, wenn der Nachkommateil 0.5 oder größer ist
+        } else {
+            return intPart;     // Abrunden, wenn der Nachkommateil kleiner als 0.5 ist
+        }
+    }
+
+    /**
+     * Gibt den gerundeten Durchschnitt der Noten in Punkten (0-15) zurück.
+     * Die Rundung erfolgt nach der spezifischen Regel aus {@link #roundToNearestNotePoint(double)},
+     * aber ganzzahlig auf den Summen (siehe {@link #punkteAusSummen(long, long)}).
+     * Dies ist der Wert, der typischerweise in der UI angezeigt wird.
+     *
+     * @return Der gerundete Durchschnittspunktwert.
+     */
+    public int getDurchschnittsPunkte() {
+        if (!summenGueltig) {
+            summenNeuAufbauen();
+        }
+        return punkteAusSummen(summeGewichteterPunkte, summeGewichtungen);
+    }
+
+    /**
+     * @return Summe (Wert * Gewichtung) aller Noten mit positiver Gewichtung, beides in Hundertsteln.
+     */
+    public long getSummeGewichteterPunkte() {
+        if (!summenGueltig) {
+            summenNeuAufbauen();
+        }
+        return summeGewichteterPunkte;
+    }
+
+    /**
+     * @return Summe der positiven Gewichtungen in Hundertsteln.
+     */
+    public long getSummeGewichtungen() {
+        if (!summenGueltig) {
+            summenNeuAufbauen();
+        }
+        return summeGewichtungen;
+    }
+
+    /**
+     * Überschreibt die Standard toString()-Methode, um eine benutzerfreundliche String-Repräsentation des Fachs zu liefern.
+     *
+     * @return Eine formatierte Zeichenkette mit Fachname, Halbjahr und gerundetem Durchschnitt in Punkten.
+     */
+    @NonNull // Zeigt an, dass die Methode niemals null zurückgibt
+    @Override
+    public String toString() {
+        // Formatiert den String für die Anzeige, z.B. "Mathematik (HJ 1) - Ø 8.3 Punkte"
+        return String.format(Locale.GERMAN, "%s (HJ %d) - Ø %.1f Punkte",
+                name, halbjahr, getDurchschnitt()); // Nutzt den ungerundeten Durchschnitt für die Anzeige mit einer Nachkommastelle
+    }
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import androidx.annotation.NonNull;
 
 import java.io.Serializable;
 import java.util.Locale;
+import java.util.Objects;
 
 public class Note implements Serializable {
     private double wert; // Der Punktwert der Note (0-15)
@@ -74,6 +75,26 @@ public class Note implements Serializable {
      * }
      */
 
+    /**
+     * Zwei Noten sind gleich, wenn Wert, Typ, Datum und Gewichtung übereinstimmen.
+     * Nötig, da {@link Fach#getNoten()} bei jedem Zugriff neue Note-Objekte liefert.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Note)) return false;
+        Note andere = (Note) o;
+        return Double.compare(wert, andere.wert) == 0
+                && datum == andere.datum
+                && Double.compare(gewichtung, andere.gewichtung) == 0
+                && Objects.equals(typ, andere.typ);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(wert, typ, datum, gewichtung);
+    }
+
     @NonNull
     @Override
     public String toString() {
@@ -0,0 +1,323 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToIntFunction;
+
+/**
+ * Monte-Carlo-Prognose des Abiturs: Noch fehlende Noten und offene Prüfungen werden vielfach ausgewürfelt,
+ * jedes Ergebnis nach den Regeln von {@link BerechnungUtil} (inkl. {@link Einbringung}) bewertet und gezählt.
+ * <p>
+ * Zukünftige Noten eines Fachs werden aus seinen bisherigen Noten gezogen (empirische Verteilung, jede Note
+ * gleich wahrscheinlich und mit ihrer Gewichtung); Fächer ohne Noten ziehen aus allen Noten des Schülers.
+ * Offene Prüfungen werden aus den Noten der Abiturfächer gezogen (ohne Abiturfächer: aus allen Noten).
+ * <p>
+ * Der Konstruktor liest die Fächer einmal in flache Arrays (auf dem Thread, dem die Fächer gehören);
+ * {@link #simuliere} arbeitet danach nur noch auf diesen Arrays und kann auf einem beliebigen Thread laufen.
+ * Die Simulationen werden per Fork/Join verteilt. Jeder Teilauftrag legt seine Arbeits-Arrays einmal an;
+ * innerhalb der Simulationen wird nichts allokiert. Bei gleichem Startwert ist das Ergebnis unabhängig von
+ * der Anzahl der Threads.
+ */
+public final class AbiPrognose {
+
+    // Bis zu dieser Anzahl Simulationen wird ein Bereich nicht weiter aufgeteilt.
+    private static final int SIMULATIONEN_PRO_AUFGABE = 4096;
+    private static final int ANZAHL_PUNKTWERTE = BerechnungUtil.ANZAHL_PUNKTWERTE;
+    private static final int INDEX_BESTANDEN = 61; // Zähler-Index für bestandene Simulationen, 0-60 sind die Zehntel
+
+    private final Regelwerk regelwerk;
+    private final List<EinbringungsRegel> regeln;
+    private final int anzahlFaecher;
+
+    // Je Fach: bisherige Summen (wie in Fach, ganzzahlig in Hundertsteln), Gruppe für die Einbringung, Anzahl zu ziehender Noten
+    // und der Bereich in noteWerte/noteGewichte, aus dem gezogen wird.
+    private final long[] basisSummeGewichtet;
+    private final long[] basisSummeGewichtungen;
+    private final int[] gruppe;
+    private final int[] weitereNoten;
+    private final int[] quelleStart;
+    private final int[] quelleLaenge;
+
+    // Alle Noten hintereinander: zuerst je Fach seine eigenen, dann alle Noten des Schülers, dann die der Abiturfächer.
+    private final int[] noteWerte;    // Hundertstel wie Fach.getNotenWertHundertstel()
+    private final int[] noteGewichte; // Hundertstel wie Fach.getNotenGewichtungHundertstel()
+
+    private final int[] pruefungsNoten; // PruefungsZielRechner.OFFEN für auszuwürfelnde Prüfungen
+    private final int pruefungsQuelleStart;
+    private final int pruefungsQuelleLaenge;
+
+    /**
+     * Das Ergebnis einer Prognose: Häufigkeiten der Abischnitte über alle Simulationen.
+     */
+    public static final class Ergebnis {
+        private final long[] zaehler; // Index = Schnitt in Zehnteln (60 = nicht bestanden), INDEX_BESTANDEN = bestanden
+        private final long anzahl;
+
+        Ergebnis(long[] zaehler, long anzahl) {
+            this.zaehler = zaehler;
+            this.anzahl = anzahl;
+        }
+
+        public long getAnzahlSimulationen() {
+            return anzahl;
+        }
+
+        /**
+         * @return Anteil der Simulationen, in denen das Abitur bestanden ist (0-1).
+         */
+        public double getBestehensWahrscheinlichkeit() {
+            return anzahl == 0 ? 0.0 : (double) zaehler[INDEX_BESTANDEN] / anzahl;
+        }
+
+        /**
+         * @param zehntel Der Schnitt in Zehnteln (10-40, 60 für nicht bestanden).
+         * @return Anteil der Simulationen mit genau diesem Schnitt.
+         */
+        public double getWahrscheinlichkeit(int zehntel) {
+            return anzahl == 0 || zehntel < 0 || zehntel > 60 ? 0.0 : (double) zaehler[zehntel] / anzahl;
+        }
+
+        /**
+         * @param zehntel Der Schnitt in Zehnteln.
+         * @return Anteil der Simulationen mit diesem oder einem besseren Schnitt.
+         */
+        public double getWahrscheinlichkeitHoechstens(int zehntel) {
+            long summe = 0;
+            for (int z = 0; z <= Math.min(zehntel, 60); z++) {
+                summe += zaehler[z];
+            }
+            return anzahl == 0 ? 0.0 : (double) summe / anzahl;
+        }
+
+        /**
+         * Der Schnitt, der mit der angegebenen Wahrscheinlichkeit erreicht oder übertroffen wird.
+         *
+         * @param wahrscheinlichkeit z.B. 0.5 für den Median, 0.9 für "mit 90 % mindestens".
+         * @return Der Schnitt in Zehnteln (60 = nicht bestanden).
+         */
+        public int getQuantilZehntel(double wahrscheinlichkeit) {
+            long schwelle = (long) Math.ceil(wahrscheinlichkeit * anzahl);
+            long summe = 0;
+            for (int z = 0; z <= 60; z++) {
+                summe += zaehler[z];
+                if (summe >= schwelle && summe > 0) {
+                    return z;
+                }
+            }
+            return 60;
+        }
+
+        /**
+         * @return Der häufigste Schnitt in Zehnteln (60 = nicht bestanden).
+         */
+        public int getHaeufigsterZehntel() {
+            int beste = 60;
+            for (int z = 0; z <= 60; z++) {
+                if (zaehler[z] > zaehler[beste]) {
+                    beste = z;
+                }
+            }
+            return beste;
+        }
+    }
+
+    /**
+     * Liest den aktuellen Stand für die Prognose ein.
+     *
+     * @param faecher             Alle Fächer mit ihren bisherigen Noten.
+     * @param pruefungsNoten      Die Prüfungsnoten (0-15), {@link PruefungsZielRechner#OFFEN} für noch unbekannte.
+     * @param regeln              Die Pflicht-Regeln für die Einbringung.
+     * @param anzahlWeitererNoten Wie viele Noten jedes Fach bis zum Ende seines Halbjahres noch bekommt.
+     */
+    public AbiPrognose(List<Fach> faecher, int[] pruefungsNoten, List<EinbringungsRegel> regeln,
+                       ToIntFunction<Fach> anzahlWeitererNoten) {
+        this(faecher, pruefungsNoten, regeln, anzahlWeitererNoten, Regelwerk.BAYERN);
+    }
+
+    /**
+     * Wie {@link #AbiPrognose(List, int[], List, ToIntFunction)}, nach den Regeln eines anderen Bundeslandes.
+     *
+     * @param regelwerk Die Abiturregeln, nach denen jede Simulation bewertet wird.
+     */
+    public AbiPrognose(List<Fach> faecher, int[] pruefungsNoten, List<EinbringungsRegel> regeln,
+                       ToIntFunction<Fach> anzahlWeitererNoten, Regelwerk regelwerk) {
+        this.regelwerk = regelwerk;
+        this.regeln = regeln;
+        this.anzahlFaecher = faecher.size();
+        this.basisSummeGewichtet = new long[anzahlFaecher];
+        this.basisSummeGewichtungen = new long[anzahlFaecher];
+        this.gruppe = new int[anzahlFaecher];
+        this.weitereNoten = new int[anzahlFaecher];
+        this.quelleStart = new int[anzahlFaecher];
+        this.quelleLaenge = new int[anzahlFaecher];
+        this.pruefungsNoten = pruefungsNoten.clone();
+
+        // Platz für jede Note dreimal: im eigenen Fach, in "alle" und ggf. in "Abiturfächer".
+        int gesamtNoten = 0;
+        for (Fach fach : faecher) {
+            gesamtNoten += fach.getAnzahlNoten();
+        }
+        int[] werte = new int[3 * gesamtNoten];
+        int[] gewichte = new int[3 * gesamtNoten];
+        int ende = 0;
+
+        // 1. Je Fach die bisherigen Summen (aus Fach übernommen) und die eigenen Noten.
+        for (int f = 0; f < anzahlFaecher; f++) {
+            Fach fach = faecher.get(f);
+            gruppe[f] = Einbringung.gruppe(fach, regeln);
+            weitereNoten[f] = Math.max(0, anzahlWeitererNoten.applyAsInt(fach));
+            basisSummeGewichtet[f] = fach.getSummeGewichteterPunkte();
+            basisSummeGewichtungen[f] = fach.getSummeGewichtungen();
+            quelleStart[f] = ende;
+            for (int i = 0; i < fach.getAnzahlNoten(); i++) {
+                int gewichtung = fach.getNotenGewichtungHundertstel(i);
+                if (gewichtung > 0) { // Nur Noten mit positiver Gewichtung zählen, wie in Fach
+                    werte[ende] = fach.getNotenWertHundertstel(i);
+                    gewichte[ende] = gewichtung;
+                    ende++;
+                }
+            }
+            quelleLaenge[f] = ende - quelleStart[f];
+        }
+
+        // 2. Alle Noten des Schülers als Ersatz für Fächer ohne Noten.
+        int alleStart = ende;
+        System.arraycopy(werte, 0, werte, ende, alleStart);
+        System.arraycopy(gewichte, 0, gewichte, ende, alleStart);
+        ende += alleStart;
+        for (int f = 0; f < anzahlFaecher; f++) {
+            if (quelleLaenge[f] == 0) {
+                quelleStart[f] = alleStart;
+                quelleLaenge[f] = alleStart;
+            }
+            if (quelleLaenge[f] == 0) {
+                weitereNoten[f] = 0; // Überhaupt keine Noten: nichts zu ziehen
+            }
+        }
+
+        // 3. Noten der Abiturfächer als Verteilung für offene Prüfungen.
+        int abiStart = ende;
+        for (int f = 0; f < anzahlFaecher; f++) {
+            if (faecher.get(f).isAbiturfach() && quelleStart[f] != alleStart) {
+                System.arraycopy(werte, quelleStart[f], werte, ende, quelleLaenge[f]);
+                ende += quelleLaenge[f];
+            }
+        }
+        if (ende > abiStart) {
+            pruefungsQuelleStart = abiStart;
+            pruefungsQuelleLaenge = ende - abiStart;
+        } else {
+            pruefungsQuelleStart = alleStart;
+            pruefungsQuelleLaenge = alleStart;
+        }
+
+        this.noteWerte = Arrays.copyOf(werte, ende);
+        this.noteGewichte = Arrays.copyOf(gewichte, ende);
+    }
+
+    /**
+     * Führt die Simulationen im gemeinsamen {@link ForkJoinPool#commonPool()} aus.
+     *
+     * @param anzahl    Anzahl der Simulationen (z.B. 100.000).
+     * @param startwert Startwert des Zufallsgenerators; gleicher Startwert, gleiches Ergebnis.
+     * @return Die Häufigkeiten der Abischnitte.
+     */
+    public Ergebnis simuliere(int anzahl, long startwert) {
+        return simuliere(anzahl, startwert, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Wie {@link #simuliere(int, long)}, aber in einem eigenen Pool.
+     */
+    public Ergebnis simuliere(int anzahl, long startwert, ForkJoinPool pool) {
+        long[] zaehler = pool.invoke(new Bereich(startwert, 0, anzahl));
+        return new Ergebnis(zaehler, anzahl);
+    }
+
+    /**
+     * Teilauftrag für die Simulationen von (einschließlich) bis (ausschließlich).
+     * Liefert die Zähler je Schnitt (Index 0-60) und die Anzahl bestandener Simulationen (Index 61).
+     */
+    @SuppressWarnings("serial") // Wird nie serialisiert
+    private final class Bereich extends RecursiveTask<long[]> {
+        private final long startwert;
+        private final int von;
+        private final int bis;
+
+        Bereich(long startwert, int von, int bis) {
+            this.startwert = startwert;
+            this.von = von;
+            this.bis = bis;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (bis - von > SIMULATIONEN_PRO_AUFGABE) {
+                int mitte = (von + bis) >>> 1;
+                Bereich rechts = new Bereich(startwert, mitte, bis);
+                rechts.fork();
+                long[] zaehler = new Bereich(startwert, von, mitte).compute();
+                long[] zaehlerRechts = rechts.join();
+                for (int i = 0; i < zaehler.length; i++) {
+                    zaehler[i] += zaehlerRechts[i];
+                }
+                return zaehler;
+            }
+
+            // Der Zufallsgenerator hängt nur vom Bereich ab, nicht davon, welcher Thread ihn bearbeitet.
+            SplittableRandom zufall = new SplittableRandom(startwert ^ (von * 0x9E3779B97F4A7C15L));
+            int[][] histogramme = new int[Einbringung.anzahlGruppen(regeln)][ANZAHL_PUNKTWERTE];
+            int[][] pflicht = new int[Einbringung.anzahlGruppen(regeln)][ANZAHL_PUNKTWERTE];
+            int[] rest = new int[ANZAHL_PUNKTWERTE];
+            Einbringung.Auswahl auswahl = new Einbringung.Auswahl();
+            long[] zaehler = new long[INDEX_BESTANDEN + 1];
+            int anzahlRelevant = Math.min(regelwerk.getAnzahlLeistungen(), anzahlFaecher);
+            int unterpunktungsGrenze = regelwerk.getUnterpunktungsGrenze();
+
+            for (int s = von; s < bis; s++) {
+                // 1. Halbjahresleistungen: fehlende Noten ziehen, Durchschnitt wie Fach bilden und einsortieren.
+                for (int[] histogramm : histogramme) {
+                    Arrays.fill(histogramm, 0);
+                }
+                for (int f = 0; f < anzahlFaecher; f++) {
+                    long summeGewichtet = basisSummeGewichtet[f];
+                    long summeGewichtungen = basisSummeGewichtungen[f];
+                    for (int k = weitereNoten[f]; k > 0; k--) {
+                        int j = quelleStart[f] + zufall.nextInt(quelleLaenge[f]);
+                        summeGewichtet += (long) noteWerte[j] * noteGewichte[j];
+                        summeGewichtungen += noteGewichte[j];
+                    }
+                    histogramme[gruppe[f]][Fach.punkteAusSummen(summeGewichtet, summeGewichtungen)]++;
+                }
+                Einbringung.auswaehlen(histogramme, regeln, anzahlRelevant, unterpunktungsGrenze, pflicht, rest, auswahl);
+                int halbjahresPunkte = regelwerk.halbjahresPunkte(auswahl.summe, auswahl.anzahl);
+
+                // 2. Prüfungen: bekannte übernehmen, offene ziehen.
+                int pruefungsPunkte = 0;
+                for (int note : pruefungsNoten) {
+                    if (note == PruefungsZielRechner.OFFEN) {
+                        // Eine einzelne Note mit Gewichtung 0,01 gerundet, wie roundToNearestNotePoint(wert)
+                        note = pruefungsQuelleLaenge == 0 ? 0 : Fach.punkteAusSummen(
+                                noteWerte[pruefungsQuelleStart + zufall.nextInt(pruefungsQuelleLaenge)], 1);
+                    }
+                    pruefungsPunkte += regelwerk.pruefungsPunkte(note);
+                }
+                int gesamtPunkte = halbjahresPunkte + Math.min(regelwerk.getMaxPruefungsGesamt(), pruefungsPunkte);
+
+                // 3. Bewerten wie in BerechnungUtil.berechneAbi().
+                if (regelwerk.bestanden(auswahl.unterpunktungen, gesamtPunkte)) {
+                    zaehler[regelwerk.punkteZuNoteZehntel(gesamtPunkte)]++;
+                    zaehler[INDEX_BESTANDEN]++;
+                } else {
+                    zaehler[60]++;
+                }
+            }
+            return zaehler;
+        }
+    }
+}
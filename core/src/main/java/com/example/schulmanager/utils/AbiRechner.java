@@ -0,0 +1,225 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zustandsbehaftete Abiturberechnung für die Anzeige: Statt bei jeder Änderung {@link BerechnungUtil#berechneAbi}
+ * über alle Fächer laufen zu lassen, werden die Histogramme der Halbjahresleistungen (je Einbringungs-Gruppe)
+ * und die Prüfungssumme gehalten und nur um die Änderung korrigiert.
+ * <p>
+ * Eine Änderung an einem Fach oder einer Prüfung kostet O(1), das Auslesen des Ergebnisses O(16 × 2^Anzahl Regeln)
+ * ohne Durchlauf über die Fächer (bei sich überschneidenden Regeln mehr, siehe {@link Einbringung}).
+ * Da {@link Fach#getDurchschnittsPunkte()} selbst in O(1) aus den laufenden Summen des Fachs kommt, kann der
+ * Schnitt bei jeder Eingabe neu angezeigt werden.
+ * <p>
+ * Nicht threadsicher; gedacht für den UI-Thread, auf dem auch die Fächer verändert werden.
+ */
+public class AbiRechner {
+
+    private static final int ANZAHL_PUNKTWERTE = BerechnungUtil.ANZAHL_PUNKTWERTE;
+
+    private final Regelwerk regelwerk;
+    private final List<EinbringungsRegel> regeln;
+    private final int[][] histogramme; // Je Gruppe (siehe Einbringung.gruppe) die Leistungen je Punktwert
+    // Zuletzt eingetragener Stand je Fach-ID: Gruppe × 16 + Punkte. Daraus wird bei einer Änderung das Delta gebildet.
+    private final Map<Long, Integer> standJeFach = new HashMap<>();
+    private int anzahlFaecher;
+
+    private final int[] pruefungsNoten;
+    private int pruefungsSumme; // Ungedeckelte Summe der Prüfungspunkte (je Prüfung bereits gedeckelt)
+
+    // Wiederverwendete Arbeits-Arrays für Einbringung.auswaehlen, damit das Auslesen nichts allokiert.
+    private final int[][] pflicht;
+    private final int[] rest = new int[ANZAHL_PUNKTWERTE];
+    private final Einbringung.Auswahl auswahl = new Einbringung.Auswahl();
+
+    /**
+     * Erstellt den Rechner ohne Pflicht-Regeln (die besten 40 Leistungen wie in {@link BerechnungUtil#berechneAbi(List, int[])}).
+     */
+    public AbiRechner(List<Fach> faecher, int[] pruefungsNoten) {
+        this(faecher, pruefungsNoten, Collections.emptyList());
+    }
+
+    /**
+     * Erstellt den Rechner und trägt einmalig alle Fächer und Prüfungsnoten ein.
+     *
+     * @param faecher        Alle Fächer.
+     * @param pruefungsNoten Die (bis zu) 5 Prüfungsnoten (0-15).
+     * @param regeln         Die Pflicht-Regeln für die Einbringung wie bei {@link BerechnungUtil#berechneAbi(List, int[], List)}.
+     */
+    public AbiRechner(List<Fach> faecher, int[] pruefungsNoten, List<EinbringungsRegel> regeln) {
+        this(faecher, pruefungsNoten, regeln, Regelwerk.BAYERN);
+    }
+
+    /**
+     * Wie {@link #AbiRechner(List, int[], List)}, aber nach den Regeln eines anderen Bundeslandes.
+     *
+     * @param regelwerk Die Abiturregeln (Anzahl der Leistungen, Unterpunktungen, Prüfungen, Punktetabelle).
+     */
+    public AbiRechner(List<Fach> faecher, int[] pruefungsNoten, List<EinbringungsRegel> regeln, Regelwerk regelwerk) {
+        this.regelwerk = regelwerk;
+        this.regeln = regeln;
+        this.pruefungsNoten = new int[regelwerk.getAnzahlPruefungen()];
+        this.histogramme = new int[Einbringung.anzahlGruppen(regeln)][ANZAHL_PUNKTWERTE];
+        this.pflicht = new int[Einbringung.anzahlGruppen(regeln)][ANZAHL_PUNKTWERTE];
+        for (Fach fach : faecher) {
+            fachHinzugefuegt(fach);
+        }
+        setPruefungsNoten(pruefungsNoten);
+    }
+
+    /**
+     * Trägt ein neues Fach ein.
+     */
+    public void fachHinzugefuegt(Fach fach) {
+        int stand = stand(fach);
+        if (standJeFach.put(fach.getId(), stand) != null) {
+            throw new IllegalStateException("Fach bereits eingetragen: " + fach.getId());
+        }
+        histogramme[stand / ANZAHL_PUNKTWERTE][stand % ANZAHL_PUNKTWERTE]++;
+        anzahlFaecher++;
+    }
+
+    /**
+     * Trägt ein gelöschtes Fach aus.
+     */
+    public void fachEntfernt(Fach fach) {
+        Integer stand = standJeFach.remove(fach.getId());
+        if (stand != null) {
+            histogramme[stand / ANZAHL_PUNKTWERTE][stand % ANZAHL_PUNKTWERTE]--;
+            anzahlFaecher--;
+        }
+    }
+
+    /**
+     * Übernimmt die Änderung eines Fachs (neue oder entfernte Note, geänderter Abiturfach-Status).
+     * Nur wenn sich die gerundeten Punkte oder die Gruppe ändern, wird das Histogramm angepasst.
+     */
+    public void fachAktualisieren(Fach fach) {
+        Integer alt = standJeFach.get(fach.getId());
+        if (alt == null) {
+            fachHinzugefuegt(fach);
+            return;
+        }
+        int neu = stand(fach);
+        if (neu != alt) {
+            histogramme[alt / ANZAHL_PUNKTWERTE][alt % ANZAHL_PUNKTWERTE]--;
+            histogramme[neu / ANZAHL_PUNKTWERTE][neu % ANZAHL_PUNKTWERTE]++;
+            standJeFach.put(fach.getId(), neu);
+        }
+    }
+
+    /**
+     * Setzt eine einzelne Prüfungsnote.
+     *
+     * @param index  Die Prüfung (0 bis Anzahl der Prüfungen - 1).
+     * @param punkte Die Note in Punkten (0-15).
+     */
+    public void setPruefungsNote(int index, int punkte) {
+        pruefungsSumme += regelwerk.pruefungsPunkte(punkte) - regelwerk.pruefungsPunkte(pruefungsNoten[index]);
+        pruefungsNoten[index] = punkte;
+    }
+
+    /**
+     * Setzt alle Prüfungsnoten auf einmal (z.B. nach dem Laden oder beim Verwerfen von Eingaben).
+     */
+    public void setPruefungsNoten(int[] noten) {
+        for (int i = 0; i < pruefungsNoten.length; i++) {
+            setPruefungsNote(i, i < noten.length ? noten[i] : 0);
+        }
+    }
+
+    /**
+     * @return Die Punkte aus den Halbjahresleistungen, wie in {@link BerechnungUtil#berechneAbi}.
+     */
+    public int getHalbjahresPunkte() {
+        auswaehlen();
+        return regelwerk.halbjahresPunkte(auswahl.summe, auswahl.anzahl);
+    }
+
+    /**
+     * @return Die Gesamtpunktzahl aus Halbjahresleistungen und Prüfungen.
+     */
+    public int getGesamtPunkte() {
+        return getHalbjahresPunkte() + Math.min(regelwerk.getMaxPruefungsGesamt(), pruefungsSumme);
+    }
+
+    /**
+     * Das vollständige Ergebnis, identisch zu {@link BerechnungUtil#berechneAbi(List, int[], List)} mit demselben Stand.
+     *
+     * @return Ein neues {@link BerechnungUtil.AbiErgebnis}.
+     */
+    public BerechnungUtil.AbiErgebnis getErgebnis() {
+        BerechnungUtil.AbiErgebnis ergebnis = new BerechnungUtil.AbiErgebnis();
+        ergebnis.halbjahresPunkte = getHalbjahresPunkte(); // füllt auch auswahl
+        ergebnis.pruefungsPunkte = Math.min(regelwerk.getMaxPruefungsGesamt(), pruefungsSumme);
+        ergebnis.einbringungZulaessig = regeln.isEmpty() || auswahl.zulaessig;
+        regelwerk.bewerten(ergebnis, auswahl.unterpunktungen);
+        return ergebnis;
+    }
+
+    /**
+     * Die Halbjahrespunkte für jeden möglichen Punktwert eines einzelnen Fachs, alle anderen Fächer unverändert.
+     * Dafür wird im Histogramm nur die eine Leistung des Fachs verschoben und die Einbringung neu ausgewählt,
+     * es wird nicht über die Fächer gelaufen. Die Prüfungen gehen additiv in die Gesamtpunkte ein, die Differenz
+     * zum jetzigen Stand gilt daher für jedes Prüfungsszenario.
+     *
+     * @param fach Ein eingetragenes Fach.
+     * @return Index = Punkte des Fachs (0-15), Wert = Halbjahrespunkte.
+     * @throws IllegalArgumentException Wenn das Fach nicht eingetragen ist.
+     */
+    public int[] getHalbjahresPunkteJePunktwert(Fach fach) {
+        return halbjahresPunkteJePunktwert(eingetragenerStand(fach));
+    }
+
+    /**
+     * Wie {@link #getHalbjahresPunkteJePunktwert(Fach)}, aber für einen Stand (Gruppe × 16 + Punkte).
+     * Fächer mit gleichem Stand haben dieselbe Zeile; {@link NotenWirkung} berechnet jede daher nur einmal.
+     */
+    int[] halbjahresPunkteJePunktwert(int stand) {
+        int[] histogramm = histogramme[stand / ANZAHL_PUNKTWERTE];
+        int punkte = stand % ANZAHL_PUNKTWERTE;
+        int[] ergebnis = new int[ANZAHL_PUNKTWERTE];
+        histogramm[punkte]--;
+        for (int ziel = 0; ziel < ANZAHL_PUNKTWERTE; ziel++) {
+            histogramm[ziel]++;
+            ergebnis[ziel] = getHalbjahresPunkte();
+            histogramm[ziel]--;
+        }
+        histogramm[punkte]++;
+        return ergebnis;
+    }
+
+    /**
+     * @return Der zuletzt eingetragene Stand des Fachs (Gruppe × 16 + Punkte).
+     * @throws IllegalArgumentException Wenn das Fach nicht eingetragen ist.
+     */
+    int eingetragenerStand(Fach fach) {
+        Integer stand = standJeFach.get(fach.getId());
+        if (stand == null) {
+            throw new IllegalArgumentException("Fach nicht eingetragen: " + fach.getId());
+        }
+        return stand;
+    }
+
+    /**
+     * @return Die Anzahl der Einbringungs-Gruppen (je Kombination zutreffender Regeln eine, siehe Einbringung.gruppe).
+     */
+    int getAnzahlGruppen() {
+        return histogramme.length;
+    }
+
+    private void auswaehlen() {
+        Einbringung.auswaehlen(histogramme, regeln, Math.min(regelwerk.getAnzahlLeistungen(), anzahlFaecher),
+                regelwerk.getUnterpunktungsGrenze(), pflicht, rest, auswahl);
+    }
+
+    private int stand(Fach fach) {
+        return Einbringung.gruppe(fach, regeln) * ANZAHL_PUNKTWERTE + fach.getDurchschnittsPunkte();
+    }
+}
@@ -0,0 +1,194 @@
+// utils/BerechnungUtil.java
+
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.List;
+
+/**
+ * Eine Dienstprogrammklasse zur Berechnung von Abitur- und Halbjahresdurchschnitten.
+ * Diese Klasse enthält statische Methoden, die die komplexe Logik für die Punkteberechnung
+ * und die Ermittlung des Bestehensstatus im Abitur kapseln.
+ * Die Abiturberechnung folgt den bayerischen Regeln ({@link Regelwerk#BAYERN}); für andere Bundesländer
+ * dieselben Methoden direkt auf einem {@link Regelwerk} aufrufen.
+ */
+public class BerechnungUtil {
+
+    // Anzahl der möglichen Punktwerte einer Halbjahresleistung (0 bis 15 Punkte).
+    static final int ANZAHL_PUNKTWERTE = 16;
+
+    /**
+     * Eine innere statische Klasse, die die Ergebnisse der Abiturberechnung kapselt.
+     * Enthält alle relevanten Informationen nach einer Abitur-Gesamtberechnung.
+     */
+    public static class AbiErgebnis {
+        /**
+         * Gesamtpunktzahl aus den Halbjahresleistungen (maximal 600).
+         */
+        public int halbjahresPunkte;
+        /**
+         * Gesamtpunktzahl aus den 5 Abiturprüfungen (maximal 300).
+         */
+        public int pruefungsPunkte;
+        /**
+         * Die Summe aus Halbjahres- und Prüfungsleistungen (maximal 900).
+         */
+        public int gesamtPunkte;
+        /**
+         * Der berechnete Abiturschnitt als String (z.B. "1,0" oder "4,0").
+         */
+        public String abiSchnitt;
+        /**
+         * Boolean-Wert, der angibt, ob das Abitur bestanden wurde.
+         */
+        public boolean bestanden;
+        /**
+         * Eine Nachricht, die den Bestehensstatus detailliert beschreibt (z.B. "Herzlichen Glückwunsch!").
+         */
+        public String bestandenNachricht;
+        /**
+         * false, wenn die Pflicht-Regeln der Einbringung mehr als 40 Leistungen verlangen
+         * (nur bei {@link #berechneAbi(List, int[], List)}).
+         */
+        public boolean einbringungZulaessig = true;
+    }
+
+    /**
+     * Berechnet den Abischnitt basierend auf Halbjahresleistungen und Prüfungsnoten.
+     * Diese Methode berücksichtigt die Regeln für die Einbringung von Leistungen,
+     * die Berechnung der Gesamtpunktzahl und die Kriterien für das Bestehen,
+     * einschließlich der maximalen Anzahl von Unterpunktungen.
+     *
+     * @param faecher        Eine Liste aller Fächer-Objekte, die die Halbjahresleistungen enthalten.
+     * @param pruefungsNoten Ein Array der 5 Abiturprüfungsnoten (Punkte von 0-15).
+     * @return Ein {@link AbiErgebnis}-Objekt mit allen berechneten Punkten, dem Schnitt und dem Bestehensstatus.
+     */
+    public static AbiErgebnis berechneAbi(List<Fach> faecher, int[] pruefungsNoten) {
+        // Die Halbjahresleistungen werden in ein Histogramm über die Punktwerte (0-15) gezählt und von
+        // 15 Punkten abwärts eingebracht, siehe Regelwerk.
+        return Regelwerk.BAYERN.berechneAbi(faecher, pruefungsNoten);
+    }
+
+    /**
+     * Berechnet den Abischnitt wie {@link #berechneAbi(List, int[])}, bringt die Halbjahresleistungen aber
+     * unter Pflicht-Regeln ein (z.B. alle Leistungen der Abiturfächer, siehe {@link Einbringung}).
+     *
+     * @param faecher        Eine Liste aller Fächer-Objekte, die die Halbjahresleistungen enthalten.
+     * @param pruefungsNoten Ein Array der 5 Abiturprüfungsnoten (Punkte von 0-15).
+     * @param regeln         Die Pflicht-Regeln für die Einbringung; leer für die besten 40 ohne Einschränkung.
+     * @return Ein {@link AbiErgebnis}-Objekt mit allen berechneten Punkten, dem Schnitt und dem Bestehensstatus.
+     */
+    public static AbiErgebnis berechneAbi(List<Fach> faecher, int[] pruefungsNoten, List<EinbringungsRegel> regeln) {
+        return Regelwerk.BAYERN.berechneAbi(faecher, pruefungsNoten, regeln);
+    }
+
+    /**
+     * Berechnet die Punkte für die Halbjahresleistungen aus der Summe der besten bis zu 40 Leistungen.
+     * Falls weniger als 40 Leistungen vorhanden sind, wird der Durchschnitt der vorhandenen Leistungen
+     * auf 40 Leistungen hochgerechnet, um eine vergleichbare Basis zu schaffen.
+     *
+     * @param summe               Die Summe der eingebrachten Leistungen (Punkte von 0-15 je Leistung).
+     * @param anzahlDerLeistungen Die Anzahl der eingebrachten Leistungen (maximal 40).
+     * @return Die Gesamtpunktzahl für die Halbjahresleistungen (maximal 600 Punkte).
+     */
+    static int berechneHalbjahresPunkte(int summe, int anzahlDerLeistungen) {
+        return Regelwerk.BAYERN.halbjahresPunkte(summe, anzahlDerLeistungen);
+    }
+
+    /**
+     * Wandelt die Gesamtpunktzahl des Abiturs in eine Noten-String (z.B. "2,5") um.
+     * Der Wert wird aus der vorberechneten Tabelle von {@link Regelwerk#BAYERN} gelesen; es wird weder die
+     * Punktetabelle durchsucht noch ein neuer String erzeugt.
+     * Wenn die Gesamtpunktzahl unter 300 liegt (nicht bestanden), wird "6,0" zurückgegeben.
+     *
+     * @param gesamtPunkte Die erreichte Gesamtpunktzahl im Abitur.
+     * @return Der Abischnitt als String (z.B. "1,0" bis "4,0", "6,0" bei weniger als 300 Punkten).
+     */
+    public static String punkteZuNoteGesamt(int gesamtPunkte) {
+        return Regelwerk.BAYERN.punkteZuNoteGesamt(gesamtPunkte);
+    }
+
+    /**
+     * Wandelt die Gesamtpunktzahl des Abiturs in die Note in Zehnteln um (z.B. 25 für 2,5).
+     * Für Massen- und Was-wäre-wenn-Berechnungen, die mit der Note weiterrechnen statt sie anzuzeigen.
+     *
+     * @param gesamtPunkte Die erreichte Gesamtpunktzahl im Abitur.
+     * @return Die Note in Zehnteln (10 bis 40, 60 bei weniger als 300 Punkten)
+     * oder -1, wenn die Punktzahl über 900 liegt.
+     */
+    public static int punkteZuNoteZehntel(int gesamtPunkte) {
+        return Regelwerk.BAYERN.punkteZuNoteZehntel(gesamtPunkte);
+    }
+
+    /**
+     * Umkehrung von {@link #punkteZuNoteZehntel(int)}: Die kleinste Gesamtpunktzahl, mit der die angegebene
+     * Note oder eine bessere erreicht wird (z.B. 643 für 2,0).
+     *
+     * @param zielZehntel Die Note in Zehnteln (10 für 1,0 bis 60 für 6,0).
+     * @return Die mindestens benötigte Gesamtpunktzahl (0 für 6,0).
+     * @throws IllegalArgumentException wenn die Note außerhalb von 1,0 bis 6,0 liegt.
+     */
+    public static int mindestGesamtPunkte(int zielZehntel) {
+        return Regelwerk.BAYERN.mindestGesamtPunkte(zielZehntel);
+    }
+
+    /**
+     * Wandelt eine einzelne Punktzahl (0-15 Punkte) in einen Notenwert (1.0-6.0) um.
+     * Diese Umrechnung wird oft für einzelne Leistungsnachweise oder Prüfungen verwendet.
+     * Die Formel ist in der Regel Note = 6 - (Punkte / 3).
+     *
+     * @param punkte Die Punktzahl (0-15), die umgerechnet werden soll.
+     * @return Die umgerechnete Note als double. Die Werte sind auf 1.0 (beste) und 6.0 (schlechteste) begrenzt.
+     */
+    public static double punkteZuNoteEinzelwert(double punkte) {
+        double note = 6.0 - (punkte / 3.0);
+        // Stellt sicher, dass die Note im gültigen Bereich von 1.0 bis 6.0 liegt.
+        return Math.max(1.0, Math.min(6.0, note));
+    }
+
+    /**
+     * Eine innere statische Klasse, die die Ergebnisse der Halbjahresdurchschnittsberechnung kapselt.
+     */
+    public static class HalbjahrErgebnis {
+        /**
+         * Das Halbjahr, für das der Durchschnitt berechnet wurde.
+         */
+        public int halbjahr;
+        /**
+         * Der berechnete Durchschnitt der Punkte für das spezifische Halbjahr.
+         */
+        public double durchschnitt;
+        /**
+         * Die Anzahl der Fächer, die in die Berechnung dieses Halbjahresdurchschnitts eingeflossen sind.
+         */
+        public int anzahlFaecher;
+    }
+
+    /**
+     * Berechnet den Punktdurchschnitt für ein bestimmtes Halbjahr.
+     * Es werden alle Fächer berücksichtigt, die dem angegebenen Halbjahr zugeordnet sind.
+     *
+     * @param alleFaecher Eine Liste aller Fächer, aus denen der Halbjahresdurchschnitt berechnet werden soll.
+     * @param halbjahr    Die Nummer des Halbjahres (z.B. 1, 2, 3, 4), für das der Durchschnitt berechnet werden soll.
+     * @return Ein {@link HalbjahrErgebnis}-Objekt mit dem Durchschnitt, dem Halbjahr und der Anzahl der Fächer.
+     */
+    public static HalbjahrErgebnis berechneHalbjahrSchnitt(List<Fach> alleFaecher, int halbjahr) {
+        HalbjahrErgebnis ergebnis = new HalbjahrErgebnis();
+        ergebnis.halbjahr = halbjahr;
+        ergebnis.anzahlFaecher = 0;
+        double summe = 0;
+
+        // Durchläuft alle Fächer und summiert die Punkte der Fächer, die zum gesuchten Halbjahr gehören.
+        for (Fach fach : alleFaecher) {
+            if (fach.getHalbjahr() == halbjahr) {
+                summe += fach.getDurchschnittsPunkte();
+                ergebnis.anzahlFaecher++;
+            }
+        }
+
+        // Berechnet den Durchschnitt, wenn Fächer vorhanden sind, ansonsten ist der Durchschnitt 0.
+        ergebnis.durchschnitt = (ergebnis.anzahlFaecher > 0) ? summe / ergebnis.anzahlFaecher : 0;
+        return ergebnis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,413 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wählt die einzubringenden Halbjahresleistungen unter Pflicht-Regeln ({@link EinbringungsRegel}) so aus,
+ * dass die Punktsumme maximal ist.
+ * <p>
+ * Die Fächer werden nach ihrer Regelzugehörigkeit gruppiert: Gruppe = Bitmaske aller zutreffenden Regeln
+ * (siehe {@link #gruppe}). Eine Leistung, auf die mehrere Regeln zutreffen, zählt für jede davon.
+ * <p>
+ * Liegen alle Leistungen in Gruppen mit höchstens einer Regel (der übliche Fall), ist folgendes Vorgehen optimal:
+ * aus jeder Gruppe die besten Pflichtleistungen nehmen und die übrigen Plätze mit den besten restlichen Leistungen
+ * (aus allen Gruppen) auffüllen. Jede andere zulässige Auswahl lässt sich durch Tauschen einer schlechteren gegen
+ * eine bessere Leistung derselben Gruppe bzw. des Rests in diese überführen, ohne die Summe zu verringern.
+ * Dieselbe Auswahl hat auch die wenigsten Unterpunktungen.
+ * <p>
+ * Überlappen sich Regeln, reicht das nicht mehr (eine Leistung aus der Schnittmenge kann zwei Regeln zugleich
+ * erfüllen). Innerhalb einer Gruppe sind aber weiterhin die besten Leistungen zu nehmen; offen ist nur, wie viele
+ * je Gruppe. Das löst eine dynamische Programmierung über die Gruppen mit dem Zustand (offene Pflichtleistungen
+ * je Regel, bisher gewählte Leistungen), siehe {@link #auswaehlenUeberlappend}.
+ * <p>
+ * Wie in {@link BerechnungUtil#berechneAbi} wird nicht sortiert, sondern über Histogramme der Punktwerte (0-15)
+ * je Gruppe gezählt: O(Anzahl Fächer + 16 × Anzahl Gruppen) ohne Überlappung.
+ */
+public final class Einbringung {
+
+    private static final int ANZAHL_PUNKTWERTE = BerechnungUtil.ANZAHL_PUNKTWERTE;
+
+    /**
+     * Höchstzahl der Regeln: Je Kombination der Regelzugehörigkeit gibt es eine Gruppe, also 2^Anzahl Regeln.
+     */
+    static final int MAX_REGELN = 8;
+    // Obergrenze für die Zustände der Auswahl bei überlappenden Regeln (Speicher je Gruppe: ein int je Zustand).
+    static final int MAX_ZUSTAENDE = 1 << 18;
+
+    private Einbringung() {
+        // Keine Instanzen
+    }
+
+    /**
+     * Das Ergebnis einer Auswahl.
+     */
+    public static class Auswahl {
+        /**
+         * Anzahl der eingebrachten Leistungen je Punktwert (Index 0-15).
+         */
+        public final int[] histogramm = new int[ANZAHL_PUNKTWERTE];
+        /**
+         * Wie viele Leistungen eingebracht wurden.
+         */
+        public int anzahl;
+        /**
+         * Die Summe der eingebrachten Punkte.
+         */
+        public int summe;
+        /**
+         * Eingebrachte Leistungen, die unterpunktet sind (höchstens {@link Regelwerk#getUnterpunktungsGrenze()} Punkte).
+         */
+        public int unterpunktungen;
+        /**
+         * false, wenn die Pflicht-Regeln zusammen mehr Leistungen verlangen, als eingebracht werden dürfen.
+         * Dann sind die besten Pflichtleistungen eingebracht und die übrigen fehlen.
+         */
+        public boolean zulaessig = true;
+        /**
+         * Je Fach (Index wie in der übergebenen Liste), ob es eingebracht wird.
+         * Nur von {@link #waehle} gefüllt, sonst null.
+         */
+        public boolean[] eingebracht;
+    }
+
+    /**
+     * Wählt die Leistungen aus und markiert zusätzlich je Fach, ob es eingebracht wird.
+     * Unterpunktungen werden nach {@link Regelwerk#BAYERN} gezählt.
+     *
+     * @param faecher Alle Fächer (eine Halbjahresleistung je Fach).
+     * @param regeln  Die Pflicht-Regeln (höchstens {@link #MAX_REGELN}, dürfen sich überschneiden).
+     * @param anzahl  Wie viele Leistungen eingebracht werden (z.B. 40).
+     * @return Die {@link Auswahl} inklusive {@link Auswahl#eingebracht}.
+     */
+    public static Auswahl waehle(List<Fach> faecher, List<EinbringungsRegel> regeln, int anzahl) {
+        return berechne(faecher, regeln, anzahl, Regelwerk.BAYERN.getUnterpunktungsGrenze(), true);
+    }
+
+    /**
+     * Wie {@link #waehle(List, List, int)} mit Anzahl und Unterpunktungsgrenze aus einem {@link Regelwerk}.
+     */
+    public static Auswahl waehle(List<Fach> faecher, List<EinbringungsRegel> regeln, Regelwerk regelwerk) {
+        return berechne(faecher, regeln, regelwerk.getAnzahlLeistungen(), regelwerk.getUnterpunktungsGrenze(), true);
+    }
+
+    /**
+     * Wie {@link #waehle(List, List, int)}, aber ohne die Markierung je Fach (nur Histogramm und Summen).
+     */
+    public static Auswahl histogramm(List<Fach> faecher, List<EinbringungsRegel> regeln, int anzahl) {
+        return berechne(faecher, regeln, anzahl, Regelwerk.BAYERN.getUnterpunktungsGrenze(), false);
+    }
+
+    /**
+     * Wie {@link #histogramm(List, List, int)} mit Anzahl und Unterpunktungsgrenze aus einem {@link Regelwerk}.
+     */
+    public static Auswahl histogramm(List<Fach> faecher, List<EinbringungsRegel> regeln, Regelwerk regelwerk) {
+        return berechne(faecher, regeln, regelwerk.getAnzahlLeistungen(), regelwerk.getUnterpunktungsGrenze(), false);
+    }
+
+    private static Auswahl berechne(List<Fach> faecher, List<EinbringungsRegel> regeln, int anzahl,
+                                    int unterpunktungsGrenze, boolean markieren) {
+        int n = faecher.size();
+        int anzahlGruppen = anzahlGruppen(regeln);
+
+        // 1. Punkte und Gruppe je Fach bestimmen und je Gruppe ein Histogramm zählen.
+        int[] punkte = new int[n];
+        int[] gruppe = new int[n];
+        int[][] histogramme = new int[anzahlGruppen][ANZAHL_PUNKTWERTE];
+        for (int i = 0; i < n; i++) {
+            Fach fach = faecher.get(i);
+            punkte[i] = fach.getDurchschnittsPunkte();
+            gruppe[i] = gruppe(fach, regeln);
+            histogramme[gruppe[i]][punkte[i]]++;
+        }
+
+        // 2. und 3. Plätze auf Punktwerte verteilen.
+        int[][] pflicht = new int[anzahlGruppen][ANZAHL_PUNKTWERTE];
+        int[] rest = new int[ANZAHL_PUNKTWERTE];
+        Auswahl auswahl = new Auswahl();
+        auswaehlen(histogramme, regeln, Math.min(anzahl, n), unterpunktungsGrenze, pflicht, rest, auswahl);
+
+        // 4. Optional: die Plätze den einzelnen Fächern zuordnen. Pflichtplätze gehen an Fächer ihrer Gruppe,
+        // aufgefüllte Plätze an beliebige übrige Fächer mit diesem Punktwert.
+        if (markieren) {
+            boolean[] eingebracht = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                int p = punkte[i];
+                int[] pflichtDerGruppe = pflicht[gruppe[i]];
+                if (pflichtDerGruppe[p] > 0) {
+                    pflichtDerGruppe[p]--;
+                    eingebracht[i] = true;
+                } else if (rest[p] > 0) {
+                    rest[p]--;
+                    eingebracht[i] = true;
+                }
+            }
+            auswahl.eingebracht = eingebracht;
+        }
+        return auswahl;
+    }
+
+    /**
+     * @return Die Anzahl der Gruppen für diese Regeln (2^Anzahl Regeln), Größe der Histogramme für {@link #auswaehlen}.
+     * @throws IllegalArgumentException Wenn es mehr als {@link #MAX_REGELN} Regeln sind.
+     */
+    static int anzahlGruppen(List<EinbringungsRegel> regeln) {
+        if (regeln.size() > MAX_REGELN) {
+            throw new IllegalArgumentException("Höchstens " + MAX_REGELN + " Einbringungs-Regeln, nicht " + regeln.size());
+        }
+        return 1 << regeln.size();
+    }
+
+    /**
+     * Die Gruppe eines Fachs: Bit r ist gesetzt, wenn Regel r zutrifft. 0 für Fächer ohne Regel.
+     */
+    static int gruppe(Fach fach, List<EinbringungsRegel> regeln) {
+        int gruppe = 0;
+        for (int r = 0; r < regeln.size(); r++) {
+            if (regeln.get(r).bedingung.test(fach)) {
+                gruppe |= 1 << r;
+            }
+        }
+        return gruppe;
+    }
+
+    /**
+     * Verteilt die Plätze allein anhand der Histogramme je Gruppe. Wird auch vom {@link AbiRechner} verwendet,
+     * der die Histogramme schrittweise pflegt; alle Ausgabe-Arrays werden überschrieben und können wiederverwendet werden.
+     * Ohne Überlappung der Regeln wird dabei nichts allokiert.
+     *
+     * @param histogramme Je Gruppe (siehe {@link #gruppe}) die Anzahl der Leistungen je Punktwert,
+     *                    {@link #anzahlGruppen} Einträge.
+     * @param regeln      Die Regeln, in derselben Reihenfolge wie bei der Gruppenbildung.
+     * @param anzahl      Wie viele Leistungen eingebracht werden (höchstens so viele, wie es gibt).
+     * @param unterpunktungsGrenze Leistungen mit höchstens so vielen Punkten zählen als Unterpunktung.
+     * @param pflicht     Ausgabe: je Gruppe und Punktwert die Pflichtplätze (bei überlappenden Regeln alle Plätze).
+     * @param rest        Ausgabe: je Punktwert die aufgefüllten Plätze.
+     * @param auswahl     Ausgabe: Histogramm, Summe, Unterpunktungen und Zulässigkeit.
+     * @throws IllegalArgumentException Wenn überlappende Regeln zu viele Zustände ergäben ({@link #MAX_ZUSTAENDE}).
+     */
+    static void auswaehlen(int[][] histogramme, List<EinbringungsRegel> regeln, int anzahl, int unterpunktungsGrenze,
+                           int[][] pflicht, int[] rest, Auswahl auswahl) {
+        int anzahlRegeln = regeln.size();
+        int anzahlGruppen = histogramme.length;
+
+        // Gibt es Leistungen, auf die mehr als eine Regel zutrifft, ist das einfache Vorgehen nicht mehr optimal.
+        for (int g = 3; g < anzahlGruppen; g++) {
+            if (Integer.bitCount(g) > 1 && anzahl(histogramme[g]) > 0) {
+                auswaehlenUeberlappend(histogramme, regeln, anzahl, unterpunktungsGrenze, pflicht, rest, auswahl);
+                return;
+            }
+        }
+
+        // Je Regel die besten Pflichtleistungen nehmen. Gruppe 0 (ohne Regel) hat keine Pflichtplätze.
+        int pflichtGesamt = 0;
+        for (int[] pflichtDerGruppe : pflicht) {
+            Arrays.fill(pflichtDerGruppe, 0);
+        }
+        for (int r = 0; r < anzahlRegeln; r++) {
+            int g = 1 << r;
+            int offen = regeln.get(r).mindestens;
+            for (int p = ANZAHL_PUNKTWERTE - 1; p >= 0; p--) {
+                int genommen = Math.min(histogramme[g][p], offen);
+                pflicht[g][p] = genommen;
+                offen -= genommen;
+                pflichtGesamt += genommen;
+            }
+        }
+
+        // Verlangen die Regeln mehr, als Plätze da sind, fallen die schwächsten Pflichtleistungen heraus.
+        auswahl.zulaessig = pflichtGesamt <= anzahl;
+        if (!auswahl.zulaessig) {
+            int zuViel = pflichtGesamt - anzahl;
+            for (int p = 0; p < ANZAHL_PUNKTWERTE && zuViel > 0; p++) {
+                for (int r = anzahlRegeln - 1; r >= 0 && zuViel > 0; r--) {
+                    int weg = Math.min(pflicht[1 << r][p], zuViel);
+                    pflicht[1 << r][p] -= weg;
+                    zuViel -= weg;
+                }
+            }
+            pflichtGesamt = anzahl;
+        }
+
+        // Restliche Plätze mit den besten übrigen Leistungen aller Gruppen auffüllen.
+        int offen = anzahl - pflichtGesamt;
+        auswahl.summe = 0;
+        auswahl.unterpunktungen = 0;
+        for (int p = ANZAHL_PUNKTWERTE - 1; p >= 0; p--) {
+            int pflichtBeiP = 0;
+            int vorhanden = 0;
+            for (int g = 0; g < anzahlGruppen; g++) {
+                pflichtBeiP += pflicht[g][p];
+                vorhanden += histogramme[g][p];
+            }
+            int genommen = Math.min(vorhanden - pflichtBeiP, offen);
+            rest[p] = genommen;
+            offen -= genommen;
+            auswahl.histogramm[p] = pflichtBeiP + genommen;
+            auswahl.summe += auswahl.histogramm[p] * p;
+            if (p <= unterpunktungsGrenze) {
+                auswahl.unterpunktungen += auswahl.histogramm[p];
+            }
+        }
+        auswahl.anzahl = anzahl;
+    }
+
+    /**
+     * Auswahl bei überlappenden Regeln. Aus jeder Gruppe werden die besten k Leistungen genommen; gesucht ist k je
+     * Gruppe. Die Gruppen mit mindestens einer Regel werden nacheinander durchlaufen, der Zustand ist
+     * (offene Pflichtleistungen je Regel, bisher gewählte Leistungen) und je Zustand wird der beste Wert gehalten.
+     * Gruppe 0 füllt am Ende die übrigen Plätze mit ihren besten Leistungen auf.
+     * <p>
+     * Gewählt wird der Endzustand mit den wenigsten offenen Pflichtleistungen (0, wenn die Regeln erfüllbar sind),
+     * dann mit der höchsten Summe, dann mit den wenigsten Unterpunktungen. Kosten:
+     * O(Gruppen × Zustände × Anzahl) mit Zustände = (Anzahl + 1) × Produkt der (Pflichtleistungen + 1) je Regel.
+     * Alle Plätze werden in {@code pflicht} eingetragen, {@code rest} ist danach 0.
+     */
+    private static void auswaehlenUeberlappend(int[][] histogramme, List<EinbringungsRegel> regeln, int anzahl,
+                                               int unterpunktungsGrenze, int[][] pflicht, int[] rest, Auswahl auswahl) {
+        int anzahlRegeln = regeln.size();
+        int anzahlGruppen = histogramme.length;
+        int[] groesse = new int[anzahlGruppen];
+        for (int g = 0; g < anzahlGruppen; g++) {
+            groesse[g] = anzahl(histogramme[g]);
+        }
+
+        // Zustandsnummer = gewählt + (anzahl + 1) × (offen[0] + (bedarf[0] + 1) × (offen[1] + ...)).
+        int[] bedarf = new int[anzahlRegeln];
+        int[] stelle = new int[anzahlRegeln];
+        long zustaende = anzahl + 1;
+        int start = 0;
+        for (int r = 0; r < anzahlRegeln; r++) {
+            int vorhanden = 0;
+            for (int g = 0; g < anzahlGruppen; g++) {
+                if ((g & 1 << r) != 0) {
+                    vorhanden += groesse[g];
+                }
+            }
+            bedarf[r] = Math.min(regeln.get(r).mindestens, vorhanden);
+            stelle[r] = (int) zustaende;
+            start += bedarf[r] * stelle[r];
+            zustaende *= bedarf[r] + 1;
+            if (zustaende > MAX_ZUSTAENDE) {
+                throw new IllegalArgumentException("Zu viele überlappende Pflicht-Regeln für die Einbringung");
+            }
+        }
+
+        // Wert der besten k Leistungen je Gruppe: Summe × (anzahl + 1) − Unterpunktungen, damit bei gleicher
+        // Summe die Auswahl mit weniger Unterpunktungen gewinnt.
+        int[][] praefix = new int[anzahlGruppen][];
+        for (int g = 0; g < anzahlGruppen; g++) {
+            praefix[g] = new int[groesse[g] + 1];
+            int k = 0;
+            for (int p = ANZAHL_PUNKTWERTE - 1; p >= 0; p--) {
+                int wert = p * (anzahl + 1) - (p <= unterpunktungsGrenze ? 1 : 0);
+                for (int j = 0; j < histogramme[g][p]; j++, k++) {
+                    praefix[g][k + 1] = praefix[g][k] + wert;
+                }
+            }
+        }
+
+        int[] wert = new int[(int) zustaende];
+        Arrays.fill(wert, Integer.MIN_VALUE); // nicht erreichbar
+        wert[start] = 0;
+        int[][] vorgaenger = new int[anzahlGruppen][]; // je Gruppe und Zustand der Zustand davor
+        for (int g = 1; g < anzahlGruppen; g++) {
+            if (groesse[g] == 0) {
+                continue;
+            }
+            int[] neu = new int[wert.length];
+            Arrays.fill(neu, Integer.MIN_VALUE);
+            vorgaenger[g] = new int[wert.length];
+            for (int s = 0; s < wert.length; s++) {
+                if (wert[s] == Integer.MIN_VALUE) {
+                    continue;
+                }
+                int hoechstens = Math.min(groesse[g], anzahl - s % (anzahl + 1));
+                for (int k = 0; k <= hoechstens; k++) {
+                    int t = s + k;
+                    for (int r = 0; r < anzahlRegeln; r++) {
+                        if ((g & 1 << r) != 0) {
+                            int offen = s / stelle[r] % (bedarf[r] + 1);
+                            t -= Math.min(offen, k) * stelle[r];
+                        }
+                    }
+                    int w = wert[s] + praefix[g][k];
+                    if (w > neu[t]) {
+                        neu[t] = w;
+                        vorgaenger[g][t] = s;
+                    }
+                }
+            }
+            wert = neu;
+        }
+
+        // Endzustand wählen; Gruppe 0 füllt die übrigen Plätze auf.
+        int bester = -1;
+        int besterOffen = Integer.MAX_VALUE;
+        int besterWert = Integer.MIN_VALUE;
+        for (int s = 0; s < wert.length; s++) {
+            int auffuellen = anzahl - s % (anzahl + 1);
+            if (wert[s] == Integer.MIN_VALUE || auffuellen > groesse[0]) {
+                continue;
+            }
+            int offen = 0;
+            for (int r = 0; r < anzahlRegeln; r++) {
+                offen += s / stelle[r] % (bedarf[r] + 1);
+            }
+            int w = wert[s] + praefix[0][auffuellen];
+            if (offen < besterOffen || offen == besterOffen && w > besterWert) {
+                bester = s;
+                besterOffen = offen;
+                besterWert = w;
+            }
+        }
+
+        // Rückwärts die Anzahl je Gruppe bestimmen und die besten Leistungen der Gruppe eintragen.
+        Arrays.fill(rest, 0);
+        besteNehmen(histogramme[0], anzahl - bester % (anzahl + 1), pflicht[0]);
+        int s = bester;
+        for (int g = anzahlGruppen - 1; g >= 1; g--) {
+            if (vorgaenger[g] == null) {
+                Arrays.fill(pflicht[g], 0);
+                continue;
+            }
+            int davor = vorgaenger[g][s];
+            besteNehmen(histogramme[g], s % (anzahl + 1) - davor % (anzahl + 1), pflicht[g]);
+            s = davor;
+        }
+
+        auswahl.zulaessig = besterOffen == 0;
+        auswahl.summe = 0;
+        auswahl.unterpunktungen = 0;
+        for (int p = 0; p < ANZAHL_PUNKTWERTE; p++) {
+            int genommen = 0;
+            for (int g = 0; g < anzahlGruppen; g++) {
+                genommen += pflicht[g][p];
+            }
+            auswahl.histogramm[p] = genommen;
+            auswahl.summe += genommen * p;
+            if (p <= unterpunktungsGrenze) {
+                auswahl.unterpunktungen += genommen;
+            }
+        }
+        auswahl.anzahl = anzahl;
+    }
+
+    // Trägt die besten k Leistungen des Histogramms je Punktwert in plaetze ein.
+    private static void besteNehmen(int[] histogramm, int k, int[] plaetze) {
+        for (int p = ANZAHL_PUNKTWERTE - 1; p >= 0; p--) {
+            plaetze[p] = Math.min(histogramm[p], k);
+            k -= plaetze[p];
+        }
+    }
+
+    private static int anzahl(int[] histogramm) {
+        int anzahl = 0;
+        for (int n : histogramm) {
+            anzahl += n;
+        }
+        return anzahl;
+    }
+}
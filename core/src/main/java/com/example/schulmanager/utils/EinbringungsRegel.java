@@ -0,0 +1,63 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.function.Predicate;
+
+/**
+ * Eine Pflicht-Regel für die Einbringung: Von den Halbjahresleistungen, auf die die Bedingung zutrifft,
+ * müssen mindestens {@link #mindestens} eingebracht werden.
+ * Regeln dürfen sich überschneiden: Trifft auf ein Fach mehr als eine Regel zu, zählt seine Leistung für jede davon
+ * (siehe {@link Einbringung}).
+ */
+public final class EinbringungsRegel {
+
+    /**
+     * Alle Halbjahresleistungen, auf die die Bedingung zutrifft, sind Pflicht.
+     */
+    public static final int ALLE = Integer.MAX_VALUE;
+
+    /**
+     * Name der Regel für Anzeigen und Fehlermeldungen (z.B. "Abiturfächer").
+     */
+    public final String bezeichnung;
+    /**
+     * Wählt die Halbjahresleistungen (Fächer eines Halbjahres) aus, für die die Regel gilt.
+     */
+    public final Predicate<Fach> bedingung;
+    /**
+     * Wie viele der ausgewählten Leistungen mindestens eingebracht werden müssen, oder {@link #ALLE}.
+     */
+    public final int mindestens;
+
+    /**
+     * @param bezeichnung Name der Regel.
+     * @param bedingung   Für welche Fächer die Regel gilt.
+     * @param mindestens  Wie viele davon mindestens eingebracht werden müssen, oder {@link #ALLE}.
+     */
+    public EinbringungsRegel(String bezeichnung, Predicate<Fach> bedingung, int mindestens) {
+        if (mindestens < 0) {
+            throw new IllegalArgumentException("Ungültige Mindestanzahl: " + mindestens);
+        }
+        this.bezeichnung = bezeichnung;
+        this.bedingung = bedingung;
+        this.mindestens = mindestens;
+    }
+
+    /**
+     * Alle Halbjahresleistungen der Abiturfächer müssen eingebracht werden.
+     */
+    public static EinbringungsRegel abiturfaecher() {
+        return new EinbringungsRegel("Abiturfächer", Fach::isAbiturfach, ALLE);
+    }
+
+    /**
+     * Aus einem Fach (über alle Halbjahre, erkannt am Namen) müssen mindestens so viele Leistungen eingebracht werden.
+     *
+     * @param fachName   Der Name des Fachs, ohne Beachtung der Groß-/Kleinschreibung.
+     * @param mindestens Wie viele Halbjahresleistungen mindestens eingebracht werden müssen.
+     */
+    public static EinbringungsRegel fach(String fachName, int mindestens) {
+        return new EinbringungsRegel(fachName, fach -> fachName.equalsIgnoreCase(fach.getName()), mindestens);
+    }
+}
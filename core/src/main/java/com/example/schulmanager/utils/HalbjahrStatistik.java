@@ -0,0 +1,177 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statistik aller vier Halbjahre aus einem einzigen Durchlauf über die Fächer.
+ * Statt für jedes Halbjahr {@link BerechnungUtil#berechneHalbjahrSchnitt(List, int)} aufzurufen (ein Durchlauf je
+ * Halbjahr), wird jedes Fach genau einmal gelesen und in primitive Zähler seines Halbjahres einsortiert:
+ * Anzahl, Punktsumme, Unterpunktungen, Minimum und Maximum; Anzahl, Punktsumme und Unterpunktungen zusätzlich
+ * nur für die Abiturfächer.
+ * Fächer mit einem Halbjahr außerhalb von 1-4 werden ignoriert.
+ */
+public final class HalbjahrStatistik {
+
+    public static final int ANZAHL_HALBJAHRE = 4;
+
+    // Index = Halbjahr - 1. Punkte sind die gerundeten Durchschnittspunkte der Fächer (0-15).
+    private final int[] anzahl = new int[ANZAHL_HALBJAHRE];
+    private final int[] summe = new int[ANZAHL_HALBJAHRE];
+    private final int[] unterpunktungen = new int[ANZAHL_HALBJAHRE];
+    private final int[] minimum = new int[ANZAHL_HALBJAHRE];
+    private final int[] maximum = new int[ANZAHL_HALBJAHRE];
+    private final int[] anzahlAbitur = new int[ANZAHL_HALBJAHRE];
+    private final int[] summeAbitur = new int[ANZAHL_HALBJAHRE];
+    private final int[] unterpunktungenAbitur = new int[ANZAHL_HALBJAHRE];
+
+    private HalbjahrStatistik() {
+        Arrays.fill(minimum, Integer.MAX_VALUE);
+        Arrays.fill(maximum, -1);
+    }
+
+    /**
+     * Berechnet die Statistik aller Halbjahre in einem Durchlauf mit der Unterpunktungsgrenze von {@link Regelwerk#BAYERN}.
+     *
+     * @param faecher Alle Fächer.
+     * @return Die Statistik je Halbjahr.
+     */
+    public static HalbjahrStatistik berechne(List<Fach> faecher) {
+        return berechne(faecher, Regelwerk.BAYERN);
+    }
+
+    /**
+     * Berechnet die Statistik aller Halbjahre in einem Durchlauf.
+     *
+     * @param faecher   Alle Fächer.
+     * @param regelwerk Liefert die Grenze, ab der ein Fach als unterpunktet zählt.
+     * @return Die Statistik je Halbjahr.
+     */
+    public static HalbjahrStatistik berechne(List<Fach> faecher, Regelwerk regelwerk) {
+        int grenze = regelwerk.getUnterpunktungsGrenze();
+        HalbjahrStatistik statistik = new HalbjahrStatistik();
+        for (int i = 0, n = faecher.size(); i < n; i++) {
+            Fach fach = faecher.get(i);
+            int h = fach.getHalbjahr() - 1;
+            if (h < 0 || h >= ANZAHL_HALBJAHRE) {
+                continue;
+            }
+            int punkte = fach.getDurchschnittsPunkte();
+            boolean unterpunktet = punkte <= grenze;
+            statistik.anzahl[h]++;
+            statistik.summe[h] += punkte;
+            if (unterpunktet) statistik.unterpunktungen[h]++;
+            if (punkte < statistik.minimum[h]) statistik.minimum[h] = punkte;
+            if (punkte > statistik.maximum[h]) statistik.maximum[h] = punkte;
+            if (fach.isAbiturfach()) {
+                statistik.anzahlAbitur[h]++;
+                statistik.summeAbitur[h] += punkte;
+                if (unterpunktet) statistik.unterpunktungenAbitur[h]++;
+            }
+        }
+        return statistik;
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Die Anzahl der Fächer in diesem Halbjahr.
+     */
+    public int getAnzahl(int halbjahr) {
+        return anzahl[halbjahr - 1];
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Der Durchschnitt der gerundeten Fachpunkte, 0 ohne Fächer (wie {@link BerechnungUtil#berechneHalbjahrSchnitt}).
+     */
+    public double getDurchschnitt(int halbjahr) {
+        int h = halbjahr - 1;
+        return anzahl[h] > 0 ? (double) summe[h] / anzahl[h] : 0;
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Wie viele Fächer unterpunktet sind (höchstens {@link Regelwerk#getUnterpunktungsGrenze()} Punkte).
+     */
+    public int getUnterpunktungen(int halbjahr) {
+        return unterpunktungen[halbjahr - 1];
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Die niedrigsten Fachpunkte oder -1, wenn das Halbjahr keine Fächer hat.
+     */
+    public int getMinimum(int halbjahr) {
+        int h = halbjahr - 1;
+        return anzahl[h] > 0 ? minimum[h] : -1;
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Die höchsten Fachpunkte oder -1, wenn das Halbjahr keine Fächer hat.
+     */
+    public int getMaximum(int halbjahr) {
+        int h = halbjahr - 1;
+        return anzahl[h] > 0 ? maximum[h] : -1;
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Die Anzahl der Abiturfächer in diesem Halbjahr.
+     */
+    public int getAnzahlAbiturfaecher(int halbjahr) {
+        return anzahlAbitur[halbjahr - 1];
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Der Durchschnitt nur der Abiturfächer, 0 ohne Abiturfächer.
+     */
+    public double getDurchschnittAbiturfaecher(int halbjahr) {
+        int h = halbjahr - 1;
+        return anzahlAbitur[h] > 0 ? (double) summeAbitur[h] / anzahlAbitur[h] : 0;
+    }
+
+    /**
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Wie viele Abiturfächer unterpunktet sind.
+     */
+    public int getUnterpunktungenAbiturfaecher(int halbjahr) {
+        return unterpunktungenAbitur[halbjahr - 1];
+    }
+
+    /**
+     * @return Die Anzahl der Fächer über alle Halbjahre.
+     */
+    public int getAnzahlGesamt() {
+        int gesamt = 0;
+        for (int a : anzahl) gesamt += a;
+        return gesamt;
+    }
+
+    /**
+     * @return Der Durchschnitt der gerundeten Fachpunkte über alle Halbjahre, 0 ohne Fächer.
+     */
+    public double getDurchschnittGesamt() {
+        int gesamtAnzahl = getAnzahlGesamt();
+        int gesamtSumme = 0;
+        for (int s : summe) gesamtSumme += s;
+        return gesamtAnzahl > 0 ? (double) gesamtSumme / gesamtAnzahl : 0;
+    }
+
+    /**
+     * Das Ergebnis für ein Halbjahr in der Form von {@link BerechnungUtil#berechneHalbjahrSchnitt}.
+     *
+     * @param halbjahr Das Halbjahr (1-4).
+     * @return Ein neues {@link BerechnungUtil.HalbjahrErgebnis}.
+     */
+    public BerechnungUtil.HalbjahrErgebnis getErgebnis(int halbjahr) {
+        BerechnungUtil.HalbjahrErgebnis ergebnis = new BerechnungUtil.HalbjahrErgebnis();
+        ergebnis.halbjahr = halbjahr;
+        ergebnis.anzahlFaecher = getAnzahl(halbjahr);
+        ergebnis.durchschnitt = getDurchschnitt(halbjahr);
+        return ergebnis;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Berechnet das Abitur für einen ganzen Jahrgang auf einmal.
+ * Die Schüler werden per Fork/Join auf alle Prozessorkerne verteilt; jeder Teilauftrag bearbeitet einen
+ * zusammenhängenden Bereich und verwendet dabei ein einziges Histogramm für alle seine Schüler.
+ * Die Ergebnisse stehen in einem {@link Ergebnis} aus primitiven Arrays (ein Eintrag je Schüler)
+ * statt in einem {@link BerechnungUtil.AbiErgebnis}-Objekt mit Texten pro Schüler.
+ * Die Regeln sind dieselben wie in {@link BerechnungUtil#berechneAbi(List, int[])}, auf Wunsch die eines
+ * anderen {@link Regelwerk}s.
+ */
+public final class JahrgangsBerechnung {
+
+    // Bis zu dieser Anzahl Schüler wird ein Bereich nicht weiter aufgeteilt.
+    private static final int SCHUELER_PRO_AUFGABE = 256;
+
+    private JahrgangsBerechnung() {
+        // Keine Instanzen
+    }
+
+    /**
+     * Ergebnisse eines Jahrgangs, Index = Position des Schülers in der Eingabe.
+     */
+    public static final class Ergebnis {
+        public final int[] halbjahresPunkte;
+        public final int[] pruefungsPunkte;
+        public final int[] gesamtPunkte;
+        public final int[] schnittZehntel;   // Abischnitt in Zehnteln, z.B. 25 für 2,5 (60 = nicht bestanden)
+        public final byte[] unterpunktungen; // Unterpunktungen unter den eingebrachten Leistungen (höchstens 40)
+        public final boolean[] bestanden;
+        private final Regelwerk regelwerk;
+
+        Ergebnis(int anzahl, Regelwerk regelwerk) {
+            this.regelwerk = regelwerk;
+            halbjahresPunkte = new int[anzahl];
+            pruefungsPunkte = new int[anzahl];
+            gesamtPunkte = new int[anzahl];
+            schnittZehntel = new int[anzahl];
+            unterpunktungen = new byte[anzahl];
+            bestanden = new boolean[anzahl];
+        }
+
+        public int getAnzahl() {
+            return bestanden.length;
+        }
+
+        /**
+         * @param schueler Index des Schülers.
+         * @return Der Abischnitt als Text (z.B. "2,5"), ohne neue Strings zu erzeugen.
+         */
+        public String getAbiSchnitt(int schueler) {
+            return regelwerk.punkteZuNoteGesamt(gesamtPunkte[schueler]);
+        }
+    }
+
+    /**
+     * Berechnet das Abitur aller Schüler im gemeinsamen {@link ForkJoinPool#commonPool()}.
+     *
+     * @param faecherProSchueler Die Fächer jedes Schülers. Ein Fach-Objekt darf nur einem Schüler gehören,
+     *                           da es beim ersten Lesen des Durchschnitts seine Summen aufbaut.
+     * @param pruefungsNoten     Die Prüfungsnoten jedes Schülers (Punkte von 0-15), gleiche Reihenfolge.
+     * @return Die Ergebnisse aller Schüler.
+     * @throws IllegalArgumentException Wenn beide Eingaben unterschiedlich viele Schüler enthalten.
+     */
+    public static Ergebnis berechne(List<? extends List<Fach>> faecherProSchueler, int[][] pruefungsNoten) {
+        return berechne(faecherProSchueler, pruefungsNoten, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Wie {@link #berechne(List, int[][])}, aber in einem eigenen Pool (z.B. mit begrenzter Parallelität).
+     */
+    public static Ergebnis berechne(List<? extends List<Fach>> faecherProSchueler, int[][] pruefungsNoten,
+                                    ForkJoinPool pool) {
+        return berechne(faecherProSchueler, pruefungsNoten, Regelwerk.BAYERN, pool);
+    }
+
+    /**
+     * Wie {@link #berechne(List, int[][], ForkJoinPool)}, nach den Regeln eines anderen Bundeslandes.
+     */
+    public static Ergebnis berechne(List<? extends List<Fach>> faecherProSchueler, int[][] pruefungsNoten,
+                                    Regelwerk regelwerk, ForkJoinPool pool) {
+        if (faecherProSchueler.size() != pruefungsNoten.length) {
+            throw new IllegalArgumentException("Fächer für " + faecherProSchueler.size()
+                    + " Schüler, aber Prüfungsnoten für " + pruefungsNoten.length);
+        }
+        Ergebnis ergebnis = new Ergebnis(pruefungsNoten.length, regelwerk);
+        pool.invoke(new Bereich(faecherProSchueler, pruefungsNoten, ergebnis, 0, pruefungsNoten.length));
+        return ergebnis;
+    }
+
+    /**
+     * Teilauftrag für die Schüler von (einschließlich) bis (ausschließlich).
+     */
+    @SuppressWarnings("serial") // Wird nie serialisiert
+    private static final class Bereich extends RecursiveAction {
+        private final List<? extends List<Fach>> faecherProSchueler;
+        private final int[][] pruefungsNoten;
+        private final Ergebnis ergebnis;
+        private final int von;
+        private final int bis;
+
+        Bereich(List<? extends List<Fach>> faecherProSchueler, int[][] pruefungsNoten, Ergebnis ergebnis,
+                int von, int bis) {
+            this.faecherProSchueler = faecherProSchueler;
+            this.pruefungsNoten = pruefungsNoten;
+            this.ergebnis = ergebnis;
+            this.von = von;
+            this.bis = bis;
+        }
+
+        @Override
+        protected void compute() {
+            if (bis - von > SCHUELER_PRO_AUFGABE) {
+                int mitte = (von + bis) >>> 1;
+                invokeAll(new Bereich(faecherProSchueler, pruefungsNoten, ergebnis, von, mitte),
+                        new Bereich(faecherProSchueler, pruefungsNoten, ergebnis, mitte, bis));
+                return;
+            }
+            int[] histogramm = new int[BerechnungUtil.ANZAHL_PUNKTWERTE]; // Für alle Schüler dieses Bereichs
+            for (int i = von; i < bis; i++) {
+                berechneSchueler(i, histogramm);
+            }
+        }
+
+        private void berechneSchueler(int i, int[] histogramm) {
+            List<Fach> faecher = faecherProSchueler.get(i);
+            Arrays.fill(histogramm, 0);
+            for (int f = 0, n = faecher.size(); f < n; f++) {
+                histogramm[faecher.get(f).getDurchschnittsPunkte()]++;
+            }
+
+            Regelwerk regelwerk = ergebnis.regelwerk;
+            int anzahlRelevant = Math.min(regelwerk.getAnzahlLeistungen(), faecher.size());
+            int halbjahresPunkte = regelwerk.halbjahresPunkte(
+                    Regelwerk.summeDerBesten(histogramm, anzahlRelevant), anzahlRelevant);
+            int unterpunktungen = regelwerk.unterpunktungenDerBesten(histogramm, anzahlRelevant);
+            int pruefungsPunkte = regelwerk.pruefungsPunkte(pruefungsNoten[i]);
+            int gesamtPunkte = halbjahresPunkte + pruefungsPunkte;
+
+            ergebnis.halbjahresPunkte[i] = halbjahresPunkte;
+            ergebnis.pruefungsPunkte[i] = pruefungsPunkte;
+            ergebnis.gesamtPunkte[i] = gesamtPunkte;
+            ergebnis.schnittZehntel[i] = regelwerk.punkteZuNoteZehntel(gesamtPunkte);
+            ergebnis.unterpunktungen[i] = (byte) unterpunktungen;
+            // Gleiche Reihenfolge der Bedingungen wie in BerechnungUtil.berechneAbi().
+            ergebnis.bestanden[i] = regelwerk.bestanden(unterpunktungen, gesamtPunkte);
+        }
+    }
+}
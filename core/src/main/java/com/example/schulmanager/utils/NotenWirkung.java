@@ -0,0 +1,117 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wirkung einer Verbesserung oder Verschlechterung eines einzelnen Fachs auf die Gesamtpunkte des Abiturs:
+ * Welches Fach lohnt sich am meisten, und um wie viele Punkte?
+ * <p>
+ * Berechnet wird aus den Histogrammen eines {@link AbiRechner}, nicht durch erneutes {@link BerechnungUtil#berechneAbi}
+ * je Fach. Die Wirkung hängt nur von Gruppe und Punkten des Fachs ab, daher gibt es höchstens 16 × Gruppen
+ * verschiedene Zeilen, egal wie viele Fächer es sind. Da die Prüfungen additiv eingehen, gilt die Wirkung
+ * unabhängig von den eingetragenen Prüfungsnoten.
+ */
+public final class NotenWirkung {
+
+    private static final int ANZAHL_PUNKTWERTE = BerechnungUtil.ANZAHL_PUNKTWERTE;
+
+    private final Fach fach;
+    private final int punkte;
+    private final int[] halbjahresPunkteJePunktwert; // Wird zwischen Fächern mit gleichem Stand geteilt, nicht verändern
+
+    private NotenWirkung(Fach fach, int punkte, int[] halbjahresPunkteJePunktwert) {
+        this.fach = fach;
+        this.punkte = punkte;
+        this.halbjahresPunkteJePunktwert = halbjahresPunkteJePunktwert;
+    }
+
+    /**
+     * Berechnet die Wirkung für alle Fächer und sortiert sie absteigend nach {@link #getGewinnPlusEins()},
+     * bei Gleichstand nach dem Gewinn pro Punkt der {@link #getBesteVerbesserung() besten Verbesserung}.
+     *
+     * @param rechner Der Rechner mit dem aktuellen Stand aller Fächer.
+     * @param faecher Die Fächer, die bewertet werden sollen; alle müssen im Rechner eingetragen sein.
+     * @return Eine neue, sortierte Liste.
+     */
+    public static List<NotenWirkung> analysiere(AbiRechner rechner, List<Fach> faecher) {
+        int[][] zeileJeStand = new int[rechner.getAnzahlGruppen() * ANZAHL_PUNKTWERTE][];
+        List<NotenWirkung> wirkungen = new ArrayList<>(faecher.size());
+        for (int i = 0, n = faecher.size(); i < n; i++) {
+            Fach fach = faecher.get(i);
+            int stand = rechner.eingetragenerStand(fach);
+            if (zeileJeStand[stand] == null) {
+                zeileJeStand[stand] = rechner.halbjahresPunkteJePunktwert(stand);
+            }
+            wirkungen.add(new NotenWirkung(fach, stand % ANZAHL_PUNKTWERTE, zeileJeStand[stand]));
+        }
+        wirkungen.sort((a, b) -> {
+            int vergleich = Integer.compare(b.getGewinnPlusEins(), a.getGewinnPlusEins());
+            if (vergleich != 0) return vergleich;
+            // Gewinn pro Punkt über Kreuz multipliziert vergleichen, ohne Division
+            int schritteA = Math.max(1, a.getBesteVerbesserung() - a.punkte);
+            int schritteB = Math.max(1, b.getBesteVerbesserung() - b.punkte);
+            return Integer.compare(b.getGewinn(b.getBesteVerbesserung()) * schritteA,
+                    a.getGewinn(a.getBesteVerbesserung()) * schritteB);
+        });
+        return wirkungen;
+    }
+
+    public Fach getFach() {
+        return fach;
+    }
+
+    /**
+     * @return Die aktuellen (gerundeten) Punkte des Fachs, wie sie im Rechner eingetragen sind.
+     */
+    public int getPunkte() {
+        return punkte;
+    }
+
+    /**
+     * @param zielPunkte Die angenommenen Punkte des Fachs (0-15).
+     * @return Die Änderung der Gesamtpunkte, wenn das Fach statt {@link #getPunkte()} diese Punkte hätte.
+     */
+    public int getGewinn(int zielPunkte) {
+        return halbjahresPunkteJePunktwert[zielPunkte] - halbjahresPunkteJePunktwert[punkte];
+    }
+
+    /**
+     * @return Mehr Gesamtpunkte bei einem Punkt mehr im Fach, 0 bei bereits 15 Punkten.
+     */
+    public int getGewinnPlusEins() {
+        return punkte < ANZAHL_PUNKTWERTE - 1 ? getGewinn(punkte + 1) : 0;
+    }
+
+    /**
+     * @return Weniger Gesamtpunkte bei einem Punkt weniger im Fach (als positive Zahl), 0 bei 0 Punkten.
+     */
+    public int getVerlustMinusEins() {
+        return punkte > 0 ? -getGewinn(punkte - 1) : 0;
+    }
+
+    /**
+     * Die lohnendste Verbesserung: der Zielwert mit dem höchsten Gewinn pro zusätzlichem Punkt,
+     * bei Gleichstand der niedrigere. Das erfasst auch Fälle, in denen ein Punkt mehr noch nichts bringt,
+     * weil das Fach erst ab einem höheren Wert unter die eingebrachten Leistungen rückt.
+     *
+     * @return Die Zielpunkte (größer als {@link #getPunkte()}), oder {@link #getPunkte()}, wenn keine Verbesserung etwas bringt.
+     */
+    public int getBesteVerbesserung() {
+        int beste = punkte;
+        int besterGewinn = 0;
+        int besteSchritte = 1;
+        for (int ziel = punkte + 1; ziel < ANZAHL_PUNKTWERTE; ziel++) {
+            int gewinn = getGewinn(ziel);
+            int schritte = ziel - punkte;
+            if ((long) gewinn * besteSchritte > (long) besterGewinn * schritte) {
+                beste = ziel;
+                besterGewinn = gewinn;
+                besteSchritte = schritte;
+            }
+        }
+        return beste;
+    }
+}
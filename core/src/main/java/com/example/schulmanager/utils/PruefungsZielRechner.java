@@ -0,0 +1,150 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Beantwortet die Frage "Was brauche ich in den Prüfungen für einen Schnitt von x?".
+ * Statt alle 16^5 Kombinationen von Prüfungsnoten durchzuprobieren, wird die Punktetabelle umgekehrt:
+ * Aus dem Ziel-Schnitt folgt über {@link BerechnungUtil#mindestGesamtPunkte(int)} die benötigte Gesamtpunktzahl,
+ * davon gehen die (festen) Halbjahrespunkte und die bereits bekannten Prüfungen ab. Da jede Prüfung mit
+ * Punkte × Faktor zählt (Bayern: × 4, siehe {@link Regelwerk}), hängt das Ergebnis nur von der Summe der offenen Prüfungsnoten ab.
+ * Die Berechnung ist damit O(Anzahl Fächer) und kann bei jeder Eingabe neu ausgeführt werden.
+ */
+public final class PruefungsZielRechner {
+
+    /**
+     * Markiert eine Prüfung, deren Note noch nicht feststeht.
+     */
+    public static final int OFFEN = -1;
+
+    private static final int MAX_PRUEFUNGSNOTE = 15;
+
+    private PruefungsZielRechner() {
+        // Keine Instanzen
+    }
+
+    /**
+     * Das Ergebnis der Zielberechnung.
+     * Jede Verteilung der offenen Prüfungen mit der Summe {@link #benoetigtePunkteSumme} ist minimal,
+     * d.h. keine einzelne Prüfung kann schlechter ausfallen, ohne dass eine andere besser werden muss.
+     * {@link #gleichmaessig} ist davon die ausgeglichenste.
+     */
+    public static class Ergebnis {
+        /**
+         * false, wenn das Ziel auch mit 15 Punkten in allen offenen Prüfungen nicht erreicht wird
+         * oder das Abitur wegen zu vieler Unterpunktungen nicht bestanden werden kann.
+         */
+        public boolean erreichbar;
+        /**
+         * true, wenn unter den eingebrachten Halbjahresleistungen mehr als 8 Unterpunktungen sind.
+         */
+        public boolean zuVieleUnterpunktungen;
+        /**
+         * Die Gesamtpunktzahl, ab der der Ziel-Schnitt erreicht ist.
+         */
+        public int benoetigteGesamtPunkte;
+        /**
+         * Die Punkte aus den Halbjahresleistungen (wie in {@link BerechnungUtil#berechneAbi}).
+         */
+        public int halbjahresPunkte;
+        /**
+         * Wie viele Punkte (Summe der Noten, nicht × 4) die offenen Prüfungen zusammen mindestens bringen müssen.
+         * 0, wenn das Ziel bereits sicher ist.
+         */
+        public int benoetigtePunkteSumme;
+        /**
+         * Die Mindestnote, die jede einzelne offene Prüfung erreichen muss, selbst wenn alle anderen 15 Punkte haben.
+         */
+        public int mindestensJePruefung;
+        /**
+         * Eine minimale Belegung aller Prüfungen, bei der die offenen Prüfungen so gleichmäßig wie möglich
+         * verteilt sind (bekannte Prüfungen unverändert). null, wenn das Ziel nicht erreichbar ist.
+         */
+        public int[] gleichmaessig;
+    }
+
+    /**
+     * Berechnet, welche Punkte in den offenen Prüfungen mindestens nötig sind, um den Ziel-Schnitt zu erreichen.
+     *
+     * @param faecher        Alle Fächer mit den Halbjahresleistungen.
+     * @param pruefungsNoten Die Prüfungsnoten (0-15), {@link #OFFEN} für noch unbekannte Prüfungen.
+     * @param zielZehntel    Der Ziel-Schnitt in Zehnteln (z.B. 20 für 2,0).
+     * @return Das {@link Ergebnis} der Berechnung.
+     * @throws IllegalArgumentException wenn der Ziel-Schnitt außerhalb von 1,0 bis 6,0 liegt.
+     */
+    public static Ergebnis berechne(List<Fach> faecher, int[] pruefungsNoten, int zielZehntel) {
+        return berechne(faecher, pruefungsNoten, zielZehntel, Collections.emptyList());
+    }
+
+    /**
+     * Wie {@link #berechne(List, int[], int)}, mit Pflicht-Regeln für die Einbringung der Halbjahresleistungen.
+     *
+     * @param regeln Die Pflicht-Regeln wie bei {@link BerechnungUtil#berechneAbi(List, int[], List)}.
+     */
+    public static Ergebnis berechne(List<Fach> faecher, int[] pruefungsNoten, int zielZehntel,
+                                    List<EinbringungsRegel> regeln) {
+        return berechne(faecher, pruefungsNoten, zielZehntel, regeln, Regelwerk.BAYERN);
+    }
+
+    /**
+     * Wie {@link #berechne(List, int[], int, List)}, nach den Regeln eines anderen Bundeslandes.
+     *
+     * @param regelwerk Die Abiturregeln; die Prüfungen zählen mit dessen Faktor statt × 4.
+     */
+    public static Ergebnis berechne(List<Fach> faecher, int[] pruefungsNoten, int zielZehntel,
+                                    List<EinbringungsRegel> regeln, Regelwerk regelwerk) {
+        Ergebnis ergebnis = new Ergebnis();
+        ergebnis.benoetigteGesamtPunkte = regelwerk.mindestGesamtPunkte(zielZehntel);
+
+        // Halbjahresleistungen wie in berechneAbi einbringen.
+        Einbringung.Auswahl auswahl = Einbringung.histogramm(faecher, regeln, regelwerk);
+        ergebnis.halbjahresPunkte = regelwerk.halbjahresPunkte(auswahl.summe, auswahl.anzahl);
+        ergebnis.zuVieleUnterpunktungen = auswahl.unterpunktungen > regelwerk.getMaxUnterpunktungen();
+
+        // Bekannte Prüfungen abziehen, offene zählen.
+        int bekanntePunkte = 0;
+        int anzahlOffen = 0;
+        for (int note : pruefungsNoten) {
+            if (note == OFFEN) {
+                anzahlOffen++;
+            } else {
+                bekanntePunkte += regelwerk.pruefungsPunkte(note);
+            }
+        }
+        int bekannteGedeckelt = Math.min(regelwerk.getMaxPruefungsGesamt(), bekanntePunkte);
+        int fehlend = ergebnis.benoetigteGesamtPunkte - ergebnis.halbjahresPunkte - bekannteGedeckelt;
+
+        // Jeder Notenpunkt einer offenen Prüfung zählt "Faktor" Gesamtpunkte (Bayern: 4): aufrunden.
+        // Über die Deckelung je Prüfung hinaus bringt eine höhere Note nichts.
+        int faktor = regelwerk.getPruefungsFaktor();
+        int maxNote = Math.min(MAX_PRUEFUNGSNOTE, regelwerk.getMaxPruefungsPunkte() / faktor);
+        int summe = fehlend <= 0 ? 0 : (fehlend + faktor - 1) / faktor;
+        ergebnis.benoetigtePunkteSumme = summe;
+        if (anzahlOffen > 0) {
+            ergebnis.mindestensJePruefung = Math.max(0, summe - maxNote * (anzahlOffen - 1));
+        }
+
+        // Mit zu vielen Unterpunktungen ist nur noch die 6,0 "erreichbar".
+        boolean bestehbar = !ergebnis.zuVieleUnterpunktungen || zielZehntel == 60;
+        ergebnis.erreichbar = bestehbar && summe <= maxNote * anzahlOffen
+                && fehlend <= regelwerk.getMaxPruefungsGesamt() - bekannteGedeckelt;
+        if (!ergebnis.erreichbar) {
+            return ergebnis;
+        }
+
+        // Gleichmäßige Verteilung: jede offene Prüfung bekommt summe / anzahlOffen, der Rest je einen Punkt mehr.
+        int[] verteilung = pruefungsNoten.clone();
+        int rest = anzahlOffen == 0 ? 0 : summe % anzahlOffen;
+        int basis = anzahlOffen == 0 ? 0 : summe / anzahlOffen;
+        for (int i = 0; i < verteilung.length; i++) {
+            if (verteilung[i] == OFFEN) {
+                verteilung[i] = basis + (rest-- > 0 ? 1 : 0);
+            }
+        }
+        ergebnis.gleichmaessig = verteilung;
+        return ergebnis;
+    }
+}
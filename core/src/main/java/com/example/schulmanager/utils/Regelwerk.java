@@ -0,0 +1,401 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Die Abiturregeln eines Bundeslandes: Anzahl der eingebrachten Halbjahresleistungen, Grenze und Höchstzahl der
+ * Unterpunktungen, Umrechnung der Prüfungen und die Punktetabelle für den Abischnitt.
+ * <p>
+ * Die Regeln stehen als Konfiguration in {@code regelwerke/<name>.properties} (siehe {@code bayern.properties})
+ * und werden beim Laden einmalig in primitive Parameter und Tabellen übersetzt, Index = Gesamtpunktzahl.
+ * Die Auswertung liest danach nur noch finale int-Felder und Arrays und ist damit so schnell wie fest
+ * einprogrammierte Regeln. Instanzen sind unveränderlich und threadsicher.
+ * <p>
+ * {@link BerechnungUtil} rechnet ohne Angabe eines Regelwerks mit {@link #BAYERN}.
+ */
+public final class Regelwerk {
+
+    private static final int ANZAHL_PUNKTWERTE = BerechnungUtil.ANZAHL_PUNKTWERTE;
+    private static final int ZEHNTEL_NICHT_BESTANDEN = 60;
+    private static final String NOTE_NICHT_BESTANDEN = "6,0";
+    private static final String VERZEICHNIS = "/com/example/schulmanager/regelwerke/";
+
+    /** Die bayerischen Regeln aus {@code bayern.properties}. */
+    public static final Regelwerk BAYERN = laden("bayern");
+
+    /**
+     * Die Namen aller mitgelieferten Regelwerke, die {@link #laden(String)} kennt. Derzeit ist nur
+     * Bayern enthalten; weitere Bundesländer brauchen eine eigene {@code <name>.properties} und einen Eintrag hier.
+     */
+    public static final List<String> MITGELIEFERT = Collections.singletonList("bayern");
+
+    private final String name;
+    private final int anzahlLeistungen;     // Eingebrachte Halbjahresleistungen (Bayern: 40)
+    private final int maxHalbjahresPunkte;  // Deckel der Halbjahrespunkte (600)
+    private final int unterpunktungsGrenze; // Leistungen mit höchstens so vielen Punkten sind unterpunktet (4)
+    private final int maxUnterpunktungen;   // Mehr Unterpunktungen: nicht bestanden (8)
+    private final int anzahlPruefungen;     // (5)
+    private final int pruefungsFaktor;      // Punkte je Notenpunkt einer Prüfung (4)
+    private final int maxPruefungsPunkte;   // Höchstens je Prüfung (60)
+    private final int maxPruefungsGesamt;   // Höchstens alle Prüfungen zusammen (300)
+    private final int mindestPunkte;        // Zum Bestehen nötige Gesamtpunktzahl (300)
+    private final int maxGesamtPunkte;      // maxHalbjahresPunkte + maxPruefungsGesamt (900)
+
+    // Aus der Punktetabelle vorberechnet, Index = Gesamtpunktzahl (0 bis maxGesamtPunkte).
+    // Unter mindestPunkte steht überall die 6,0. Jeder Schnitt-String existiert nur einmal (interniert).
+    private final int[] schnittZehntel;
+    private final String[] schnittText;
+    // Umkehrung davon, Index = Note in Zehnteln (0-60): kleinste Gesamtpunktzahl, mit der diese Note
+    // oder eine bessere erreicht wird.
+    private final int[] mindestPunkteJeZehntel = new int[ZEHNTEL_NICHT_BESTANDEN + 1];
+
+    private Regelwerk(String name, Properties werte) {
+        this.name = name;
+        anzahlLeistungen = zahl(werte, "halbjahr.anzahlLeistungen", 1);
+        maxHalbjahresPunkte = zahl(werte, "halbjahr.maxPunkte", 0);
+        unterpunktungsGrenze = zahl(werte, "unterpunktung.grenze", 0);
+        maxUnterpunktungen = zahl(werte, "unterpunktung.maxAnzahl", 0);
+        anzahlPruefungen = zahl(werte, "pruefung.anzahl", 0);
+        pruefungsFaktor = zahl(werte, "pruefung.faktor", 1);
+        maxPruefungsPunkte = zahl(werte, "pruefung.maxPunkte", 0);
+        maxPruefungsGesamt = zahl(werte, "pruefung.maxGesamt", 0);
+        mindestPunkte = zahl(werte, "gesamt.mindestPunkte", 0);
+        maxGesamtPunkte = maxHalbjahresPunkte + maxPruefungsGesamt;
+        if (unterpunktungsGrenze >= ANZAHL_PUNKTWERTE) {
+            throw new IllegalArgumentException(name + ": unterpunktung.grenze muss unter 16 liegen");
+        }
+        if (mindestPunkte > maxGesamtPunkte) {
+            throw new IllegalArgumentException(name + ": gesamt.mindestPunkte über der Höchstpunktzahl");
+        }
+
+        schnittZehntel = new int[maxGesamtPunkte + 1];
+        schnittText = new String[maxGesamtPunkte + 1];
+        Arrays.fill(schnittZehntel, ZEHNTEL_NICHT_BESTANDEN);
+        Arrays.fill(schnittText, NOTE_NICHT_BESTANDEN);
+        tabelleUebersetzen(werte.getProperty("punktetabelle"));
+    }
+
+    /**
+     * Lädt ein mitgeliefertes Regelwerk.
+     *
+     * @param name Der Dateiname ohne Endung (z.B. "bayern").
+     * @return Das übersetzte Regelwerk.
+     * @throws IllegalArgumentException Wenn es kein solches Regelwerk gibt oder die Konfiguration ungültig ist.
+     */
+    public static Regelwerk laden(String name) {
+        try (InputStream stream = Regelwerk.class.getResourceAsStream(VERZEICHNIS + name + ".properties")) {
+            if (stream == null) {
+                throw new IllegalArgumentException("Unbekanntes Regelwerk: " + name);
+            }
+            Properties werte = new Properties();
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                werte.load(reader);
+            }
+            return aus(werte);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Regelwerk " + name + " nicht lesbar", e);
+        }
+    }
+
+    /**
+     * Übersetzt eine Konfiguration mit den Schlüsseln aus {@code bayern.properties}, z.B. für Tests
+     * oder Regelwerke, die nicht mitgeliefert werden.
+     *
+     * @param werte Die Konfiguration.
+     * @return Das übersetzte Regelwerk.
+     * @throws IllegalArgumentException Wenn ein Schlüssel fehlt oder ungültig ist.
+     */
+    public static Regelwerk aus(Properties werte) {
+        return new Regelwerk(werte.getProperty("name", "?"), werte);
+    }
+
+    private static int zahl(Properties werte, String schluessel, int minimum) {
+        String text = werte.getProperty(schluessel);
+        if (text == null) {
+            throw new IllegalArgumentException("Fehlender Schlüssel: " + schluessel);
+        }
+        try {
+            int zahl = Integer.parseInt(text.trim());
+            if (zahl < minimum) {
+                throw new IllegalArgumentException(schluessel + " muss mindestens " + minimum + " sein: " + zahl);
+            }
+            return zahl;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Keine Zahl für " + schluessel + ": " + text, e);
+        }
+    }
+
+    /**
+     * Füllt die Schnitt-Tabellen aus Zeilen "untergrenze:zehntel". Jede Zeile gilt von ihrer Untergrenze bis
+     * unter die Untergrenze der nächstbesseren Note; die 1,0 reicht bis zur Höchstpunktzahl.
+     */
+    private void tabelleUebersetzen(String tabelle) {
+        if (tabelle == null || tabelle.trim().isEmpty()) {
+            throw new IllegalArgumentException(name + ": Fehlender Schlüssel: punktetabelle");
+        }
+        String[] zeilen = tabelle.split(",");
+        int[] untergrenzen = new int[zeilen.length];
+        int[] zehntel = new int[zeilen.length];
+        for (int i = 0; i < zeilen.length; i++) {
+            String[] teile = zeilen[i].trim().split(":");
+            if (teile.length != 2) {
+                throw new IllegalArgumentException(name + ": Ungültige Zeile der Punktetabelle: " + zeilen[i]);
+            }
+            try {
+                untergrenzen[i] = Integer.parseInt(teile[0].trim());
+                zehntel[i] = Integer.parseInt(teile[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + ": Ungültige Zeile der Punktetabelle: " + zeilen[i], e);
+            }
+            // Absteigende Untergrenzen zu aufsteigenden (schlechteren) Noten, beginnend bei 1,0.
+            boolean gueltig = zehntel[i] >= 10 && zehntel[i] < ZEHNTEL_NICHT_BESTANDEN
+                    && untergrenzen[i] >= mindestPunkte && untergrenzen[i] <= maxGesamtPunkte
+                    && (i == 0 ? zehntel[i] == 10 : zehntel[i] > zehntel[i - 1] && untergrenzen[i] < untergrenzen[i - 1]);
+            if (!gueltig) {
+                throw new IllegalArgumentException(name + ": Ungültige Zeile der Punktetabelle: " + zeilen[i]);
+            }
+        }
+
+        int obergrenze = maxGesamtPunkte;
+        for (int i = 0; i < zeilen.length; i++) {
+            String text = noteToString(zehntel[i]).intern();
+            for (int punkte = untergrenzen[i]; punkte <= obergrenze; punkte++) {
+                schnittZehntel[punkte] = zehntel[i];
+                schnittText[punkte] = text;
+            }
+            mindestPunkteJeZehntel[zehntel[i]] = untergrenzen[i];
+            obergrenze = untergrenzen[i] - 1;
+        }
+        // Noten ohne eigene Zeile (z.B. zwischen 4,0 und 6,0) verlangen dasselbe wie die nächstbessere.
+        for (int z = 11; z < ZEHNTEL_NICHT_BESTANDEN; z++) {
+            if (mindestPunkteJeZehntel[z] == 0) {
+                mindestPunkteJeZehntel[z] = mindestPunkteJeZehntel[z - 1];
+            }
+        }
+        mindestPunkteJeZehntel[ZEHNTEL_NICHT_BESTANDEN] = 0;
+    }
+
+    private static String noteToString(int noteWert) {
+        return String.format(Locale.GERMAN, "%d,%d", noteWert / 10, noteWert % 10);
+    }
+
+    // --- Berechnung ---
+
+    /**
+     * Berechnet den Abischnitt wie {@link BerechnungUtil#berechneAbi(List, int[])} nach diesen Regeln.
+     */
+    public BerechnungUtil.AbiErgebnis berechneAbi(List<Fach> faecher, int[] pruefungsNoten) {
+        BerechnungUtil.AbiErgebnis ergebnis = new BerechnungUtil.AbiErgebnis();
+
+        // Halbjahresleistungen in ein Histogramm über die Punktwerte zählen und von 15 Punkten abwärts einbringen.
+        int[] histogramm = new int[ANZAHL_PUNKTWERTE];
+        for (int i = 0, n = faecher.size(); i < n; i++) {
+            histogramm[faecher.get(i).getDurchschnittsPunkte()]++;
+        }
+        int anzahlRelevant = Math.min(anzahlLeistungen, faecher.size());
+        ergebnis.halbjahresPunkte = halbjahresPunkte(summeDerBesten(histogramm, anzahlRelevant), anzahlRelevant);
+        ergebnis.pruefungsPunkte = pruefungsPunkte(pruefungsNoten);
+        bewerten(ergebnis, unterpunktungenDerBesten(histogramm, anzahlRelevant));
+        return ergebnis;
+    }
+
+    /**
+     * Berechnet den Abischnitt wie {@link BerechnungUtil#berechneAbi(List, int[], List)} nach diesen Regeln.
+     */
+    public BerechnungUtil.AbiErgebnis berechneAbi(List<Fach> faecher, int[] pruefungsNoten,
+                                                  List<EinbringungsRegel> regeln) {
+        if (regeln.isEmpty()) {
+            return berechneAbi(faecher, pruefungsNoten);
+        }
+        BerechnungUtil.AbiErgebnis ergebnis = new BerechnungUtil.AbiErgebnis();
+        Einbringung.Auswahl auswahl = Einbringung.histogramm(faecher, regeln, this);
+        ergebnis.halbjahresPunkte = halbjahresPunkte(auswahl.summe, auswahl.anzahl);
+        ergebnis.einbringungZulaessig = auswahl.zulaessig;
+        ergebnis.pruefungsPunkte = pruefungsPunkte(pruefungsNoten);
+        bewerten(ergebnis, auswahl.unterpunktungen);
+        return ergebnis;
+    }
+
+    /**
+     * Ergänzt Gesamtpunkte, Schnitt und Bestehensstatus, nachdem Halbjahres- und Prüfungspunkte feststehen.
+     * Zuerst werden die Unterpunktungen geprüft, da sie eine harte Ausschlussregel sind, dann die Gesamtpunktzahl.
+     */
+    void bewerten(BerechnungUtil.AbiErgebnis ergebnis, int unterpunktungen) {
+        ergebnis.gesamtPunkte = ergebnis.halbjahresPunkte + ergebnis.pruefungsPunkte;
+        ergebnis.abiSchnitt = punkteZuNoteGesamt(ergebnis.gesamtPunkte);
+        if (unterpunktungen > maxUnterpunktungen) {
+            ergebnis.bestanden = false;
+            ergebnis.bestandenNachricht = String.format(Locale.GERMAN,
+                    "Leider nicht bestanden. Es gibt %d Unterpunktungen (< %d Punkte) in den %d Halbjahresleistungen (erlaubt: max. %d).",
+                    unterpunktungen, unterpunktungsGrenze + 1, anzahlLeistungen, maxUnterpunktungen);
+        } else if (ergebnis.gesamtPunkte < mindestPunkte) {
+            ergebnis.bestanden = false;
+            ergebnis.bestandenNachricht = String.format(Locale.GERMAN,
+                    "Leider nicht bestanden. Die Gesamtpunktzahl ist zu gering (mind. %d Punkte benötigt).", mindestPunkte);
+        } else {
+            ergebnis.bestanden = true;
+            ergebnis.bestandenNachricht = "Herzlichen Glückwunsch! Abitur bestanden!";
+        }
+    }
+
+    /**
+     * @return true, wenn mit diesen Unterpunktungen und Gesamtpunkten bestanden ist (wie {@link #bewerten}).
+     */
+    boolean bestanden(int unterpunktungen, int gesamtPunkte) {
+        return unterpunktungen <= maxUnterpunktungen && gesamtPunkte >= mindestPunkte;
+    }
+
+    /**
+     * Summiert die besten Leistungen aus einem Histogramm, indem es von 15 Punkten abwärts abgelaufen wird.
+     */
+    static int summeDerBesten(int[] histogramm, int anzahl) {
+        int summe = 0;
+        int offen = anzahl; // Noch einzubringende Leistungen
+        for (int punkte = ANZAHL_PUNKTWERTE - 1; punkte >= 0 && offen > 0; punkte--) {
+            int eingebracht = Math.min(histogramm[punkte], offen);
+            summe += eingebracht * punkte;
+            offen -= eingebracht;
+        }
+        return summe;
+    }
+
+    /**
+     * Zählt die Unterpunktungen unter den besten Leistungen eines Histogramms. Da zuerst alle Leistungen über
+     * der Grenze eingebracht werden, sind das genau die Plätze, die danach noch offen sind.
+     */
+    int unterpunktungenDerBesten(int[] histogramm, int anzahl) {
+        int ueberGrenze = 0;
+        for (int punkte = unterpunktungsGrenze + 1; punkte < ANZAHL_PUNKTWERTE; punkte++) {
+            ueberGrenze += histogramm[punkte];
+        }
+        return Math.max(0, anzahl - ueberGrenze);
+    }
+
+    /**
+     * @return Die Punkte einer einzelnen Prüfung (Note × Faktor, gedeckelt).
+     */
+    int pruefungsPunkte(int note) {
+        return Math.min(maxPruefungsPunkte, note * pruefungsFaktor);
+    }
+
+    /**
+     * @return Die gedeckelte Summe der Punkte aller Prüfungen.
+     */
+    int pruefungsPunkte(int[] pruefungsNoten) {
+        int summe = 0;
+        for (int note : pruefungsNoten) {
+            summe += pruefungsPunkte(note);
+        }
+        return Math.min(maxPruefungsGesamt, summe);
+    }
+
+    /**
+     * Die Punkte der Halbjahresleistungen. Bei weniger als {@link #getAnzahlLeistungen()} Leistungen wird der
+     * Durchschnitt ganzzahlig auf diese Anzahl hochgerechnet: round(summe / anzahl × n), ab ,5 aufgerundet.
+     */
+    int halbjahresPunkte(int summe, int anzahl) {
+        if (anzahl == 0) {
+            return 0;
+        }
+        if (anzahl < anzahlLeistungen) {
+            summe = (summe * 2 * anzahlLeistungen + anzahl) / (2 * anzahl);
+        }
+        return Math.min(maxHalbjahresPunkte, summe);
+    }
+
+    /**
+     * Wie {@link BerechnungUtil#punkteZuNoteGesamt(int)}, aus der vorberechneten Tabelle.
+     */
+    public String punkteZuNoteGesamt(int gesamtPunkte) {
+        if (gesamtPunkte < mindestPunkte) {
+            return NOTE_NICHT_BESTANDEN;
+        }
+        if (gesamtPunkte > maxGesamtPunkte) {
+            // Fallback: Mit gültigen Eingaben nicht erreichbar.
+            return "Fehler in Abitabelle?";
+        }
+        return schnittText[gesamtPunkte];
+    }
+
+    /**
+     * Wie {@link BerechnungUtil#punkteZuNoteZehntel(int)}: 60 unter der Mindestpunktzahl, -1 über der Höchstpunktzahl.
+     */
+    public int punkteZuNoteZehntel(int gesamtPunkte) {
+        if (gesamtPunkte < mindestPunkte) {
+            return ZEHNTEL_NICHT_BESTANDEN;
+        }
+        if (gesamtPunkte > maxGesamtPunkte) {
+            return -1;
+        }
+        return schnittZehntel[gesamtPunkte];
+    }
+
+    /**
+     * Wie {@link BerechnungUtil#mindestGesamtPunkte(int)}.
+     *
+     * @throws IllegalArgumentException wenn die Note außerhalb von 1,0 bis 6,0 liegt.
+     */
+    public int mindestGesamtPunkte(int zielZehntel) {
+        if (zielZehntel < 10 || zielZehntel > ZEHNTEL_NICHT_BESTANDEN) {
+            throw new IllegalArgumentException("Ungültige Note: " + zielZehntel);
+        }
+        return mindestPunkteJeZehntel[zielZehntel];
+    }
+
+    // --- Parameter ---
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAnzahlLeistungen() {
+        return anzahlLeistungen;
+    }
+
+    public int getMaxHalbjahresPunkte() {
+        return maxHalbjahresPunkte;
+    }
+
+    public int getUnterpunktungsGrenze() {
+        return unterpunktungsGrenze;
+    }
+
+    public int getMaxUnterpunktungen() {
+        return maxUnterpunktungen;
+    }
+
+    public int getAnzahlPruefungen() {
+        return anzahlPruefungen;
+    }
+
+    public int getPruefungsFaktor() {
+        return pruefungsFaktor;
+    }
+
+    public int getMaxPruefungsPunkte() {
+        return maxPruefungsPunkte;
+    }
+
+    public int getMaxPruefungsGesamt() {
+        return maxPruefungsGesamt;
+    }
+
+    public int getMindestPunkte() {
+        return mindestPunkte;
+    }
+
+    public int getMaxGesamtPunkte() {
+        return maxGesamtPunkte;
+    }
+}
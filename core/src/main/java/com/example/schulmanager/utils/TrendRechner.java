@@ -0,0 +1,219 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notentrend je Fach: eine gewichtete lineare Regression der Punktwerte über das Datum der Noten.
+ * Je Fach werden nur die fünf Summen der Regression gehalten (Σw, Σw·t, Σw·y, Σw·t², Σw·t·y), eine neue Note
+ * kostet damit O(1) statt einer neuen Anpassung über alle bisherigen Noten. Daraus werden die Punkte zum Ende
+ * des Halbjahres hochgerechnet und Fächer erkannt, die auf eine Unterpunktung zulaufen. Ab welcher Punktzahl
+ * ein Fach unterpunktet ist, bestimmt das {@link Regelwerk}.
+ * <p>
+ * Wie {@link AbiRechner} nach jeder Änderung eines Fachs mit {@link #fachAktualisieren(Fach)} aufrufen.
+ * Kam genau eine Note hinzu, wird nur diese addiert; nach dem Entfernen einer Note wird das Fach neu eingelesen,
+ * damit durch Abziehen in double keine Rundungsfehler in den Summen zurückbleiben.
+ * <p>
+ * Die Summen liest der TrendRechner direkt aus den Fach-Objekten und schreibt sie ohne Sperren fort.
+ * Änderungen an den Noten und Aufrufe des TrendRechners dürfen daher nicht gleichzeitig aus verschiedenen
+ * Threads kommen.
+ */
+public class TrendRechner {
+
+    private static final double MILLIS_PRO_TAG = 24 * 60 * 60 * 1000.0;
+
+    private final Map<Long, Trend> trendJeFach = new HashMap<>();
+    private final int unterpunktungsGrenze;
+
+    /**
+     * Die Regressionssummen eines Fachs. Die Zeit wird in Tagen ab der ersten Note gezählt, damit die Summen
+     * mit kleinen Zahlen arbeiten und Σw·t² auch über Jahre genau bleibt.
+     */
+    public static final class Trend {
+        private int anzahlNoten;    // Alle Noten des Fachs, auch solche mit Gewichtung 0
+        private long letztesDatum;  // Datum der jüngsten Note, auch mit Gewichtung 0
+        private long anker;         // Datum der ersten Note mit positiver Gewichtung, Nullpunkt der Zeitachse
+        private boolean hatAnker;
+        private double summeW;      // Σw
+        private double summeWT;     // Σw·t
+        private double summeWY;     // Σw·y
+        private double summeWTT;    // Σw·t²
+        private double summeWTY;    // Σw·t·y
+
+        private void hinzufuegen(long datum, double wert, double gewichtung) {
+            letztesDatum = anzahlNoten == 0 ? datum : Math.max(letztesDatum, datum);
+            anzahlNoten++;
+            if (gewichtung <= 0) return; // Wie Fach: Noten ohne Gewichtung zählen nicht
+            if (!hatAnker) {
+                anker = datum;
+                hatAnker = true;
+            }
+            double t = (datum - anker) / MILLIS_PRO_TAG;
+            double wt = gewichtung * t;
+            summeW += gewichtung;
+            summeWT += wt;
+            summeWY += gewichtung * wert;
+            summeWTT += wt * t;
+            summeWTY += wt * wert;
+        }
+
+        /**
+         * @return Die Steigung in Punkten pro Tag, 0 bei weniger als zwei verschiedenen Daten.
+         */
+        public double getSteigungProTag() {
+            double nenner = summeW * summeWTT - summeWT * summeWT;
+            // Alle Noten am selben Tag (oder nur eine): keine Richtung erkennbar
+            if (nenner <= 1e-9 * summeW * summeW) return 0.0;
+            return (summeW * summeWTY - summeWT * summeWY) / nenner;
+        }
+
+        /**
+         * Der Wert der Regressionsgeraden zu einem Datum, begrenzt auf 0-15 Punkte.
+         *
+         * @param datum Zeitstempel in Millisekunden.
+         * @return Die hochgerechneten (ungerundeten) Punkte, 0 ohne Noten mit positiver Gewichtung.
+         */
+        public double getPrognose(long datum) {
+            if (summeW <= 0) return 0.0;
+            double mittelT = summeWT / summeW;
+            double mittelY = summeWY / summeW;
+            double t = (datum - anker) / MILLIS_PRO_TAG;
+            double prognose = mittelY + getSteigungProTag() * (t - mittelT);
+            return Math.max(0.0, Math.min(15.0, prognose));
+        }
+
+        /**
+         * @param datum Zeitstempel in Millisekunden.
+         * @return Die hochgerechneten Punkte zu diesem Datum, gerundet wie {@link Fach#getDurchschnittsPunkte()}.
+         */
+        public int getPrognosePunkte(long datum) {
+            return Fach.roundToNearestNotePoint(getPrognose(datum));
+        }
+
+        /**
+         * Ein Fach läuft auf eine Unterpunktung zu, wenn seine Noten fallen und die Hochrechnung
+         * zum angegebenen Datum bei der Unterpunktungsgrenze oder darunter liegt.
+         *
+         * @param ende                 Ende des Halbjahres als Zeitstempel in Millisekunden.
+         * @param unterpunktungsGrenze Höchste Punktzahl, die als unterpunktet gilt
+         *                             ({@link Regelwerk#getUnterpunktungsGrenze()}).
+         */
+        public boolean isGefaehrdet(long ende, int unterpunktungsGrenze) {
+            return getSteigungProTag() < 0 && getPrognosePunkte(ende) <= unterpunktungsGrenze;
+        }
+    }
+
+    /**
+     * Liest einmalig alle Fächer ein; unterpunktet ist ein Fach nach den Regeln von {@link Regelwerk#BAYERN}.
+     *
+     * @param faecher Alle Fächer.
+     */
+    public TrendRechner(List<Fach> faecher) {
+        this(faecher, Regelwerk.BAYERN);
+    }
+
+    /**
+     * Wie {@link #TrendRechner(List)}, mit der Unterpunktungsgrenze eines anderen Bundeslandes.
+     *
+     * @param regelwerk Die Abiturregeln.
+     */
+    public TrendRechner(List<Fach> faecher, Regelwerk regelwerk) {
+        this.unterpunktungsGrenze = regelwerk.getUnterpunktungsGrenze();
+        for (Fach fach : faecher) {
+            fachHinzugefuegt(fach);
+        }
+    }
+
+    /**
+     * Trägt ein neues Fach mit all seinen Noten ein.
+     */
+    public void fachHinzugefuegt(Fach fach) {
+        trendJeFach.put(fach.getId(), einlesen(fach));
+    }
+
+    /**
+     * Trägt ein gelöschtes Fach aus.
+     */
+    public void fachEntfernt(Fach fach) {
+        trendJeFach.remove(fach.getId());
+    }
+
+    /**
+     * Übernimmt die Änderung eines Fachs. Ist genau eine Note hinzugekommen (sie steht dann am Ende),
+     * wird nur diese addiert; jede andere Änderung liest das Fach neu ein.
+     */
+    public void fachAktualisieren(Fach fach) {
+        Trend trend = trendJeFach.get(fach.getId());
+        int anzahl = fach.getAnzahlNoten();
+        if (trend != null && anzahl == trend.anzahlNoten + 1) {
+            int letzte = anzahl - 1;
+            trend.hinzufuegen(fach.getNotenDatum(letzte), fach.getNotenWert(letzte), fach.getNotenGewichtung(letzte));
+        } else if (trend == null || anzahl != trend.anzahlNoten) {
+            trendJeFach.put(fach.getId(), einlesen(fach));
+        }
+    }
+
+    /**
+     * @param fach Ein eingetragenes Fach.
+     * @return Der Trend des Fachs.
+     * @throws IllegalArgumentException Wenn das Fach nicht eingetragen ist.
+     */
+    public Trend getTrend(Fach fach) {
+        Trend trend = trendJeFach.get(fach.getId());
+        if (trend == null) {
+            throw new IllegalArgumentException("Fach nicht eingetragen: " + fach.getId());
+        }
+        return trend;
+    }
+
+    /**
+     * Alle Fächer aus der Liste, die bis zum Ende des Halbjahres auf eine Unterpunktung zulaufen.
+     *
+     * @param faecher Die zu prüfenden Fächer (z.B. die des aktuellen Halbjahres), alle eingetragen.
+     * @param ende    Ende des Halbjahres als Zeitstempel in Millisekunden.
+     * @return Eine neue Liste in der Reihenfolge von {@code faecher}.
+     */
+    public List<Fach> getGefaehrdeteFaecher(List<Fach> faecher, long ende) {
+        List<Fach> gefaehrdet = new ArrayList<>();
+        for (int i = 0, n = faecher.size(); i < n; i++) {
+            Fach fach = faecher.get(i);
+            if (getTrend(fach).isGefaehrdet(ende, unterpunktungsGrenze)) {
+                gefaehrdet.add(fach);
+            }
+        }
+        return gefaehrdet;
+    }
+
+    /**
+     * Das laufende Halbjahr: das Halbjahr des Fachs mit der jüngsten Note. Nur für dieses Halbjahr ist eine
+     * Hochrechnung zum Halbjahresende sinnvoll; in abgeschlossenen Halbjahren kommen keine Noten mehr hinzu.
+     *
+     * @param faecher Alle Fächer, alle eingetragen.
+     * @return Das laufende Halbjahr oder 0, wenn noch kein Fach eine Note hat.
+     */
+    public int getLaufendesHalbjahr(List<Fach> faecher) {
+        int halbjahr = 0;
+        long juengste = Long.MIN_VALUE;
+        for (int i = 0, n = faecher.size(); i < n; i++) {
+            Fach fach = faecher.get(i);
+            Trend trend = getTrend(fach);
+            if (trend.anzahlNoten > 0 && trend.letztesDatum > juengste) {
+                juengste = trend.letztesDatum;
+                halbjahr = fach.getHalbjahr();
+            }
+        }
+        return halbjahr;
+    }
+
+    private static Trend einlesen(Fach fach) {
+        Trend trend = new Trend();
+        for (int i = 0, n = fach.getAnzahlNoten(); i < n; i++) {
+            trend.hinzufuegen(fach.getNotenDatum(i), fach.getNotenWert(i), fach.getNotenGewichtung(i));
+        }
+        return trend;
+    }
+}
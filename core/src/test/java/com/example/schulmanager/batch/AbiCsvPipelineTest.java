@@ -0,0 +1,94 @@
+package com.example.schulmanager.batch;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+import com.example.schulmanager.utils.BerechnungUtil;
+import com.example.schulmanager.utils.Regelwerk;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Prüft die CSV-Pipeline gegen {@link BerechnungUtil#berechneAbi(List, int[])} und die Fehlermeldungen bei ungültigen Zeilen.
+ */
+public class AbiCsvPipelineTest {
+
+    @Test
+    public void ergebnisseEntsprechenEinzelberechnung() throws IOException {
+        Random random = new Random(3);
+        StringBuilder csv = new StringBuilder("schueler;fach;halbjahr;abiturfach;punkte;gewichtung\n");
+        StringBuilder erwartet = new StringBuilder("schueler;halbjahresPunkte;pruefungsPunkte;gesamtPunkte;abiSchnitt;bestanden\n");
+        int anzahlSchueler = 2000; // Mehr als in die Warteschlangen passen
+
+        for (int s = 0; s < anzahlSchueler; s++) {
+            List<Fach> faecher = new ArrayList<>();
+            for (int halbjahr = 1; halbjahr <= 4; halbjahr++) {
+                for (int f = 0; f < 10; f++) {
+                    Fach fach = new Fach(f, "Fach " + f, halbjahr, f < 5);
+                    for (int n = 0; n < 3; n++) {
+                        int wert = random.nextInt(16);
+                        double gewichtung = n == 0 ? 2.0 : 1.0;
+                        fach.addNote(new Note(wert, null, 0L, gewichtung));
+                        csv.append("S").append(s).append(';').append(fach.getName()).append(';').append(halbjahr)
+                                .append(';').append(f < 5 ? 1 : 0).append(';').append(wert).append(';').append(gewichtung).append('\n');
+                    }
+                    faecher.add(fach);
+                }
+            }
+            int[] pruefungen = new int[5];
+            for (int p = 0; p < 5; p++) {
+                pruefungen[p] = random.nextInt(16);
+                csv.append("S").append(s).append(";Prüfung ").append(p).append(";P;1;").append(pruefungen[p]).append('\n');
+            }
+
+            BerechnungUtil.AbiErgebnis ergebnis = BerechnungUtil.berechneAbi(faecher, pruefungen);
+            erwartet.append("S").append(s).append(';').append(ergebnis.halbjahresPunkte).append(';')
+                    .append(ergebnis.pruefungsPunkte).append(';').append(ergebnis.gesamtPunkte).append(';')
+                    .append(ergebnis.abiSchnitt).append(';').append(ergebnis.bestanden ? 1 : 0).append('\n');
+        }
+
+        StringWriter ausgabe = new StringWriter();
+        AbiCsvPipeline.Statistik statistik = AbiCsvPipeline.ausfuehren(
+                new BufferedReader(new StringReader(csv.toString())), ausgabe);
+
+        assertEquals(anzahlSchueler, statistik.schueler);
+        assertEquals(anzahlSchueler * (4 * 10 * 3 + 5L), statistik.zeilen);
+        assertEquals(erwartet.toString(), ausgabe.toString());
+    }
+
+    @Test
+    public void ungueltigeZeileWirdMitZeilennummerGemeldet() {
+        String csv = "schueler;fach;halbjahr;abiturfach;punkte\n"
+                + "S1;Mathe;1;1;12\n"
+                + "S1;Deutsch;7;0;10\n";
+        try {
+            AbiCsvPipeline.ausfuehren(new BufferedReader(new StringReader(csv)), new StringWriter());
+            throw new AssertionError("IOException erwartet");
+        } catch (IOException e) {
+            assertEquals("Zeile 3: Halbjahr muss zwischen 1 und 4 liegen", e.getMessage());
+        }
+    }
+
+    @Test
+    public void mehrPruefungenAlsImRegelwerkWerdenAbgelehnt() {
+        StringBuilder csv = new StringBuilder("schueler;fach;halbjahr;abiturfach;punkte\n");
+        for (int p = 0; p <= Regelwerk.BAYERN.getAnzahlPruefungen(); p++) {
+            csv.append("S1;Prüfung ").append(p).append(";P;1;10\n");
+        }
+        try {
+            AbiCsvPipeline.ausfuehren(new BufferedReader(new StringReader(csv.toString())), new StringWriter(), Regelwerk.BAYERN);
+            throw new AssertionError("IOException erwartet");
+        } catch (IOException e) {
+            assertEquals("Zeile 7: mehr als 5 Prüfungen für Schüler S1", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.schulmanager.data;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Vergleicht die bisherige Reflection-Serialisierung (neues Gson + TypeToken) mit der gemeinsamen
+ * Gson-Instanz aus {@link GsonProvider} und ihren Streaming-Adaptern.
+ * Prüft, dass beide Varianten dasselbe JSON erzeugen und geschriebene Fächer unverändert zurückgelesen werden.
+ * Die Geschwindigkeit misst {@code GsonBenchmark} in der JMH-Suite.
+ * Da {@link Fach} die Noten inzwischen spaltenweise speichert, dient {@link AltesFach} mit dem
+ * ursprünglichen Feldaufbau als Vorlage für die Reflection-Variante.
+ */
+public class GsonAdapterTest {
+
+    private static final Type FAECHER_TYPE = new TypeToken<ArrayList<Fach>>() {
+    }.getType();
+    private static final Type ALTE_FAECHER_TYPE = new TypeToken<ArrayList<AltesFach>>() {
+    }.getType();
+
+    private static final int ANZAHL_FAECHER = 48;      // 12 Fächer × 4 Halbjahre
+    private static final int NOTEN_PRO_FACH = 60;
+
+    @Test
+    public void adapterErzeugenDasselbeJsonWieReflection() {
+        List<Fach> faecher = erzeugeFaecher();
+
+        String reflection = new Gson().toJson(alsAlteFaecher(faecher));
+        String adapter = GsonProvider.get().toJson(faecher);
+        assertEquals(reflection, adapter);
+
+        // Beide Richtungen müssen sich gegenseitig lesen können.
+        List<Fach> gelesen = GsonProvider.get().fromJson(reflection, FAECHER_TYPE);
+        assertEquals(reflection, new Gson().toJson(alsAlteFaecher(gelesen)));
+    }
+
+    @Test
+    public void geschriebeneFaecherWerdenUnveraendertZurueckgelesen() {
+        List<Fach> faecher = erzeugeFaecher();
+
+        String json = GsonProvider.get().toJson(faecher);
+        List<Fach> gelesen = GsonProvider.get().fromJson(json, FAECHER_TYPE);
+
+        assertEquals(faecher.size(), gelesen.size());
+        for (int i = 0; i < faecher.size(); i++) {
+            Fach original = faecher.get(i);
+            Fach kopie = gelesen.get(i);
+            assertEquals(original.getId(), kopie.getId());
+            assertEquals(original.getName(), kopie.getName());
+            assertEquals(original.getHalbjahr(), kopie.getHalbjahr());
+            assertEquals(original.isAbiturfach(), kopie.isAbiturfach());
+            assertEquals(original.getNoten(), kopie.getNoten());
+            // Die laufenden Summen werden beim Lesen neu aufgebaut und müssen exakt übereinstimmen.
+            assertEquals(original.getSummeGewichteterPunkte(), kopie.getSummeGewichteterPunkte());
+            assertEquals(original.getSummeGewichtungen(), kopie.getSummeGewichtungen());
+        }
+        // Erneutes Schreiben ergibt wieder dasselbe JSON.
+        assertEquals(json, GsonProvider.get().toJson(gelesen));
+    }
+
+    /**
+     * Feldaufbau von {@link Fach}, wie er per Reflection serialisiert und in den SharedPreferences gespeichert wurde.
+     */
+    @SuppressWarnings("unused")
+    private static final class AltesFach {
+        long id;
+        String name;
+        int halbjahr;
+        boolean isAbiturfach;
+        List<Note> noten;
+    }
+
+    private static List<AltesFach> alsAlteFaecher(List<Fach> faecher) {
+        List<AltesFach> alteFaecher = new ArrayList<>(faecher.size());
+        for (Fach fach : faecher) {
+            AltesFach altesFach = new AltesFach();
+            altesFach.id = fach.getId();
+            altesFach.name = fach.getName();
+            altesFach.halbjahr = fach.getHalbjahr();
+            altesFach.isAbiturfach = fach.isAbiturfach();
+            altesFach.noten = new ArrayList<>(fach.getNoten());
+            alteFaecher.add(altesFach);
+        }
+        return alteFaecher;
+    }
+
+    private static List<Fach> erzeugeFaecher() {
+        Random random = new Random(42);
+        List<Fach> faecher = new ArrayList<>();
+        for (int i = 0; i < ANZAHL_FAECHER; i++) {
+            Fach fach = new Fach(1000L + i, "Fach " + i, i % 4 + 1, i % 12 < 5);
+            for (int j = 0; j < NOTEN_PRO_FACH; j++) {
+                fach.addNote(new Note(random.nextInt(16), j % 3 == 0 ? "schriftlich" : "muendlich",
+                        1_700_000_000_000L + j * 86_400_000L, j % 3 == 0 ? 2.0 : 1.0));
+            }
+            faecher.add(fach);
+        }
+        return faecher;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Prüft {@link AbiPrognose}: ohne Zufall genau das Ergebnis von {@link BerechnungUtil#berechneAbi},
+ * und mit Zufall unabhängig von der Anzahl der Threads. Die Laufzeit misst {@code PrognoseBenchmark}
+ * in der JMH-Suite.
+ */
+public class AbiPrognoseTest {
+
+    private static final List<EinbringungsRegel> REGELN = Collections.singletonList(EinbringungsRegel.abiturfaecher());
+
+    @Test
+    public void ohneOffeneNotenWieBerechneAbi() {
+        Random random = new Random(13);
+        for (int durchlauf = 0; durchlauf < 50; durchlauf++) {
+            List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, random.nextInt(50));
+            int[] pruefungen = {random.nextInt(16), random.nextInt(16), 8, 9, 10};
+
+            AbiPrognose.Ergebnis prognose = new AbiPrognose(faecher, pruefungen, REGELN, fach -> 0).simuliere(100, 1);
+            BerechnungUtil.AbiErgebnis erwartet = BerechnungUtil.berechneAbi(faecher, pruefungen, REGELN);
+
+            int zehntel = erwartet.bestanden ? BerechnungUtil.punkteZuNoteZehntel(erwartet.gesamtPunkte) : 60;
+            assertEquals(1.0, prognose.getWahrscheinlichkeit(zehntel), 0.0);
+            assertEquals(erwartet.bestanden ? 1.0 : 0.0, prognose.getBestehensWahrscheinlichkeit(), 0.0);
+        }
+    }
+
+    @Test
+    public void ergebnisUnabhaengigVonThreads() {
+        List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(new Random(17), 48);
+        int[] offen = {PruefungsZielRechner.OFFEN, PruefungsZielRechner.OFFEN, 12, PruefungsZielRechner.OFFEN, 10};
+        AbiPrognose prognose = new AbiPrognose(faecher, offen, REGELN, fach -> Math.max(0, 4 - fach.getAnzahlNoten()));
+
+        AbiPrognose.Ergebnis parallel = prognose.simuliere(100_000, 42);
+        ForkJoinPool einThread = new ForkJoinPool(1);
+        AbiPrognose.Ergebnis seriell = prognose.simuliere(100_000, 42, einThread);
+        einThread.shutdown();
+
+        double summe = 0;
+        for (int zehntel = 0; zehntel <= 60; zehntel++) {
+            assertEquals(seriell.getWahrscheinlichkeit(zehntel), parallel.getWahrscheinlichkeit(zehntel), 0.0);
+            summe += parallel.getWahrscheinlichkeit(zehntel);
+        }
+        assertEquals(1.0, summe, 1e-9);
+        assertEquals(1.0, parallel.getWahrscheinlichkeitHoechstens(60), 1e-9);
+        assertTrue(parallel.getQuantilZehntel(0.5) <= parallel.getQuantilZehntel(0.9));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Prüft, dass {@link AbiRechner} nach beliebigen Einzeländerungen dasselbe Ergebnis liefert
+ * wie eine vollständige Neuberechnung mit {@link BerechnungUtil#berechneAbi(List, int[], List)}.
+ */
+public class AbiRechnerTest {
+
+    @Test
+    public void einzelaenderungenErgebenDasselbeWieNeuberechnung() {
+        pruefeZufaelligeAenderungen(Collections.emptyList(), 21);
+        pruefeZufaelligeAenderungen(Collections.singletonList(EinbringungsRegel.abiturfaecher()), 22);
+        pruefeZufaelligeAenderungen(Arrays.asList(EinbringungsRegel.abiturfaecher(),
+                new EinbringungsRegel("Halbjahr 1", fach -> fach.getHalbjahr() == 1, 6)), 23);
+    }
+
+    private static void pruefeZufaelligeAenderungen(List<EinbringungsRegel> regeln, long seed) {
+        Random random = new Random(seed);
+        List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, 48);
+        int[] pruefungen = {10, 11, 12, 9, 8};
+        AbiRechner rechner = new AbiRechner(faecher, pruefungen, regeln);
+        long naechsteId = 1000;
+
+        for (int schritt = 0; schritt < 5000; schritt++) {
+            Fach fach = faecher.isEmpty() ? null : faecher.get(random.nextInt(faecher.size()));
+            switch (random.nextInt(6)) {
+                case 0: // Note hinzufügen
+                    if (fach == null) break;
+                    fach.addNote(new Note(random.nextInt(16), "schriftlich", schritt, 1 + random.nextInt(2)));
+                    rechner.fachAktualisieren(fach);
+                    break;
+                case 1: // Note entfernen
+                    if (fach == null || fach.getAnzahlNoten() == 0) break;
+                    fach.removeNoteAt(random.nextInt(fach.getAnzahlNoten()));
+                    rechner.fachAktualisieren(fach);
+                    break;
+                case 2: // Abiturfach umschalten
+                    if (fach == null) break;
+                    fach.setAbiturfach(!fach.isAbiturfach());
+                    rechner.fachAktualisieren(fach);
+                    break;
+                case 3: // Prüfungsnote ändern
+                    int index = random.nextInt(5);
+                    pruefungen[index] = random.nextInt(16);
+                    rechner.setPruefungsNote(index, pruefungen[index]);
+                    break;
+                case 4: // Fach hinzufügen
+                    Fach neu = new Fach(naechsteId++, "Neu", 1 + random.nextInt(4), random.nextBoolean());
+                    neu.addNote(new Note(random.nextInt(16), "muendlich", schritt, 1));
+                    faecher.add(neu);
+                    rechner.fachHinzugefuegt(neu);
+                    break;
+                default: // Fach löschen
+                    if (fach == null) break;
+                    faecher.remove(fach);
+                    rechner.fachEntfernt(fach);
+                    break;
+            }
+
+            BerechnungUtil.AbiErgebnis erwartet = BerechnungUtil.berechneAbi(faecher, pruefungen, regeln);
+            BerechnungUtil.AbiErgebnis ergebnis = rechner.getErgebnis();
+            assertEquals(erwartet.halbjahresPunkte, ergebnis.halbjahresPunkte);
+            assertEquals(erwartet.pruefungsPunkte, ergebnis.pruefungsPunkte);
+            assertEquals(erwartet.gesamtPunkte, ergebnis.gesamtPunkte);
+            assertEquals(erwartet.abiSchnitt, ergebnis.abiSchnitt);
+            assertEquals(erwartet.bestandenNachricht, ergebnis.bestandenNachricht);
+            assertEquals(erwartet.einbringungZulaessig, ergebnis.einbringungZulaessig);
+            assertEquals(erwartet.gesamtPunkte, rechner.getGesamtPunkte());
+        }
+    }
+}
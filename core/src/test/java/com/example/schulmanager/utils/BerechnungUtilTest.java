@@ -0,0 +1,158 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Prüft, dass die Histogramm-Berechnung in {@link BerechnungUtil#berechneAbi(List, int[])} exakt dieselben
+ * Ergebnisse liefert wie die ursprüngliche Variante mit sortierter Integer-Liste,
+ * dass die vorberechnete Schnitt-Tabelle der Punktetabelle entspricht
+ * und dass die Festkomma-Rundung in {@link Fach} an der 0,5-Grenze exakt ist.
+ */
+public class BerechnungUtilTest {
+
+    @Test
+    public void histogrammErgibtDieselbenErgebnisseWieSortieren() {
+        Random random = new Random(7);
+        for (int durchlauf = 0; durchlauf < 2000; durchlauf++) {
+            List<Fach> faecher = zufallsFaecher(random, random.nextInt(60));
+            int[] pruefungen = new int[5];
+            for (int i = 0; i < pruefungen.length; i++) {
+                pruefungen[i] = random.nextInt(16);
+            }
+
+            BerechnungUtil.AbiErgebnis erwartet = berechneAbiMitSortierung(faecher, pruefungen);
+            BerechnungUtil.AbiErgebnis ergebnis = BerechnungUtil.berechneAbi(faecher, pruefungen);
+
+            assertEquals(erwartet.halbjahresPunkte, ergebnis.halbjahresPunkte);
+            assertEquals(erwartet.pruefungsPunkte, ergebnis.pruefungsPunkte);
+            assertEquals(erwartet.gesamtPunkte, ergebnis.gesamtPunkte);
+            assertEquals(erwartet.abiSchnitt, ergebnis.abiSchnitt);
+            assertEquals(erwartet.bestanden, ergebnis.bestanden);
+            assertEquals(erwartet.bestandenNachricht, ergebnis.bestandenNachricht);
+        }
+    }
+
+    @Test
+    public void schnittTabelleEntsprichtPunktetabelle() {
+        for (int punkte = 0; punkte <= 900; punkte++) {
+            String erwartet = schnittNachFormel(punkte);
+            assertEquals(erwartet, BerechnungUtil.punkteZuNoteGesamt(punkte));
+            int zehntel = BerechnungUtil.punkteZuNoteZehntel(punkte);
+            assertEquals(erwartet, zehntel / 10 + "," + zehntel % 10);
+        }
+        assertEquals(-1, BerechnungUtil.punkteZuNoteZehntel(901));
+    }
+
+    @Test
+    public void festkommaRundungExaktAnDerHalbgrenze() {
+        // Genau 11,5 Punkte; im Gleitkomma ergab das 11,499999999999998 und wurde auf 11 abgerundet.
+        Fach fach = new Fach(1, "Mathe", 1, true);
+        fach.addNote(new Note(10.7, "schriftlich", 0, 1.6));
+        fach.addNote(new Note(12.9, "schriftlich", 1, 1.3));
+        fach.addNote(new Note(11.2, "muendlich", 2, 1.8));
+        assertEquals(12, fach.getDurchschnittsPunkte());
+
+        // Entfernen zieht exakt ab: dasselbe Ergebnis wie ein neu aufgebautes Fach.
+        Random random = new Random(3);
+        for (int schritt = 0; schritt < 2000; schritt++) {
+            if (fach.getAnzahlNoten() > 0 && random.nextInt(3) == 0) {
+                fach.removeNoteAt(random.nextInt(fach.getAnzahlNoten()));
+            } else {
+                fach.addNote(new Note(random.nextInt(1501) / 100.0, "schriftlich", schritt, random.nextInt(301) / 100.0));
+            }
+            Fach neu = new Fach(2, "Kopie", 1, true);
+            neu.setNoten(new ArrayList<>(fach.getNoten()));
+            assertEquals(neu.getDurchschnittsPunkte(), fach.getDurchschnittsPunkte());
+            assertEquals(neu.getDurchschnitt(), fach.getDurchschnitt(), 0.0);
+        }
+
+        assertEquals(0, Fach.punkteAusSummen(0, 0));
+        assertEquals(0, Fach.punkteAusSummen(99, 1));
+        assertEquals(1, Fach.punkteAusSummen(100, 1));
+        assertEquals(7, Fach.punkteAusSummen(749, 1));
+        assertEquals(8, Fach.punkteAusSummen(750, 1));
+        assertEquals(15, Fach.punkteAusSummen(1500, 1));
+    }
+
+    static List<Fach> zufallsFaecher(Random random, int anzahl) {
+        List<Fach> faecher = new ArrayList<>();
+        for (int i = 0; i < anzahl; i++) {
+            Fach fach = new Fach(i + 1, "Fach " + i, i % 4 + 1, i % 12 < 5);
+            // Teils sehr schwache Fächer, damit auch Unterpunktungen vorkommen.
+            int basis = random.nextInt(16);
+            int anzahlNoten = random.nextInt(6);
+            for (int j = 0; j < anzahlNoten; j++) {
+                double wert = Math.max(0, Math.min(15, basis + random.nextInt(5) - 2 + (random.nextBoolean() ? 0.5 : 0)));
+                fach.addNote(new Note(wert, j % 2 == 0 ? "schriftlich" : "muendlich", j, random.nextInt(3)));
+            }
+            faecher.add(fach);
+        }
+        return faecher;
+    }
+
+    // --- Ursprüngliche Berechnung als Referenz ---
+
+    // Die Punktetabelle in geschlossener Form: ab 823 Punkten 1,0, darunter je 18 Punkte eine Zehntelnote, 300 Punkte 4,0.
+    static String schnittNachFormel(int punkte) {
+        if (punkte < 300) return "6,0";
+        int zehntel = punkte >= 823 ? 10 : punkte == 300 ? 40 : 11 + (822 - punkte) / 18;
+        return zehntel / 10 + "," + zehntel % 10;
+    }
+
+    private static BerechnungUtil.AbiErgebnis berechneAbiMitSortierung(List<Fach> faecher, int[] pruefungsNoten) {
+        List<Integer> leistungen = new ArrayList<>();
+        for (Fach fach : faecher) {
+            leistungen.add(fach.getDurchschnittsPunkte());
+        }
+        leistungen.sort(Collections.reverseOrder());
+
+        int unterpunktungen = 0;
+        int relevant = Math.min(40, leistungen.size());
+        for (int i = 0; i < relevant; i++) {
+            if (leistungen.get(i) <= 4) {
+                unterpunktungen++;
+            }
+        }
+
+        int summe = 0;
+        for (int i = 0; i < relevant; i++) {
+            summe += leistungen.get(i);
+        }
+        if (relevant < 40 && relevant > 0) {
+            summe = (int) Math.round((double) summe / relevant * 40);
+        }
+
+        BerechnungUtil.AbiErgebnis ergebnis = new BerechnungUtil.AbiErgebnis();
+        ergebnis.halbjahresPunkte = leistungen.isEmpty() ? 0 : Math.min(600, summe);
+        for (int note : pruefungsNoten) {
+            ergebnis.pruefungsPunkte += Math.min(60, note * 4);
+        }
+        ergebnis.pruefungsPunkte = Math.min(300, ergebnis.pruefungsPunkte);
+        ergebnis.gesamtPunkte = ergebnis.halbjahresPunkte + ergebnis.pruefungsPunkte;
+        ergebnis.abiSchnitt = schnittNachFormel(ergebnis.gesamtPunkte);
+        if (unterpunktungen > 8) {
+            ergebnis.bestanden = false;
+            ergebnis.bestandenNachricht = String.format(Locale.GERMAN,
+                    "Leider nicht bestanden. Es gibt %d Unterpunktungen (< 5 Punkte) in den 40 Halbjahresleistungen (erlaubt: max. 8).",
+                    unterpunktungen);
+        } else if (ergebnis.gesamtPunkte < 300) {
+            ergebnis.bestanden = false;
+            ergebnis.bestandenNachricht = "Leider nicht bestanden. Die Gesamtpunktzahl ist zu gering (mind. 300 Punkte benötigt).";
+        } else {
+            ergebnis.bestanden = true;
+            ergebnis.bestandenNachricht = "Herzlichen Glückwunsch! Abitur bestanden!";
+        }
+        return ergebnis;
+    }
+}
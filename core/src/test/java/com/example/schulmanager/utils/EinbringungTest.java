@@ -0,0 +1,163 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Vergleicht die Auswahl von {@link Einbringung} mit dem Durchprobieren aller Teilmengen kleiner Fächerlisten.
+ */
+public class EinbringungTest {
+
+    private static final List<EinbringungsRegel> REGELN = Arrays.asList(
+            EinbringungsRegel.abiturfaecher(),
+            EinbringungsRegel.fach("Fach 1", 2));
+
+    @Test
+    public void auswahlIstOptimalUndZulaessig() {
+        Random random = new Random(5);
+        for (int durchlauf = 0; durchlauf < 500; durchlauf++) {
+            List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, 1 + random.nextInt(12));
+            for (Fach fach : faecher) {
+                fach.setName("Fach " + random.nextInt(3)); // Mehrere Halbjahre desselben Fachs
+                fach.setAbiturfach(random.nextInt(4) == 0);
+            }
+            int anzahl = 1 + random.nextInt(faecher.size());
+
+            Einbringung.Auswahl auswahl = Einbringung.waehle(faecher, REGELN, anzahl);
+            int[] erwartet = besteDurchProbieren(faecher, anzahl); // {summe, unterpunktungen} oder null
+
+            assertEquals(erwartet != null, auswahl.zulaessig);
+            if (erwartet == null) {
+                continue;
+            }
+            assertEquals(erwartet[0], auswahl.summe);
+            assertEquals(erwartet[1], auswahl.unterpunktungen);
+
+            // Die Markierung je Fach muss zu den Summen passen und alle Regeln erfüllen.
+            int summe = 0;
+            int anzahlEingebracht = 0;
+            for (int i = 0; i < faecher.size(); i++) {
+                if (auswahl.eingebracht[i]) {
+                    summe += faecher.get(i).getDurchschnittsPunkte();
+                    anzahlEingebracht++;
+                }
+            }
+            assertEquals(auswahl.summe, summe);
+            assertEquals(anzahl, anzahlEingebracht);
+            assertTrue(erfuelltRegeln(faecher, auswahl.eingebracht));
+        }
+    }
+
+    @Test
+    public void ohneRegelnWieBerechneAbi() {
+        Random random = new Random(9);
+        for (int durchlauf = 0; durchlauf < 200; durchlauf++) {
+            List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, random.nextInt(60));
+            int[] pruefungen = {random.nextInt(16), 10, 10, 10, 10};
+            BerechnungUtil.AbiErgebnis erwartet = BerechnungUtil.berechneAbi(faecher, pruefungen);
+            Einbringung.Auswahl auswahl = Einbringung.histogramm(faecher, Collections.emptyList(), 40);
+            assertEquals(erwartet.halbjahresPunkte, BerechnungUtil.berechneHalbjahresPunkte(auswahl.summe, auswahl.anzahl));
+        }
+    }
+
+    @Test
+    public void zuVielePflichtleistungenSindUnzulaessig() {
+        List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(new Random(1), 50);
+        for (Fach fach : faecher) {
+            fach.setAbiturfach(true);
+        }
+        Einbringung.Auswahl auswahl = Einbringung.waehle(faecher, REGELN, 40);
+        assertFalse(auswahl.zulaessig);
+        assertEquals(40, auswahl.anzahl);
+        assertFalse(BerechnungUtil.berechneAbi(faecher, new int[5], REGELN).einbringungZulaessig);
+    }
+
+    @Test
+    public void ueberschneidendeRegelnGeltenAlle() {
+        // Deutsch gehört auch zu den Sprachen; die zweite Regel darf durch die erste nicht wirkungslos werden.
+        List<EinbringungsRegel> regeln = Arrays.asList(
+                new EinbringungsRegel("Sprachen", fach -> !fach.getName().equals("Sport"), 2),
+                EinbringungsRegel.fach("Deutsch", 2));
+        List<Fach> faecher = new ArrayList<>();
+        int[] deutsch = {3, 3, 2, 2};
+        for (int h = 1; h <= 4; h++) {
+            faecher.add(fachMitPunkten(h, "Deutsch", deutsch[h - 1]));
+            faecher.add(fachMitPunkten(h + 4, "Englisch", 14));
+            faecher.add(fachMitPunkten(h + 8, "Sport", 15));
+        }
+
+        Einbringung.Auswahl auswahl = Einbringung.waehle(faecher, regeln, 6);
+        assertTrue(auswahl.zulaessig);
+        assertEquals(3 + 3 + 4 * 15, auswahl.summe); // Zwei Deutsch erfüllen beide Regeln, dazu viermal Sport
+        assertEquals(2, auswahl.unterpunktungen);
+        assertTrue(auswahl.eingebracht[0] && auswahl.eingebracht[3]);
+    }
+
+    private static Fach fachMitPunkten(long id, String name, int punkte) {
+        Fach fach = new Fach(id, name, 1 + (int) (id - 1) % 4, false);
+        fach.addNote(new Note(punkte, "schriftlich", id, 1));
+        return fach;
+    }
+
+    // --- Referenz: alle Teilmengen der Größe anzahl durchprobieren ---
+
+    private static int[] besteDurchProbieren(List<Fach> faecher, int anzahl) {
+        int n = faecher.size();
+        int[] beste = null;
+        boolean[] auswahl = new boolean[n];
+        for (int maske = 0; maske < 1 << n; maske++) {
+            if (Integer.bitCount(maske) != anzahl) {
+                continue;
+            }
+            int summe = 0;
+            int unterpunktungen = 0;
+            for (int i = 0; i < n; i++) {
+                auswahl[i] = (maske & 1 << i) != 0;
+                if (auswahl[i]) {
+                    int punkte = faecher.get(i).getDurchschnittsPunkte();
+                    summe += punkte;
+                    if (punkte <= 4) unterpunktungen++;
+                }
+            }
+            if (!erfuelltRegeln(faecher, auswahl)) {
+                continue;
+            }
+            if (beste == null || summe > beste[0] || summe == beste[0] && unterpunktungen < beste[1]) {
+                beste = new int[]{summe, unterpunktungen};
+            }
+        }
+        return beste;
+    }
+
+    // Eine Leistung zählt für jede Regel, die auf sie zutrifft, wie in Einbringung.
+    private static boolean erfuelltRegeln(List<Fach> faecher, boolean[] auswahl) {
+        int[] vorhanden = new int[REGELN.size()];
+        int[] eingebracht = new int[REGELN.size()];
+        for (int i = 0; i < faecher.size(); i++) {
+            for (int r = 0; r < REGELN.size(); r++) {
+                if (REGELN.get(r).bedingung.test(faecher.get(i))) {
+                    vorhanden[r]++;
+                    if (auswahl[i]) eingebracht[r]++;
+                }
+            }
+        }
+        for (int r = 0; r < REGELN.size(); r++) {
+            if (eingebracht[r] < Math.min(REGELN.get(r).mindestens, vorhanden[r])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
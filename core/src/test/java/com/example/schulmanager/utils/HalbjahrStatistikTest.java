@@ -0,0 +1,52 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Vergleicht {@link HalbjahrStatistik} mit je einem Durchlauf pro Halbjahr.
+ */
+public class HalbjahrStatistikTest {
+
+    @Test
+    public void einDurchlaufWieVierEinzelne() {
+        Random random = new Random(31);
+        for (int durchlauf = 0; durchlauf < 500; durchlauf++) {
+            List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, random.nextInt(60));
+            HalbjahrStatistik statistik = HalbjahrStatistik.berechne(faecher);
+
+            for (int halbjahr = 1; halbjahr <= HalbjahrStatistik.ANZAHL_HALBJAHRE; halbjahr++) {
+                BerechnungUtil.HalbjahrErgebnis erwartet = BerechnungUtil.berechneHalbjahrSchnitt(faecher, halbjahr);
+                BerechnungUtil.HalbjahrErgebnis ergebnis = statistik.getErgebnis(halbjahr);
+                assertEquals(erwartet.anzahlFaecher, ergebnis.anzahlFaecher);
+                assertEquals(erwartet.durchschnitt, ergebnis.durchschnitt, 0.0);
+
+                int unterpunktungen = 0, minimum = -1, maximum = -1, anzahlAbitur = 0, summeAbitur = 0;
+                for (Fach fach : faecher) {
+                    if (fach.getHalbjahr() != halbjahr) continue;
+                    int punkte = fach.getDurchschnittsPunkte();
+                    if (punkte <= 4) unterpunktungen++;
+                    if (minimum < 0 || punkte < minimum) minimum = punkte;
+                    maximum = Math.max(maximum, punkte);
+                    if (fach.isAbiturfach()) {
+                        anzahlAbitur++;
+                        summeAbitur += punkte;
+                    }
+                }
+                assertEquals(unterpunktungen, statistik.getUnterpunktungen(halbjahr));
+                assertEquals(minimum, statistik.getMinimum(halbjahr));
+                assertEquals(maximum, statistik.getMaximum(halbjahr));
+                assertEquals(anzahlAbitur, statistik.getAnzahlAbiturfaecher(halbjahr));
+                assertEquals(anzahlAbitur > 0 ? (double) summeAbitur / anzahlAbitur : 0,
+                        statistik.getDurchschnittAbiturfaecher(halbjahr), 0.0);
+            }
+            assertEquals(faecher.size(), statistik.getAnzahlGesamt());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Prüft, dass die parallele Jahrgangsberechnung für jeden Schüler dasselbe Ergebnis liefert wie
+ * {@link BerechnungUtil#berechneAbi(List, int[])}. Die Laufzeit mit einem und mit allen Kernen misst
+ * {@code JahrgangsBenchmark} in der JMH-Suite.
+ */
+public class JahrgangsBerechnungTest {
+
+    private static final int ANZAHL_SCHUELER = 20_000;
+
+    @Test
+    public void ergebnisseEntsprechenEinzelberechnung() {
+        Random random = new Random(11);
+        List<List<Fach>> jahrgang = new ArrayList<>();
+        int[][] pruefungen = new int[ANZAHL_SCHUELER][];
+        for (int s = 0; s < ANZAHL_SCHUELER; s++) {
+            jahrgang.add(BerechnungUtilTest.zufallsFaecher(random, 30 + random.nextInt(20)));
+            pruefungen[s] = new int[5];
+            for (int i = 0; i < 5; i++) {
+                pruefungen[s][i] = random.nextInt(16);
+            }
+        }
+
+        JahrgangsBerechnung.Ergebnis ergebnis = JahrgangsBerechnung.berechne(jahrgang, pruefungen);
+
+        assertEquals(ANZAHL_SCHUELER, ergebnis.getAnzahl());
+        for (int s = 0; s < ANZAHL_SCHUELER; s++) {
+            BerechnungUtil.AbiErgebnis erwartet = BerechnungUtil.berechneAbi(jahrgang.get(s), pruefungen[s]);
+            assertEquals(erwartet.halbjahresPunkte, ergebnis.halbjahresPunkte[s]);
+            assertEquals(erwartet.pruefungsPunkte, ergebnis.pruefungsPunkte[s]);
+            assertEquals(erwartet.gesamtPunkte, ergebnis.gesamtPunkte[s]);
+            assertEquals(erwartet.abiSchnitt, ergebnis.getAbiSchnitt(s));
+            assertEquals(erwartet.bestanden, ergebnis.bestanden[s]);
+        }
+
+        // Die Aufteilung auf die Kerne darf das Ergebnis nicht verändern.
+        ForkJoinPool einKern = new ForkJoinPool(1);
+        JahrgangsBerechnung.Ergebnis seriell = JahrgangsBerechnung.berechne(jahrgang, pruefungen, einKern);
+        einKern.shutdown();
+        assertArrayEquals(ergebnis.gesamtPunkte, seriell.gesamtPunkte);
+        assertArrayEquals(ergebnis.schnittZehntel, seriell.schnittZehntel);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Vergleicht {@link NotenWirkung} mit einer vollständigen Neuberechnung, in der das Fach durch eines
+ * mit den Zielpunkten ersetzt wird.
+ */
+public class NotenWirkungTest {
+
+    @Test
+    public void wirkungWieNeuberechnungMitGeaendertemFach() {
+        pruefe(Collections.emptyList(), 41);
+        pruefe(Collections.singletonList(EinbringungsRegel.abiturfaecher()), 42);
+    }
+
+    private static void pruefe(List<EinbringungsRegel> regeln, long seed) {
+        Random random = new Random(seed);
+        for (int durchlauf = 0; durchlauf < 20; durchlauf++) {
+            List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, 20 + random.nextInt(40));
+            int[] pruefungen = {random.nextInt(16), 10, 11, 9, 8};
+            AbiRechner rechner = new AbiRechner(faecher, pruefungen, regeln);
+            int gesamt = BerechnungUtil.berechneAbi(faecher, pruefungen, regeln).gesamtPunkte;
+
+            List<NotenWirkung> wirkungen = NotenWirkung.analysiere(rechner, faecher);
+            assertEquals(faecher.size(), wirkungen.size());
+            for (int i = 1; i < wirkungen.size(); i++) {
+                assertTrue(wirkungen.get(i - 1).getGewinnPlusEins() >= wirkungen.get(i).getGewinnPlusEins());
+            }
+
+            for (NotenWirkung wirkung : wirkungen) {
+                Fach fach = wirkung.getFach();
+                assertEquals(fach.getDurchschnittsPunkte(), wirkung.getPunkte());
+                for (int ziel = 0; ziel <= 15; ziel++) {
+                    List<Fach> geaendert = new ArrayList<>(faecher);
+                    Fach ersatz = new Fach(fach.getId(), fach.getName(), fach.getHalbjahr(), fach.isAbiturfach());
+                    ersatz.addNote(new Note(ziel, "schriftlich", 0, 1));
+                    geaendert.set(faecher.indexOf(fach), ersatz);
+                    int erwartet = BerechnungUtil.berechneAbi(geaendert, pruefungen, regeln).gesamtPunkte - gesamt;
+                    assertEquals(erwartet, wirkung.getGewinn(ziel));
+                }
+                assertTrue(wirkung.getBesteVerbesserung() >= wirkung.getPunkte());
+                assertTrue(wirkung.getVerlustMinusEins() >= 0);
+            }
+        }
+    }
+}
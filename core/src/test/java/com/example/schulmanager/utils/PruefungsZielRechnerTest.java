@@ -0,0 +1,102 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Vergleicht {@link PruefungsZielRechner} mit dem Durchprobieren aller Belegungen der offenen Prüfungen
+ * über {@link BerechnungUtil#berechneAbi(List, int[])}.
+ */
+public class PruefungsZielRechnerTest {
+
+    @Test
+    public void mindestGesamtPunkteIstUmkehrungDerTabelle() {
+        for (int zehntel = 10; zehntel <= 60; zehntel++) {
+            int mindestens = BerechnungUtil.mindestGesamtPunkte(zehntel);
+            assertTrue(BerechnungUtil.punkteZuNoteZehntel(mindestens) <= zehntel);
+            if (mindestens > 0) {
+                assertTrue(BerechnungUtil.punkteZuNoteZehntel(mindestens - 1) > zehntel);
+            }
+        }
+        assertEquals(643, BerechnungUtil.mindestGesamtPunkte(20));
+        assertEquals(300, BerechnungUtil.mindestGesamtPunkte(45));
+    }
+
+    @Test
+    public void ergebnisEntsprichtDurchprobieren() {
+        Random random = new Random(11);
+        for (int durchlauf = 0; durchlauf < 300; durchlauf++) {
+            List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, 1 + random.nextInt(48));
+            int[] pruefungen = new int[5];
+            for (int i = 0; i < pruefungen.length; i++) {
+                // Etwa die Hälfte der Prüfungen offen lassen.
+                pruefungen[i] = random.nextBoolean() ? PruefungsZielRechner.OFFEN : random.nextInt(16);
+            }
+            int ziel = 10 + random.nextInt(51);
+
+            PruefungsZielRechner.Ergebnis ergebnis = PruefungsZielRechner.berechne(faecher, pruefungen, ziel);
+            int erwarteteSumme = kleinsteSummeDurchProbieren(faecher, pruefungen, ziel);
+
+            assertEquals(erwarteteSumme >= 0, ergebnis.erreichbar);
+            if (ergebnis.erreichbar) {
+                assertEquals(erwarteteSumme, ergebnis.benoetigtePunkteSumme);
+                BerechnungUtil.AbiErgebnis abi = BerechnungUtil.berechneAbi(faecher, ergebnis.gleichmaessig);
+                assertTrue(ziel == 60 || abi.bestanden);
+                assertTrue(BerechnungUtil.punkteZuNoteZehntel(abi.gesamtPunkte) <= ziel);
+            } else {
+                assertTrue(ergebnis.gleichmaessig == null);
+            }
+        }
+    }
+
+    @Test
+    public void zuVieleUnterpunktungenSindNichtErreichbar() {
+        List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(new Random(3), 0);
+        for (int i = 0; i < 40; i++) {
+            faecher.add(new Fach(i + 1, "Fach " + i, i % 4 + 1, false)); // ohne Noten: 0 Punkte
+        }
+        int[] offen = {-1, -1, -1, -1, -1};
+        assertFalse(PruefungsZielRechner.berechne(faecher, offen, 40).erreichbar);
+        assertTrue(PruefungsZielRechner.berechne(faecher, offen, 60).erreichbar);
+    }
+
+    /**
+     * Probiert alle Belegungen der offenen Prüfungen durch.
+     *
+     * @return Die kleinste Punktsumme der offenen Prüfungen, mit der das Ziel erreicht und das Abitur bestanden ist,
+     * oder -1, wenn es keine gibt.
+     */
+    private static int kleinsteSummeDurchProbieren(List<Fach> faecher, int[] pruefungen, int ziel) {
+        int[] belegung = pruefungen.clone();
+        return probiere(faecher, pruefungen, belegung, 0, 0, ziel);
+    }
+
+    private static int probiere(List<Fach> faecher, int[] pruefungen, int[] belegung, int index, int summe, int ziel) {
+        if (index == belegung.length) {
+            BerechnungUtil.AbiErgebnis abi = BerechnungUtil.berechneAbi(faecher, belegung);
+            boolean erreicht = ziel == 60
+                    || abi.bestanden && BerechnungUtil.punkteZuNoteZehntel(abi.gesamtPunkte) <= ziel;
+            return erreicht ? summe : -1;
+        }
+        if (pruefungen[index] != PruefungsZielRechner.OFFEN) {
+            return probiere(faecher, pruefungen, belegung, index + 1, summe, ziel);
+        }
+        int beste = -1;
+        for (int punkte = 0; punkte <= 15; punkte++) {
+            belegung[index] = punkte;
+            int ergebnis = probiere(faecher, pruefungen, belegung, index + 1, summe + punkte, ziel);
+            if (ergebnis >= 0 && (beste < 0 || ergebnis < beste)) {
+                beste = ergebnis;
+            }
+        }
+        return beste;
+    }
+}
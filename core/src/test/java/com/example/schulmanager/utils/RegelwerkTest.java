@@ -0,0 +1,138 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Prüft {@link Regelwerk}: ein abweichendes Regelwerk gegen eine direkte Berechnung mit sortierter Liste,
+ * den {@link AbiRechner}, {@link HalbjahrStatistik} und {@link Einbringung} mit diesem Regelwerk und die Prüfung ungültiger Konfigurationen.
+ */
+public class RegelwerkTest {
+
+    // 36 Leistungen, Unterpunktung unter 5 Punkten, höchstens 7, vier Prüfungen mit × 5 (höchstens 75, zusammen 300).
+    private static Properties beispiel() {
+        Properties werte = new Properties();
+        werte.setProperty("name", "Beispiel");
+        werte.setProperty("halbjahr.anzahlLeistungen", "36");
+        werte.setProperty("halbjahr.maxPunkte", "600");
+        werte.setProperty("unterpunktung.grenze", "4");
+        werte.setProperty("unterpunktung.maxAnzahl", "7");
+        werte.setProperty("pruefung.anzahl", "4");
+        werte.setProperty("pruefung.faktor", "5");
+        werte.setProperty("pruefung.maxPunkte", "75");
+        werte.setProperty("pruefung.maxGesamt", "300");
+        werte.setProperty("gesamt.mindestPunkte", "300");
+        werte.setProperty("punktetabelle", "800:10, 700:15, 600:20, 500:25, 400:30, 300:40");
+        return werte;
+    }
+
+    @Test
+    public void abweichendesRegelwerkWieDirekteBerechnung() {
+        Regelwerk regelwerk = Regelwerk.aus(beispiel());
+        assertEquals(900, regelwerk.getMaxGesamtPunkte());
+        assertEquals("1,0", regelwerk.punkteZuNoteGesamt(900));
+        assertEquals("1,5", regelwerk.punkteZuNoteGesamt(799));
+        assertEquals("4,0", regelwerk.punkteZuNoteGesamt(399));
+        assertEquals("6,0", regelwerk.punkteZuNoteGesamt(299));
+        assertEquals(400, regelwerk.mindestGesamtPunkte(35)); // keine eigene Zeile: wie 3,0
+        assertEquals(0, regelwerk.mindestGesamtPunkte(60));
+
+        Random random = new Random(25);
+        for (int durchlauf = 0; durchlauf < 1000; durchlauf++) {
+            List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, random.nextInt(50));
+            int[] pruefungen = {random.nextInt(16), random.nextInt(16), random.nextInt(16), random.nextInt(16)};
+
+            // Direkt: sortieren, die besten 36 nehmen, hochrechnen, Prüfungen × 5.
+            List<Integer> punkte = new ArrayList<>();
+            for (Fach fach : faecher) punkte.add(fach.getDurchschnittsPunkte());
+            punkte.sort(Collections.reverseOrder());
+            int anzahl = Math.min(36, punkte.size());
+            int summe = 0, unterpunktungen = 0;
+            for (int i = 0; i < anzahl; i++) {
+                summe += punkte.get(i);
+                if (punkte.get(i) <= 4) unterpunktungen++;
+            }
+            int halbjahr = anzahl == 0 ? 0 : Math.min(600, (int) Math.round(summe * 36.0 / anzahl));
+            int pruefung = 0;
+            for (int note : pruefungen) pruefung += Math.min(75, note * 5);
+            pruefung = Math.min(300, pruefung);
+            boolean bestanden = unterpunktungen <= 7 && halbjahr + pruefung >= 300;
+
+            BerechnungUtil.AbiErgebnis ergebnis = regelwerk.berechneAbi(faecher, pruefungen);
+            assertEquals(halbjahr, ergebnis.halbjahresPunkte);
+            assertEquals(pruefung, ergebnis.pruefungsPunkte);
+            assertEquals(bestanden, ergebnis.bestanden);
+            assertEquals(regelwerk.punkteZuNoteGesamt(halbjahr + pruefung), ergebnis.abiSchnitt);
+
+            List<EinbringungsRegel> regeln = Collections.singletonList(EinbringungsRegel.abiturfaecher());
+            BerechnungUtil.AbiErgebnis mitRegeln = regelwerk.berechneAbi(faecher, pruefungen, regeln);
+            BerechnungUtil.AbiErgebnis rechner = new AbiRechner(faecher, pruefungen, regeln, regelwerk).getErgebnis();
+            assertEquals(mitRegeln.gesamtPunkte, rechner.gesamtPunkte);
+            assertEquals(mitRegeln.bestandenNachricht, rechner.bestandenNachricht);
+        }
+    }
+
+    @Test
+    public void unterpunktungsGrenzeUndAnzahlKommenAusDemRegelwerk() {
+        Properties werte = beispiel();
+        werte.setProperty("unterpunktung.grenze", "6");
+        Regelwerk regelwerk = Regelwerk.aus(werte);
+
+        List<Fach> faecher = new ArrayList<>();
+        for (int punkte = 0; punkte < 40; punkte++) {
+            Fach fach = new Fach(punkte, "F" + punkte, 1, false);
+            fach.addNote(new Note(punkte % 16, null, 0L, 1.0));
+            faecher.add(fach);
+        }
+        // Fachpunkte 0-15 je zweimal, 0-7 ein drittes Mal: 0-6 Punkte also 21-mal (bis 4 Punkte nur 15-mal).
+        assertEquals(21, HalbjahrStatistik.berechne(faecher, regelwerk).getUnterpunktungen(1));
+        assertEquals(15, HalbjahrStatistik.berechne(faecher).getUnterpunktungen(1));
+
+        Einbringung.Auswahl auswahl = Einbringung.waehle(faecher, Collections.emptyList(), regelwerk);
+        assertEquals(36, auswahl.anzahl);
+        int eingebracht = 0;
+        for (boolean b : auswahl.eingebracht) if (b) eingebracht++;
+        assertEquals(36, eingebracht);
+        // Nicht eingebracht werden die vier schlechtesten (0, 0, 0, 1); unterpunktet bleiben die übrigen bis 6 Punkte.
+        assertEquals(21 - 4, auswahl.unterpunktungen);
+    }
+
+    @Test
+    public void ungueltigeKonfigurationWirdAbgelehnt() {
+        assertSame(Regelwerk.BAYERN.punkteZuNoteGesamt(643), Regelwerk.laden("bayern").punkteZuNoteGesamt(643));
+        pruefeUngueltig("punktetabelle", "800:10, 810:11, 300:40"); // Untergrenzen nicht absteigend
+        pruefeUngueltig("punktetabelle", "800:11, 300:40");         // 1,0 fehlt
+        pruefeUngueltig("pruefung.faktor", "0");
+        pruefeUngueltig("unterpunktung.grenze", "16");
+        pruefeUngueltig("halbjahr.maxPunkte", "viele");
+        try {
+            Regelwerk.laden("atlantis");
+            fail("Unbekanntes Regelwerk geladen");
+        } catch (IllegalArgumentException erwartet) {
+            // ok
+        }
+    }
+
+    private static void pruefeUngueltig(String schluessel, String wert) {
+        Properties werte = beispiel();
+        werte.setProperty(schluessel, wert);
+        try {
+            Regelwerk.aus(werte);
+            fail("Ungültiges " + schluessel + " akzeptiert: " + wert);
+        } catch (IllegalArgumentException erwartet) {
+            // ok
+        }
+    }
+}
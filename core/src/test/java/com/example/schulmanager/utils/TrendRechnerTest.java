@@ -0,0 +1,90 @@
+package com.example.schulmanager.utils;
+
+import com.example.schulmanager.models.Fach;
+import com.example.schulmanager.models.Note;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Prüft {@link TrendRechner}: exakte Gerade bei linearen Noten und nach Einzeländerungen
+ * dieselben Werte wie ein neu eingelesenes Fach.
+ */
+public class TrendRechnerTest {
+
+    private static final long TAG = 24 * 60 * 60 * 1000L;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void fallendeNotenWerdenErkannt() {
+        // 12 Punkte, alle 10 Tage einer weniger: nach 100 Tagen liegen die Noten bei 2 Punkten.
+        Fach fach = new Fach(1, "Physik", 1, false);
+        TrendRechner rechner = new TrendRechner(Collections.singletonList(fach));
+        for (int i = 0; i < 5; i++) {
+            fach.addNote(new Note(12 - i, "schriftlich", START + i * 10 * TAG, 1 + i % 2));
+            rechner.fachAktualisieren(fach);
+        }
+        TrendRechner.Trend trend = rechner.getTrend(fach);
+        assertEquals(-0.1, trend.getSteigungProTag(), 1e-12);
+        assertEquals(2.0, trend.getPrognose(START + 100 * TAG), 1e-9);
+        assertEquals(0.0, trend.getPrognose(START + 1000 * TAG), 0.0);
+        assertTrue(trend.isGefaehrdet(START + 100 * TAG, 4));
+        assertFalse(trend.isGefaehrdet(START + 50 * TAG, 4));
+        assertTrue(trend.isGefaehrdet(START + 50 * TAG, 7)); // Hochrechnung 7 Punkte
+        assertEquals(Collections.singletonList(fach),
+                rechner.getGefaehrdeteFaecher(Collections.singletonList(fach), START + 100 * TAG));
+
+        // Alle Noten am selben Tag: kein Trend, Prognose ist der Durchschnitt.
+        Fach gleicherTag = new Fach(2, "Chemie", 1, false);
+        gleicherTag.addNote(new Note(3, "schriftlich", START, 1));
+        gleicherTag.addNote(new Note(5, "muendlich", START, 1));
+        TrendRechner.Trend ohneRichtung = new TrendRechner(Collections.singletonList(gleicherTag)).getTrend(gleicherTag);
+        assertEquals(0.0, ohneRichtung.getSteigungProTag(), 0.0);
+        assertEquals(4.0, ohneRichtung.getPrognose(START + 100 * TAG), 1e-12);
+        assertFalse(ohneRichtung.isGefaehrdet(START + 100 * TAG, 4));
+    }
+
+    @Test
+    public void laufendesHalbjahrHatDieJuengsteNote() {
+        Fach alt = new Fach(1, "Physik", 1, false);
+        alt.addNote(new Note(3, "schriftlich", START, 1));
+        Fach neu = new Fach(2, "Chemie", 2, false);
+        neu.addNote(new Note(10, "schriftlich", START + 200 * TAG, 1));
+        neu.addNote(new Note(10, "muendlich", START + 150 * TAG, 0)); // Älter und ohne Gewichtung
+        Fach leer = new Fach(3, "Biologie", 3, false);
+        List<Fach> faecher = Arrays.asList(alt, neu, leer);
+        TrendRechner rechner = new TrendRechner(faecher);
+
+        assertEquals(2, rechner.getLaufendesHalbjahr(faecher));
+        assertEquals(0, rechner.getLaufendesHalbjahr(Collections.singletonList(leer)));
+    }
+
+    @Test
+    public void einzelaenderungenWieNeuEingelesen() {
+        Random random = new Random(24);
+        List<Fach> faecher = BerechnungUtilTest.zufallsFaecher(random, 30);
+        TrendRechner rechner = new TrendRechner(faecher);
+        for (int schritt = 0; schritt < 3000; schritt++) {
+            Fach fach = faecher.get(random.nextInt(faecher.size()));
+            if (fach.getAnzahlNoten() > 0 && random.nextInt(4) == 0) {
+                fach.removeNoteAt(random.nextInt(fach.getAnzahlNoten()));
+            } else {
+                fach.addNote(new Note(random.nextInt(16), "schriftlich", START + random.nextInt(180) * TAG, random.nextInt(3)));
+            }
+            rechner.fachAktualisieren(fach);
+
+            TrendRechner.Trend erwartet = new TrendRechner(Collections.singletonList(fach)).getTrend(fach);
+            TrendRechner.Trend trend = rechner.getTrend(fach);
+            assertEquals(erwartet.getSteigungProTag(), trend.getSteigungProTag(), 1e-9);
+            assertEquals(erwartet.getPrognose(START + 200 * TAG), trend.getPrognose(START + 200 * TAG), 1e-6);
+        }
+    }
+}
@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Schulmanager"
 include(":app")
+include(":core")
  
\ No newline at end of file